@@ -0,0 +1,431 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query plan regression check for the DAO queries.
+ *
+ * Run against a local PostgreSQL database (DATABASE_URL), not production. Inside a single
+ * transaction it seeds QUERY_PLAN_SEED_ROWS ticket logs (plus guilds, support roles, ticket
+ * events, close requests and transcripts), runs ANALYZE, and asks the planner for
+ * {@code EXPLAIN (FORMAT JSON)} of every DAO query with representative parameters. A query fails the check when its plan contains a Seq Scan
+ * on a relation holding more than QUERY_PLAN_MAX_SEQ_SCAN_ROWS rows. The transaction is rolled
+ * back at the end, so the seeded rows never persist.
+ *
+ * Lives with the benchmarks so it is not packaged with the bot. Exits with status 1 when any
+ * query fails, so it can gate a build:
+ * {@code java -cp target/benchmarks.jar com.discordticketbot.database.QueryPlanCheck}
+ */
+public class QueryPlanCheck {
+    // Seeded IDs live far above real Discord snowflakes handed out today, to stay clear of real rows
+    private static final long SEED_GUILD_BASE = 900000000000000000L;
+    private static final long SEED_CHANNEL_BASE = 920000000000000000L;
+    private static final long SEED_USER_BASE = 930000000000000000L;
+    private static final long SEED_ROLE_BASE = 940000000000000000L;
+
+    private static final String SAMPLE_GUILD = String.valueOf(SEED_GUILD_BASE + 1);
+    private static final String SAMPLE_CHANNEL = String.valueOf(SEED_CHANNEL_BASE + 1);
+    private static final String SAMPLE_USER = String.valueOf(SEED_USER_BASE + 1);
+    private static final String SAMPLE_ROLE = String.valueOf(SEED_ROLE_BASE + 1);
+
+    /**
+     * Binds representative parameters for one query
+     */
+    @FunctionalInterface
+    interface Binder {
+        void bind(Connection conn, PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * One DAO query to plan. fullScanReason is set for queries that are meant to read a whole table.
+     */
+    static class PlanCase {
+        final String name;
+        final String sql;
+        final Binder binder;
+        final String fullScanReason;
+
+        PlanCase(String name, String sql, Binder binder) {
+            this(name, sql, binder, null);
+        }
+
+        PlanCase(String name, String sql, Binder binder, String fullScanReason) {
+            this.name = name;
+            this.sql = sql;
+            this.binder = binder;
+            this.fullScanReason = fullScanReason;
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    private final int seedRows;
+    private final long maxSeqScanRows;
+
+    public QueryPlanCheck(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        this.seedRows = Math.max(1000, EnvUtil.getInt("QUERY_PLAN_SEED_ROWS", 20000));
+        this.maxSeqScanRows = EnvUtil.getLong("QUERY_PLAN_MAX_SEQ_SCAN_ROWS", 1000);
+    }
+
+    public static void main(String[] args) {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        boolean passed;
+        try {
+            passed = new QueryPlanCheck(dbManager).run();
+        } finally {
+            dbManager.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Seed, analyze and plan every DAO query. Returns true when no query falls back to a large sequential scan.
+     */
+    public boolean run() {
+        List<String> failures = new ArrayList<>();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                seed(conn);
+
+                for (PlanCase planCase : planCases()) {
+                    checkPlan(conn, planCase, failures);
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Query plan check could not run: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("✅ Query plan check passed: no sequential scans over " + maxSeqScanRows + " rows");
+            return true;
+        }
+
+        System.err.println("❌ Query plan check failed for " + failures.size() + " queries:");
+        failures.forEach(failure -> System.err.println("   " + failure));
+        return false;
+    }
+
+    /**
+     * Every query the DAOs send on a hot path, with representative parameters
+     */
+    private List<PlanCase> planCases() {
+        List<PlanCase> cases = new ArrayList<>();
+
+        // TicketLogDAO
+        cases.add(new PlanCase("logTicketCreated", TicketLogDAO.LOG_TICKET_CREATED_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+            stmt.setString(3, "ticket-0001");
+            Snowflakes.bind(stmt, 4, SAMPLE_USER);
+            stmt.setString(5, "support");
+            stmt.setInt(6, 1);
+        }));
+        cases.add(new PlanCase("logTicketClosedWithReason", TicketLogDAO.LOG_TICKET_CLOSED_WITH_REASON_QUERY, QueryPlanCheck::bindTextAndChannel));
+        cases.add(new PlanCase("logTicketReopened", TicketLogDAO.LOG_TICKET_REOPENED_QUERY, QueryPlanCheck::bindTextAndChannel));
+        cases.add(new PlanCase("logTicketDeleted", TicketLogDAO.LOG_TICKET_DELETED_QUERY, QueryPlanCheck::bindTextAndChannel));
+        cases.add(new PlanCase("logTicketEvent", TicketLogDAO.LOG_TICKET_EVENT_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 3, SAMPLE_USER);
+            stmt.setShort(4, TicketEventType.CLOSE_REQUESTED.code);
+            stmt.setString(5, "Reason: Resolved");
+        }));
+        cases.add(new PlanCase("logTicketAutoClosed", TicketLogDAO.LOG_TICKET_AUTO_CLOSED_QUERY, QueryPlanCheck::bindTextAndChannel));
+        cases.add(new PlanCase("getTicketStats", TicketLogDAO.GET_TICKET_STATS_QUERY, QueryPlanCheck::bindGuild));
+        cases.add(new PlanCase("getTicketStatsByType", TicketLogDAO.GET_TICKET_STATS_BY_TYPE_QUERY, QueryPlanCheck::bindGuild));
+        cases.add(new PlanCase("getRecentTicketActivity", TicketLogDAO.GET_RECENT_TICKET_ACTIVITY_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            stmt.setInt(2, 10);
+        }));
+        cases.add(new PlanCase("getTicketsByUser", TicketLogDAO.GET_TICKETS_BY_USER_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 2, SAMPLE_USER);
+        }));
+        cases.add(new PlanCase("getTicketHistoryPage (first)", TicketLogDAO.historyQuery(false, false, TicketLogStore.PageDirection.OLDER, true),
+                (conn, stmt) -> {
+                    Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+                    stmt.setInt(2, 11);
+                }));
+        cases.add(new PlanCase("getTicketHistoryPage (older)", TicketLogDAO.historyQuery(false, true, TicketLogStore.PageDirection.OLDER, true),
+                (conn, stmt) -> {
+                    Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+                    bindHistoryCursor(stmt, 2);
+                    stmt.setInt(4, 11);
+                }));
+        cases.add(new PlanCase("getTicketHistoryPage (user, newer)", TicketLogDAO.historyQuery(true, true, TicketLogStore.PageDirection.NEWER, true),
+                (conn, stmt) -> {
+                    Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+                    Snowflakes.bind(stmt, 2, SAMPLE_USER);
+                    bindHistoryCursor(stmt, 3);
+                    stmt.setInt(5, 11);
+                }));
+        cases.add(new PlanCase("streamTicketHistory (user)", TicketLogDAO.historyQuery(true, false, TicketLogStore.PageDirection.OLDER, false),
+                (conn, stmt) -> {
+                    Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+                    Snowflakes.bind(stmt, 2, SAMPLE_USER);
+                }));
+        cases.add(new PlanCase("getTicketEvents", TicketLogDAO.GET_TICKET_EVENTS_QUERY,
+                (conn, stmt) -> Snowflakes.bind(stmt, 1, SAMPLE_CHANNEL)));
+        cases.add(new PlanCase("getHighestTicketNumber", TicketLogDAO.GET_HIGHEST_TICKET_NUMBER_QUERY, QueryPlanCheck::bindGuild));
+
+        // CloseRequestDAO
+        cases.add(new PlanCase("openCloseRequest", CloseRequestDAO.OPEN_CLOSE_REQUEST_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 2, SAMPLE_USER);
+            Snowflakes.bind(stmt, 3, SAMPLE_USER);
+            stmt.setString(4, "Resolved");
+            stmt.setInt(5, 24);
+            stmt.setInt(6, 24);
+            Snowflakes.bind(stmt, 7, SAMPLE_GUILD);
+            stmt.setShort(8, TicketEventType.CLOSE_REQUESTED.code);
+            Snowflakes.bind(stmt, 9, SAMPLE_CHANNEL);
+        }));
+        cases.add(new PlanCase("getCurrentState", CloseRequestDAO.GET_CURRENT_STATE_QUERY,
+                (conn, stmt) -> Snowflakes.bind(stmt, 1, SAMPLE_CHANNEL)));
+        cases.add(new PlanCase("updateCloseRequestMessageId", CloseRequestDAO.UPDATE_CLOSE_REQUEST_MESSAGE_ID_QUERY, QueryPlanCheck::bindUserAndChannel));
+        cases.add(new PlanCase("confirmCloseRequest", CloseRequestDAO.CONFIRM_CLOSE_REQUEST_QUERY, QueryPlanCheck::bindUserAndChannel));
+        cases.add(new PlanCase("denyCloseRequest", CloseRequestDAO.DENY_CLOSE_REQUEST_QUERY, QueryPlanCheck::bindUserAndChannel));
+        cases.add(new PlanCase("autoCloseRequest", CloseRequestDAO.AUTO_CLOSE_REQUEST_QUERY, QueryPlanCheck::bindUserAndChannel));
+        cases.add(new PlanCase("getMillisUntilNextAutoClose", CloseRequestDAO.GET_MILLIS_UNTIL_NEXT_AUTO_CLOSE_QUERY, (conn, stmt) -> {}));
+        cases.add(new PlanCase("claimDueAutoCloses", CloseRequestDAO.CLAIM_DUE_AUTO_CLOSES_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, Snowflakes.SYSTEM_USER_ID);
+            stmt.setInt(2, 100);
+        }));
+        cases.add(new PlanCase("releaseAutoCloseClaim", CloseRequestDAO.RELEASE_AUTO_CLOSE_CLAIM_QUERY, (conn, stmt) -> {
+            stmt.setLong(1, 300_000);
+            Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+        }));
+        cases.add(new PlanCase("excludeFromAutoClose", CloseRequestDAO.EXCLUDE_FROM_AUTO_CLOSE_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 2, SAMPLE_USER);
+            Snowflakes.bind(stmt, 3, Snowflakes.SYSTEM_USER_ID);
+            Snowflakes.bind(stmt, 4, SAMPLE_GUILD);
+        }));
+
+        // GuildConfigDAO
+        cases.add(new PlanCase("saveGuildConfig", GuildConfigDAO.SAVE_GUILD_CONFIG_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 3, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 4, SAMPLE_CHANNEL);
+            Snowflakes.bind(stmt, 5, SAMPLE_CHANNEL);
+            stmt.setInt(6, 1);
+            stmt.setInt(7, 30);
+            stmt.setInt(8, 30);
+        }));
+        cases.add(new PlanCase("loadGuildConfigs", String.format(GuildConfigDAO.LOAD_CONFIGS_QUERY, "WHERE g.guild_id = ANY(?)"),
+                (conn, stmt) -> Snowflakes.bindArray(stmt, 1, List.of(SAMPLE_GUILD))));
+        cases.add(new PlanCase("loadAllGuildConfigs", String.format(GuildConfigDAO.LOAD_CONFIGS_QUERY, ""), (conn, stmt) -> {},
+                "loads every guild once at startup"));
+        cases.add(new PlanCase("updateTicketCounter", GuildConfigDAO.UPDATE_TICKET_COUNTER_QUERY, QueryPlanCheck::bindCountAndGuild));
+        cases.add(new PlanCase("reserveTicketNumbers", GuildConfigDAO.RESERVE_TICKET_NUMBERS_QUERY, QueryPlanCheck::bindCountAndGuild));
+        cases.add(new PlanCase("saveSupportRoles (delete)", GuildConfigDAO.SAVE_SUPPORT_ROLES_DELETE_QUERY, QueryPlanCheck::bindGuild));
+        cases.add(new PlanCase("saveSupportRoles (insert)", GuildConfigDAO.SAVE_SUPPORT_ROLES_INSERT_QUERY, (conn, stmt) -> {
+            Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 2, SAMPLE_ROLE);
+        }));
+        cases.add(new PlanCase("deleteGuildConfig", GuildConfigDAO.DELETE_GUILD_CONFIG_QUERY, QueryPlanCheck::bindGuild));
+
+        // TranscriptDAO
+        cases.add(new PlanCase("saveTranscript", TranscriptDAO.SAVE_TRANSCRIPT_QUERY, (conn, stmt) -> {
+            stmt.setString(1, "plan-check-new");
+            Snowflakes.bind(stmt, 2, SAMPLE_GUILD);
+            Snowflakes.bind(stmt, 3, SAMPLE_CHANNEL);
+            stmt.setString(4, "plan-check-new");
+            stmt.setInt(5, 20);
+            stmt.setString(6, "Support: how can we help?");
+        }));
+        cases.add(new PlanCase("searchTranscripts", TranscriptDAO.SEARCH_TRANSCRIPTS_QUERY, (conn, stmt) -> {
+            stmt.setString(1, "chargeback");
+            Snowflakes.bind(stmt, 2, SAMPLE_GUILD);
+            stmt.setInt(3, 10);
+        }));
+
+        // RetentionEngine
+        cases.add(new PlanCase("retention (ticket_logs)", RetentionEngine.DELETE_TICKET_LOGS, QueryPlanCheck::bindIdWindow));
+        cases.add(new PlanCase("retention (ticket_events)", RetentionEngine.DELETE_TICKET_EVENTS, QueryPlanCheck::bindIdWindow));
+        cases.add(new PlanCase("retention (close_requests)", RetentionEngine.DELETE_CLOSE_REQUESTS, QueryPlanCheck::bindIdWindow));
+
+        return cases;
+    }
+
+    private static void bindGuild(Connection conn, PreparedStatement stmt) throws SQLException {
+        Snowflakes.bind(stmt, 1, SAMPLE_GUILD);
+    }
+
+    private static void bindTextAndChannel(Connection conn, PreparedStatement stmt) throws SQLException {
+        stmt.setString(1, "Closed by: " + SAMPLE_USER);
+        Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+    }
+
+    private static void bindUserAndChannel(Connection conn, PreparedStatement stmt) throws SQLException {
+        Snowflakes.bind(stmt, 1, SAMPLE_USER);
+        Snowflakes.bind(stmt, 2, SAMPLE_CHANNEL);
+    }
+
+    private static void bindCountAndGuild(Connection conn, PreparedStatement stmt) throws SQLException {
+        stmt.setInt(1, 1);
+        Snowflakes.bind(stmt, 2, SAMPLE_GUILD);
+    }
+
+    private static void bindHistoryCursor(PreparedStatement stmt, int index) throws SQLException {
+        stmt.setTimestamp(index, new Timestamp(System.currentTimeMillis() - 7L * 24 * 60 * 60 * 1000));
+        stmt.setLong(index + 1, 1000);
+    }
+
+    private static void bindIdWindow(Connection conn, PreparedStatement stmt) throws SQLException {
+        stmt.setLong(1, 1);
+        stmt.setLong(2, 5001);
+    }
+
+    /**
+     * Plan one query and record a failure for every oversized sequential scan in it
+     */
+    private void checkPlan(Connection conn, PlanCase planCase, List<String> failures) throws SQLException {
+        DataObject plan;
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN (FORMAT JSON) " + planCase.sql)) {
+            planCase.binder.bind(conn, stmt);
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            plan = DataArray.fromJson(rs.getString(1)).getObject(0).getObject("Plan");
+        }
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(plan, seqScans);
+
+        List<String> oversized = new ArrayList<>();
+        for (String relation : seqScans) {
+            long rows = estimatedRows(conn, relation);
+            if (rows > maxSeqScanRows) {
+                oversized.add(relation + " (" + rows + " rows)");
+            }
+        }
+
+        if (oversized.isEmpty()) {
+            System.out.println("✅ " + planCase.name + (seqScans.isEmpty() ? "" : " - small seq scans on " + seqScans));
+        } else if (planCase.fullScanReason != null) {
+            System.out.println("⚠️ " + planCase.name + " - seq scan on " + oversized + " allowed: " + planCase.fullScanReason);
+        } else {
+            System.err.println("❌ " + planCase.name + " - seq scan on " + oversized);
+            failures.add(planCase.name + ": seq scan on " + oversized);
+        }
+    }
+
+    /**
+     * Walk a plan tree and collect the relations read by Seq Scan nodes
+     */
+    private static void collectSeqScans(DataObject node, List<String> relations) {
+        if ("Seq Scan".equals(node.getString("Node Type", ""))) {
+            relations.add(node.getString("Relation Name", "?"));
+        }
+
+        if (node.hasKey("Plans")) {
+            DataArray children = node.getArray("Plans");
+            for (int i = 0; i < children.length(); i++) {
+                collectSeqScans(children.getObject(i), relations);
+            }
+        }
+    }
+
+    /**
+     * Row count of a relation as of the last ANALYZE
+     */
+    private static long estimatedRows(Connection conn, String relation) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT reltuples::BIGINT AS row_count FROM pg_class WHERE oid = to_regclass(?)")) {
+            stmt.setString(1, relation);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getLong("row_count") : 0;
+        }
+    }
+
+    /**
+     * Fill the tables with a realistic spread of guilds, users and tickets, then refresh statistics.
+     * IDs are written as BIGINT expressions; assignment casts also store them in VARCHAR columns.
+     */
+    private void seed(Connection conn) throws SQLException {
+        int guilds = Math.max(10, seedRows / 100);
+        int users = guilds * 20;
+        int closeRequests = seedRows / 4;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                INSERT INTO guild_configs (guild_id, ticket_counter)
+                SELECT %d + g, 0 FROM generate_series(1, %d) g
+                ON CONFLICT DO NOTHING
+                """.formatted(SEED_GUILD_BASE, guilds));
+
+            stmt.execute("""
+                INSERT INTO support_roles (guild_id, role_id)
+                SELECT %d + g, %d + g FROM generate_series(1, %d) g
+                ON CONFLICT DO NOTHING
+                """.formatted(SEED_GUILD_BASE, SEED_ROLE_BASE, guilds));
+
+            stmt.execute("""
+                INSERT INTO ticket_logs (guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number, created_at)
+                SELECT %d + 1 + g %% %d, %d + g, 'plan-check-' || g, %d + 1 + g %% %d, 'support', g / %d + 1,
+                       CURRENT_TIMESTAMP - (g %% 365) * INTERVAL '1 day'
+                FROM generate_series(1, %d) g
+                """.formatted(SEED_GUILD_BASE, guilds, SEED_CHANNEL_BASE, SEED_USER_BASE, users, guilds, seedRows));
+
+            // Statuses are set with plain literals so they also fit enum columns after the snowflake migration
+            stmt.execute("""
+                UPDATE ticket_logs SET status = 'closed', closed_at = created_at + INTERVAL '1 day'
+                WHERE channel_name LIKE 'plan-check-%' AND ticket_number % 3 = 0
+                """);
+
+            stmt.execute("""
+                INSERT INTO ticket_events (guild_id, channel_id, actor_id, event_type, created_at, detail)
+                SELECT %d + 1 + g %% %d, %d + g %% %d, %d + 1 + g %% %d, 1 + g %% 2,
+                       CURRENT_TIMESTAMP - (g %% 365) * INTERVAL '1 day', 'plan-check'
+                FROM generate_series(1, %d) g
+                """.formatted(SEED_GUILD_BASE, guilds, SEED_CHANNEL_BASE, seedRows, SEED_USER_BASE, users, seedRows / 2));
+
+            stmt.execute("""
+                INSERT INTO close_requests (channel_id, requested_by, ticket_owner, reason, timeout_hours, created_at, auto_close_at, guild_id)
+                SELECT %d + g, %d + 1 + g %% %d, %d + 1 + g %% %d, 'plan-check', 24,
+                       CURRENT_TIMESTAMP - (g %% 365) * INTERVAL '1 day', CURRENT_TIMESTAMP + (g %% 48) * INTERVAL '1 hour', %d + 1 + g %% %d
+                FROM generate_series(1, %d) g
+                ON CONFLICT (channel_id) DO NOTHING
+                """.formatted(SEED_CHANNEL_BASE, SEED_USER_BASE, users, SEED_USER_BASE, users, SEED_GUILD_BASE, guilds, closeRequests));
+
+            // Most close requests have been answered; only pending ones carry an auto-close deadline
+            stmt.execute("""
+                UPDATE close_requests SET status = 'confirmed', auto_close_at = NULL
+                WHERE reason = 'plan-check' AND id % 5 <> 0
+                """);
+
+            // One transcript in a hundred mentions a chargeback, the word the search case looks for
+            stmt.execute("""
+                INSERT INTO transcripts (unique_id, guild_id, channel_id, channel_name, message_count, created_at, content)
+                SELECT 'plan-check-' || g, %d + 1 + g %% %d, %d + g, 'plan-check-' || g, 20,
+                       CURRENT_TIMESTAMP - (g %% 365) * INTERVAL '1 day',
+                       'Support: how can we help? User: question about order ' || md5(g::text)
+                           || CASE WHEN g %% 100 = 0 THEN ' and a chargeback' ELSE ' and delivery' END
+                FROM generate_series(1, %d) g
+                ON CONFLICT (unique_id) DO NOTHING
+                """.formatted(SEED_GUILD_BASE, guilds, SEED_CHANNEL_BASE, seedRows / 4));
+
+            stmt.execute("ANALYZE guild_configs, support_roles, ticket_logs, ticket_events, close_requests, ticket_stats, transcripts");
+        }
+
+        System.out.println("✅ Seeded " + seedRows + " ticket logs across " + guilds + " guilds for the query plan check");
+    }
+}
@@ -0,0 +1,169 @@
+package com.discordticketbot.utils;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Renders a transcript of {@code messageCount} messages to disk, once the way transcripts were
+ * generated before {@link TranscriptWriter} (both documents built whole as Strings, then written
+ * out; kept below as {@link #buildStringsThenSave}) and once with {@link TranscriptWriter}.
+ * Files and their index go to a temporary directory, removed afterwards. Run it against the
+ * in-memory store with the GC profiler to compare allocation as well as time:
+ *
+ *   mvn -B -P benchmarks package
+ *   TICKET_STORE=memory java -jar target/benchmarks.jar TranscriptRenderBenchmark -prof gc
+ *
+ * Messages are fakes built with {@link Proxy}, so only rendering and file output are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class TranscriptRenderBenchmark {
+
+    @Param({"1000", "20000"})
+    public int messageCount;
+
+    private TextChannel channel;
+    private List<Message> messages;
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("transcript-benchmark");
+        TranscriptUtil.setTranscriptsDirectory(directory.toFile());
+
+        Guild guild = fake(Guild.class, "getName", "Benchmark Server", "getId", "1");
+        channel = fake(TextChannel.class, "getName", "ticket-benchmark", "getId", "2", "getGuild", guild);
+
+        User staff = fake(User.class, "getName", "staff", "getAvatarUrl", null);
+        User member = fake(User.class, "getName", "member", "getAvatarUrl", null);
+        OffsetDateTime start = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add(fake(Message.class,
+                    "getAuthor", i % 2 == 0 ? member : staff,
+                    "getTimeCreated", start.plusSeconds(i * 30L),
+                    "getContentDisplay", "Message " + i + ": the order <still> hasn't arrived & I'd like an update on it, please.",
+                    "getEmbeds", Collections.emptyList(),
+                    "getAttachments", Collections.emptyList(),
+                    "getReactions", Collections.emptyList()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long buildStringsThenSave() throws IOException {
+        List<Message> sorted = messages.stream()
+                .sorted(Comparator.comparing(Message::getTimeCreated))
+                .toList();
+
+        StringBuilder renderedText = new StringBuilder();
+        StringBuilder renderedHtml = new StringBuilder();
+        for (Message msg : sorted) {
+            TranscriptUtil.appendTextMessage(renderedText, msg);
+        }
+        for (Message msg : sorted) {
+            TranscriptUtil.appendHtmlMessage(renderedHtml, msg);
+        }
+
+        StringBuilder text = new StringBuilder(renderedText.length() + 1024);
+        TranscriptUtil.appendTextHeader(text, channel, messages.size(), null);
+        text.append(renderedText).append(TranscriptUtil.TEXT_FOOTER);
+
+        StringBuilder html = new StringBuilder(renderedHtml.length() + 8192);
+        TranscriptUtil.appendHtmlHeader(html, channel, messages.size(), null);
+        html.append(renderedHtml).append(TranscriptUtil.HTML_FOOTER);
+
+        String uniqueId = UUID.randomUUID().toString();
+        File textFile = save(TranscriptUtil.textFileName(channel), text.toString());
+        File htmlFile = save(TranscriptUtil.htmlFileName(channel, uniqueId), html.toString());
+        TranscriptIndex.getInstance().record(uniqueId, htmlFile);
+        return delete(textFile, htmlFile);
+    }
+
+    @Benchmark
+    public long streamToDisk() throws IOException {
+        try (TranscriptWriter writer = TranscriptWriter.open(channel)) {
+            writer.append(messages);
+            TranscriptWriter.Result result = writer.finish(null);
+            return delete(result.textFile, result.htmlFile.getFile());
+        }
+    }
+
+    private static File save(String fileName, String content) throws IOException {
+        File file = new File(TranscriptUtil.transcriptsDirectory(), fileName);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(TranscriptUtil.openCompressed(file), StandardCharsets.UTF_8))) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    private static long delete(File textFile, File htmlFile) {
+        long bytes = textFile.length() + htmlFile.length();
+        textFile.delete();
+        htmlFile.delete();
+        return bytes;
+    }
+
+    /**
+     * A stub whose methods return the given values by name (and null, empty or 0 otherwise)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Object... namesAndValues) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            for (int i = 0; i < namesAndValues.length; i += 2) {
+                if (namesAndValues[i].equals(method.getName())) {
+                    return namesAndValues[i + 1];
+                }
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) return false;
+            if (returnType == int.class) return 0;
+            if (returnType == long.class) return 0L;
+            if (returnType == List.class) return Collections.emptyList();
+            return null;
+        });
+    }
+}
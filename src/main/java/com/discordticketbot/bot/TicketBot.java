@@ -1,8 +1,13 @@
 package com.discordticketbot.bot;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.DatabaseManager;
-import com.discordticketbot.database.GuildConfigDAO;
+import com.discordticketbot.database.GuildConfigStore;
+import com.discordticketbot.database.TicketStore;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.database.TranscriptSearchWriter;
+import com.discordticketbot.handlers.AutoCloseScheduler;
+import com.discordticketbot.handlers.TranscriptJobService;
+import com.discordticketbot.listeners.ChannelListener;
 import com.discordticketbot.listeners.CommandListener;
 import com.discordticketbot.listeners.ButtonListener;
 import com.discordticketbot.listeners.ReadyListener;
@@ -12,20 +17,18 @@ import com.discordticketbot.utils.CommandDiagnosticUtil;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import com.discordticketbot.database.CloseRequestDAO;
-import com.discordticketbot.database.TicketLogDAO;
-
 public class TicketBot {
     private final String botToken;
     private JDA jda;
-    private final Map<String, GuildConfig> guildConfigs = new HashMap<>();
-    private GuildConfigDAO guildConfigDAO;
+    private final Map<String, GuildConfig> guildConfigs = new ConcurrentHashMap<>(); // also updated by the config change feed
+    private TicketStore store;
+    private GuildConfigStore guildConfigStore;
 
     public TicketBot(String botToken) {
         this.botToken = botToken;
@@ -33,13 +36,13 @@ public class TicketBot {
         // Initialize database connection
         try {
             System.out.println("🔄 Initializing database connection...");
-            DatabaseManager.getInstance(); // Initialize database
-            this.guildConfigDAO = new GuildConfigDAO();
+            this.store = TicketStores.get(); // Initialize the configured backend
+            this.guildConfigStore = store.guildConfigs();
             System.out.println("✅ Database initialized successfully!");
 
             // Test database connection
             System.out.println("🔄 Testing database connection...");
-            boolean testResult = DatabaseManager.getInstance().testConnection();
+            boolean testResult = store.testConnection();
             if (testResult) {
                 System.out.println("✅ Database connection test successful!");
             } else {
@@ -54,6 +57,26 @@ public class TicketBot {
     }
 
     public void start() throws Exception {
+        // Follow config changes made by other instances; subscribe first so none is missed during the load
+        store.watchGuildConfigs(new GuildConfigStore.ChangeListener() {
+            @Override
+            public void guildConfigChanged(String guildId) {
+                refreshGuildConfig(guildId);
+            }
+
+            @Override
+            public void guildConfigDeleted(String guildId) {
+                if (guildConfigs.remove(guildId) != null) {
+                    System.out.println("🔄 Guild config removed by another instance: " + guildId);
+                }
+            }
+
+            @Override
+            public void guildConfigsInvalidated() {
+                loadGuildConfigsFromDatabase();
+            }
+        });
+
         // Load existing guild configurations from database
         loadGuildConfigsFromDatabase();
 
@@ -63,7 +86,8 @@ public class TicketBot {
                         new CommandListener(guildConfigs),
                         new ButtonListener(guildConfigs),
                         new ModalListener(guildConfigs),
-                        new SelectMenuListener()
+                        new SelectMenuListener(),
+                        new ChannelListener()
                 )
                 .build();
 
@@ -82,15 +106,24 @@ public class TicketBot {
 
         // Start periodic cleanup task (daily)
         startCleanupScheduler();
+
+        // Resume persisted close request timeouts (closes any that expired while offline)
+        AutoCloseScheduler.getInstance().start(jda, guildConfigs);
+        store.startMaintenance();
     }
 
     /**
-     * Load all guild configurations from database into memory
+     * Load all guild configurations from database into memory, replacing what is there. Guilds
+     * deleted while the change feed was down are dropped; a failed load keeps the current copies.
      */
     private void loadGuildConfigsFromDatabase() {
         try {
             System.out.println("🔄 Loading guild configurations from database...");
-            Map<String, GuildConfig> loadedConfigs = guildConfigDAO.loadAllGuildConfigs();
+            Map<String, GuildConfig> loadedConfigs = guildConfigStore.loadAllGuildConfigs();
+            if (loadedConfigs == null) {
+                System.err.println("⚠️ Keeping the guild configurations already in memory");
+                return;
+            }
 
             // Set guild IDs and prepare configs for runtime use
             for (Map.Entry<String, GuildConfig> entry : loadedConfigs.entrySet()) {
@@ -109,6 +142,10 @@ public class TicketBot {
                 System.out.println("   - Ticket Counter: " + config.ticketCounter);
             }
 
+            if (guildConfigs.keySet().retainAll(loadedConfigs.keySet())) {
+                System.out.println("🔄 Dropped guild configurations no longer in the database");
+            }
+
             System.out.println("✅ Loaded " + guildConfigs.size() + " guild configurations from database");
 
         } catch (Exception e) {
@@ -117,6 +154,19 @@ public class TicketBot {
         }
     }
 
+    /**
+     * Replace the in-memory configuration of a guild with its stored state. A failed load keeps
+     * the current copy, only an explicit delete removes a guild.
+     */
+    private void refreshGuildConfig(String guildId) {
+        GuildConfig config = guildConfigStore.loadGuildConfig(guildId);
+        if (config != null) {
+            config.setGuildId(guildId);
+            guildConfigs.put(guildId, config);
+            System.out.println("🔄 Refreshed guild config: " + guildId);
+        }
+    }
+
     /**
      * Save guild configuration to both memory and database
      */
@@ -150,12 +200,19 @@ public class TicketBot {
      */
     public void shutdown() {
         try {
+            AutoCloseScheduler.getInstance().shutdown();
+            // Let transcripts being generated finish while JDA can still post them
+            TranscriptJobService.getInstance().shutdown();
+
             if (jda != null) {
                 jda.shutdown();
                 System.out.println("JDA shutdown completed");
             }
 
-            DatabaseManager.getInstance().close();
+            // Store transcripts still waiting for search before the pool goes away
+            TranscriptSearchWriter.getInstance().shutdown();
+
+            store.close();
             System.out.println("Database connections closed");
 
         } catch (Exception e) {
@@ -166,21 +223,10 @@ public class TicketBot {
 
     private void startCleanupScheduler() {
         ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-        TicketLogDAO ticketLogDAO = new TicketLogDAO();
-        CloseRequestDAO closeRequestDAO = new CloseRequestDAO();
 
         Runnable task = () -> {
             try {
-                for (Map.Entry<String, GuildConfig> entry : guildConfigs.entrySet()) {
-                    GuildConfig cfg = entry.getValue();
-                    if (cfg == null) continue;
-                    if (cfg.cleanupTicketLogsDays > 0) {
-                        ticketLogDAO.cleanupOldTicketLogs(cfg.cleanupTicketLogsDays);
-                    }
-                    if (cfg.cleanupCloseRequestsDays > 0) {
-                        closeRequestDAO.cleanupOldCloseRequests(cfg.cleanupCloseRequestsDays);
-                    }
-                }
+                store.runRetention();
                 System.out.println("🧹 Daily cleanup completed");
             } catch (Exception e) {
                 System.err.println("❌ Cleanup task error: " + e.getMessage());
@@ -1,6 +1,8 @@
 package com.discordticketbot.config;
 
-import com.discordticketbot.database.GuildConfigDAO;
+import com.discordticketbot.database.GuildConfigStore;
+import com.discordticketbot.database.TicketNumberAllocator;
+import com.discordticketbot.database.TicketStores;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -13,17 +15,13 @@ public class GuildConfig {
     public String transcriptChannelId;
     public String errorLogChannelId; // Optional error logging channel
     public Set<String> supportRoleIds = new HashSet<>();
-    public int ticketCounter = 0; // Global ticket counter that persists
+    public volatile int ticketCounter = 0; // Highest ticket number handed out (the database holds the authoritative counter)
     public int cleanupTicketLogsDays = 30; // Retain closed/deleted ticket logs for N days
     public int cleanupCloseRequestsDays = 30; // Retain processed close-requests for N days
 
-    // Reference to DAO for database operations
-    private transient GuildConfigDAO dao;
     private transient String guildId;
 
-    public GuildConfig() {
-        this.dao = new GuildConfigDAO();
-    }
+    public GuildConfig() {}
 
     /**
      * Set the guild ID for this configuration (used for database operations)
@@ -38,18 +36,26 @@ public class GuildConfig {
     }
 
     /**
-     * Get the next ticket number and increment the counter
-     * This method now persists the counter to the database
+     * Get the next ticket number, or -1 if none could be allocated.
+     * Numbers are claimed atomically in the database, so this never blocks other ticket creations
+     * in the guild and stays unique across bot instances. There is no in-memory fallback: the
+     * local counter lags the database and would hand out numbers that are already taken.
      */
-    public synchronized int getNextTicketNumber() {
-        this.ticketCounter++;
-
-        // Save to database if guildId is set
-        if (guildId != null && dao != null) {
-            dao.updateTicketCounter(guildId, this.ticketCounter);
+    public int getNextTicketNumber() {
+        if (guildId == null) {
+            System.err.println("❌ Cannot allocate a ticket number for a configuration without a guild ID");
+            return -1;
         }
 
-        return this.ticketCounter;
+        int number = TicketNumberAllocator.getInstance().allocate(guildId);
+        if (number <= 0) {
+            System.err.println("❌ Could not allocate a ticket number from the database for guild " + guildId);
+            return -1;
+        }
+        if (number > ticketCounter) {
+            ticketCounter = number; // display only, the database counter is authoritative
+        }
+        return number;
     }
 
     /**
@@ -59,8 +65,8 @@ public class GuildConfig {
         this.ticketCounter = Math.max(this.ticketCounter, highestExistingNumber);
 
         // Save to database if guildId is set
-        if (guildId != null && dao != null) {
-            dao.updateTicketCounter(guildId, this.ticketCounter);
+        if (guildId != null) {
+            TicketStores.get().guildConfigs().updateTicketCounter(guildId, this.ticketCounter);
         }
     }
 
@@ -68,8 +74,8 @@ public class GuildConfig {
      * Save this configuration to the database
      */
     public void save() {
-        if (guildId != null && dao != null) {
-            dao.saveGuildConfig(guildId, this);
+        if (guildId != null) {
+            TicketStores.get().guildConfigs().saveGuildConfig(guildId, this);
         }
     }
 
@@ -77,12 +83,11 @@ public class GuildConfig {
      * Load configuration from database
      */
     public static GuildConfig load(String guildId) {
-        GuildConfigDAO dao = new GuildConfigDAO();
-        GuildConfig config = dao.loadGuildConfig(guildId);
+        GuildConfigStore store = TicketStores.get().guildConfigs();
+        GuildConfig config = store.loadGuildConfig(guildId);
 
         if (config != null) {
             config.setGuildId(guildId);
-            config.dao = dao;
         }
 
         return config;
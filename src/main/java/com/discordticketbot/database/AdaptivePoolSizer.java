@@ -0,0 +1,101 @@
+package com.discordticketbot.database;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grows or shrinks the connection pool between a floor and a ceiling based on how long callers
+ * waited for a connection (DB_POOL_ADAPTIVE=true).
+ *
+ * Every interval the p95 acquire time of that interval is compared with the target wait:
+ * <ul>
+ *   <li>above target, or any acquire timeout: grow by a quarter (at least one), up to the ceiling</li>
+ *   <li>well below target: shrink by one, but never below the interval's peak of connections in use plus one</li>
+ * </ul>
+ * Shrinking lowers the pool's maximum; surplus connections close as they go idle, busy ones are never cut.
+ */
+public class AdaptivePoolSizer {
+    private final HikariConfigMXBean poolConfig;
+    private final PoolMetrics metrics;
+    private final int floor;
+    private final int ceiling;
+    private final int minIdle;
+    private final double targetWaitMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private long[] lastAcquireSnapshot;
+    private long lastTimeouts;
+
+    AdaptivePoolSizer(HikariConfigMXBean poolConfig, PoolMetrics metrics, int floor, int ceiling, int minIdle,
+                      double targetWaitMillis, long intervalSeconds) {
+        this.poolConfig = poolConfig;
+        this.metrics = metrics;
+        this.floor = floor;
+        this.ceiling = ceiling;
+        this.minIdle = minIdle;
+        this.targetWaitMillis = targetWaitMillis;
+        this.lastAcquireSnapshot = metrics.getAcquireTime().snapshot();
+        this.lastTimeouts = metrics.getTimeouts();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::adjust, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void adjust() {
+        try {
+            long[] snapshot = metrics.getAcquireTime().snapshot();
+            long[] window = new long[snapshot.length];
+            for (int i = 0; i < snapshot.length; i++) {
+                window[i] = snapshot[i] - lastAcquireSnapshot[i];
+            }
+            lastAcquireSnapshot = snapshot;
+
+            long timeouts = metrics.getTimeouts();
+            long windowTimeouts = timeouts - lastTimeouts;
+            lastTimeouts = timeouts;
+
+            double p95 = LatencyHistogram.percentileMillis(window, 95);
+            int peakInUse = metrics.takePeakInUse();
+            int current = poolConfig.getMaximumPoolSize();
+            int target = current;
+
+            if (windowTimeouts > 0 || p95 > targetWaitMillis) {
+                target = Math.min(ceiling, current + Math.max(1, current / 4));
+            } else if (p95 <= targetWaitMillis / 4 && peakInUse + 1 < current) {
+                target = Math.max(floor, Math.max(peakInUse + 1, current - 1));
+            }
+
+            if (target != current) {
+                resize(target);
+                System.out.println(String.format("🔧 Database pool resized %d -> %d (acquire p95=%.2fms, timeouts=%d, peak in use=%d)",
+                        current, target, p95, windowTimeouts, peakInUse));
+            }
+
+        } catch (Exception e) {
+            System.err.println("❌ Adaptive pool sizing failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void resize(int maximumPoolSize) {
+        // Hikari expects minimumIdle <= maximumPoolSize; keep that true in whichever order applies
+        if (maximumPoolSize > poolConfig.getMaximumPoolSize()) {
+            poolConfig.setMaximumPoolSize(maximumPoolSize);
+            poolConfig.setMinimumIdle(Math.min(minIdle, maximumPoolSize));
+        } else {
+            poolConfig.setMinimumIdle(Math.min(minIdle, maximumPoolSize));
+            poolConfig.setMaximumPoolSize(maximumPoolSize);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
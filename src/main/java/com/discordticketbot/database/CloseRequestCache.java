@@ -0,0 +1,159 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, per-channel cache of close request state, shared by every {@link CloseRequestDAO}.
+ *
+ * Holds the latest close_requests row for a channel, or the fact that there is none, so status
+ * checks don't need a round-trip. DAO mutations write their RETURNING row through the cache.
+ * A read-through load takes a {@link #loadToken} before querying and stores its row with
+ * {@link #putLoaded}, which drops the row if the channel was written or invalidated meanwhile,
+ * so a slow read can never overwrite newer state.
+ * Entries expire after a TTL (this bounds staleness when another instance writes the same row)
+ * and the least recently used entry is evicted once the size limit is reached. Cached details
+ * are shared and must be treated as read-only.
+ */
+public class CloseRequestCache {
+    // Write generations are kept per stripe of channels, not per channel, so they survive eviction
+    private static final int GENERATION_STRIPES = 64;
+
+    private static CloseRequestCache instance;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private static class Entry {
+        final CloseRequestDAO.CloseRequestDetails details; // null when the channel has no close request
+        final long expiresAtNanos;
+
+        Entry(CloseRequestDAO.CloseRequestDetails details, long expiresAtNanos) {
+            this.details = details;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private CloseRequestCache() {
+        this.maxEntries = Math.max(1, EnvUtil.getInt("CLOSE_REQUEST_CACHE_SIZE", 10_000));
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, EnvUtil.getLong("CLOSE_REQUEST_CACHE_TTL_SECONDS", 300)));
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static synchronized CloseRequestCache getInstance() {
+        if (instance == null) {
+            instance = new CloseRequestCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Look up a channel. Returns null on a miss, an empty Optional if the channel is known to have no close request.
+     */
+    public synchronized Optional<CloseRequestDAO.CloseRequestDetails> get(String channelId) {
+        Entry entry = entries.get(channelId);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+            entries.remove(channelId);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return Optional.ofNullable(entry.details);
+    }
+
+    /**
+     * Store the state a mutation just wrote for a channel (null details = no close request row)
+     */
+    public synchronized void put(String channelId, CloseRequestDAO.CloseRequestDetails details) {
+        generations[stripe(channelId)]++;
+        entries.put(channelId, new Entry(details, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Take before reading a channel from the database, and pass to {@link #putLoaded}
+     */
+    public synchronized long loadToken(String channelId) {
+        return generations[stripe(channelId)];
+    }
+
+    /**
+     * Store a row read from the database, unless the channel was written or invalidated since
+     * {@code token} was taken. Returns whether it was stored.
+     */
+    public synchronized boolean putLoaded(String channelId, CloseRequestDAO.CloseRequestDetails details, long token) {
+        if (generations[stripe(channelId)] != token) {
+            return false;
+        }
+        entries.put(channelId, new Entry(details, System.nanoTime() + ttlNanos));
+        return true;
+    }
+
+    public synchronized void invalidate(String channelId) {
+        generations[stripe(channelId)]++;
+        entries.remove(channelId);
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+        entries.clear();
+    }
+
+    private static int stripe(String channelId) {
+        return Math.floorMod(channelId.hashCode(), GENERATION_STRIPES);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * One-line summary of the cache metrics
+     */
+    public String getMetricsSummary() {
+        return String.format("size=%d/%d, hits=%d, misses=%d, hit ratio=%.1f%%, evictions=%d, expirations=%d",
+                size(), maxEntries, getHits(), getMisses(), getHitRatio() * 100, evictions.get(), expirations.get());
+    }
+}
@@ -1,128 +1,200 @@
 package com.discordticketbot.database;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class CloseRequestDAO implements CloseRequestStore {
+    private static final String DETAILS_COLUMNS = """
+        channel_id, requested_by, ticket_owner, reason, timeout_hours, status,
+        created_at, responded_at, responded_by, excluded_from_autoclose, message_id""";
+
+    // One statement: the upsert only replaces a request that isn't pending (the row lock makes that
+    // check race-free), an excluded ticket keeps no deadline, and the close request event is
+    // written from whatever the upsert returned. Without an upsert the pending row comes back instead.
+    static final String OPEN_CLOSE_REQUEST_QUERY = """
+        WITH opened AS (
+            INSERT INTO close_requests (channel_id, requested_by, ticket_owner, reason, timeout_hours, status, created_at, auto_close_at, guild_id)
+            VALUES (?, ?, ?, ?, ?, 'pending', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP + (? * INTERVAL '1 hour'), ?)
+            ON CONFLICT (channel_id)
+            DO UPDATE SET
+                requested_by = EXCLUDED.requested_by,
+                reason = EXCLUDED.reason,
+                timeout_hours = CASE WHEN close_requests.excluded_from_autoclose THEN NULL ELSE EXCLUDED.timeout_hours END,
+                status = 'pending',
+                created_at = CURRENT_TIMESTAMP,
+                responded_at = NULL,
+                responded_by = NULL,
+                auto_close_at = CASE WHEN close_requests.excluded_from_autoclose THEN NULL ELSE EXCLUDED.auto_close_at END,
+                guild_id = EXCLUDED.guild_id
+            WHERE close_requests.status <> 'pending'
+            RETURNING guild_id, %1$s
+        ),
+        logged AS (
+            INSERT INTO ticket_events (guild_id, channel_id, actor_id, event_type, detail)
+            SELECT guild_id, channel_id, requested_by, ?, 'Reason: ' || reason || COALESCE(' | Timeout: ' || timeout_hours || 'h', '')
+            FROM opened
+        )
+        SELECT TRUE AS opened, %1$s FROM opened
+        UNION ALL
+        SELECT FALSE, %1$s FROM close_requests
+        WHERE channel_id = ? AND NOT EXISTS (SELECT 1 FROM opened)
+        """.formatted(DETAILS_COLUMNS);
+
+    static final String GET_CURRENT_STATE_QUERY = "SELECT " + DETAILS_COLUMNS + " FROM close_requests WHERE channel_id = ?";
+
+    static final String UPDATE_CLOSE_REQUEST_MESSAGE_ID_QUERY = "UPDATE close_requests SET message_id = ? WHERE channel_id = ? AND status = 'pending' RETURNING " + DETAILS_COLUMNS;
+
+    static final String CONFIRM_CLOSE_REQUEST_QUERY = """
+        UPDATE close_requests 
+        SET status = 'confirmed', responded_at = CURRENT_TIMESTAMP, responded_by = ?
+        WHERE channel_id = ? AND status = 'pending'
+        RETURNING
+        """ + DETAILS_COLUMNS;
+
+    static final String DENY_CLOSE_REQUEST_QUERY = """
+        UPDATE close_requests 
+        SET status = 'denied', responded_at = CURRENT_TIMESTAMP, responded_by = ?
+        WHERE channel_id = ? AND status = 'pending'
+        RETURNING
+        """ + DETAILS_COLUMNS;
+
+    static final String AUTO_CLOSE_REQUEST_QUERY = """
+        UPDATE close_requests 
+        SET status = 'auto_closed', responded_at = CURRENT_TIMESTAMP, responded_by = ?
+        WHERE channel_id = ? AND status = 'pending'
+        RETURNING
+        """ + DETAILS_COLUMNS;
+
+    static final String GET_MILLIS_UNTIL_NEXT_AUTO_CLOSE_QUERY = """
+        SELECT CEIL(EXTRACT(EPOCH FROM (MIN(auto_close_at) - CURRENT_TIMESTAMP)) * 1000) AS millis_until
+        FROM close_requests 
+        WHERE status = 'pending' AND auto_close_at IS NOT NULL
+        """;
+
+    static final String CLAIM_DUE_AUTO_CLOSES_QUERY = """
+        UPDATE close_requests 
+        SET status = 'auto_closed', responded_at = CURRENT_TIMESTAMP, responded_by = ?
+        WHERE id IN (
+            SELECT id FROM close_requests 
+            WHERE status = 'pending' AND auto_close_at <= CURRENT_TIMESTAMP
+            ORDER BY auto_close_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING guild_id,
+        """ + DETAILS_COLUMNS;
+
+    static final String RELEASE_AUTO_CLOSE_CLAIM_QUERY = """
+        UPDATE close_requests 
+        SET status = 'pending', responded_at = NULL, responded_by = NULL,
+            auto_close_at = CURRENT_TIMESTAMP + (? * INTERVAL '1 millisecond')
+        WHERE channel_id = ? AND status = 'auto_closed'
+        RETURNING
+        """ + DETAILS_COLUMNS;
+
+    static final String EXCLUDE_FROM_AUTO_CLOSE_QUERY = """
+        INSERT INTO close_requests (channel_id, requested_by, ticket_owner, reason, status, excluded_from_autoclose, created_at, guild_id)
+        VALUES (?, ?, ?, 'Excluded from auto-close', 'excluded', TRUE, CURRENT_TIMESTAMP, ?)
+        ON CONFLICT (channel_id)
+        DO UPDATE SET 
+            excluded_from_autoclose = TRUE,
+            status = 'excluded',
+            auto_close_at = NULL,
+            guild_id = EXCLUDED.guild_id
+        RETURNING
+        """ + DETAILS_COLUMNS;
 
-public class CloseRequestDAO {
     private final DatabaseManager dbManager;
+    private final CloseRequestCache cache;
 
     public CloseRequestDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.cache = CloseRequestCache.getInstance();
     }
 
     /**
-     * Data class to hold close request details
+     * Open a close request in one round trip (see {@link #OPEN_CLOSE_REQUEST_QUERY})
      */
-    public static class CloseRequestDetails {
-        public String channelId;
-        public String requestedBy;
-        public String ticketOwner;
-        public String reason;
-        public Integer timeoutHours;
-        public String status;
-        public Timestamp createdAt;
-        public Timestamp respondedAt;
-        public String respondedBy;
-        public boolean excludedFromAutoClose;
-        public String messageId;
-
-        public CloseRequestDetails() {}
-    }
-
-    /**
-     * Create a new close request
-     */
-    public void createCloseRequest(String channelId, String requestedBy, String ticketOwner, String reason, Integer timeoutHours) {
-        String query = """
-            INSERT INTO close_requests (channel_id, requested_by, ticket_owner, reason, timeout_hours, status, created_at)
-            VALUES (?, ?, ?, ?, ?, 'pending', CURRENT_TIMESTAMP)
-            ON CONFLICT (channel_id) 
-            DO UPDATE SET 
-                requested_by = EXCLUDED.requested_by,
-                reason = EXCLUDED.reason,
-                timeout_hours = EXCLUDED.timeout_hours,
-                status = 'pending',
-                created_at = CURRENT_TIMESTAMP,
-                responded_at = NULL,
-                responded_by = NULL
-            """;
-
+    @Override
+    public OpenCloseRequestResult openCloseRequest(String guildId, String channelId, String requestedBy, String ticketOwner, String reason, Integer timeoutHours) {
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(OPEN_CLOSE_REQUEST_QUERY)) {
 
-            stmt.setString(1, channelId);
-            stmt.setString(2, requestedBy);
-            stmt.setString(3, ticketOwner);
+            Snowflakes.bind(stmt, 1, channelId);
+            Snowflakes.bind(stmt, 2, requestedBy);
+            Snowflakes.bind(stmt, 3, ticketOwner);
             stmt.setString(4, reason);
             if (timeoutHours != null) {
                 stmt.setInt(5, timeoutHours);
+                stmt.setInt(6, timeoutHours);
             } else {
                 stmt.setNull(5, Types.INTEGER);
+                stmt.setNull(6, Types.INTEGER);
             }
+            Snowflakes.bind(stmt, 7, guildId);
+            stmt.setShort(8, TicketEventType.CLOSE_REQUESTED.code);
+            Snowflakes.bind(stmt, 9, channelId);
+            ResultSet rs = stmt.executeQuery();
 
-            stmt.executeUpdate();
+            if (!rs.next()) {
+                // Another instance opened one after this statement's snapshot was taken
+                cache.invalidate(channelId);
+                return new OpenCloseRequestResult(false, null, timeoutHours);
+            }
+
+            CloseRequestDetails details = mapDetails(rs);
+            cache.put(channelId, details);
+            return new OpenCloseRequestResult(rs.getBoolean("opened"), details, timeoutHours);
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to create close request: " + e.getMessage());
+            cache.invalidate(channelId);
+            System.err.println("❌ Failed to open close request: " + e.getMessage());
             e.printStackTrace();
         }
+
+        return null;
     }
 
     /**
      * Check if there's an active close request for a channel
      */
+    @Override
     public boolean hasActiveCloseRequest(String channelId) {
-        String query = "SELECT COUNT(*) FROM close_requests WHERE channel_id = ? AND status = 'pending'";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, channelId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to check active close requests: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return false;
+        CloseRequestDetails state = getCurrentState(channelId);
+        return state != null && "pending".equals(state.status);
     }
 
     /**
      * Get close request details
      */
+    @Override
     public CloseRequestDetails getCloseRequestDetails(String channelId) {
-        String query = """
-            SELECT channel_id, requested_by, ticket_owner, reason, timeout_hours, status, 
-                   created_at, responded_at, responded_by, excluded_from_autoclose, message_id
-            FROM close_requests 
-            WHERE channel_id = ? AND status = 'pending'
-            """;
+        CloseRequestDetails state = getCurrentState(channelId);
+        return state != null && "pending".equals(state.status) ? state : null;
+    }
+
+    /**
+     * Get the close request row for a channel whatever its status, served from the cache when possible
+     */
+    private CloseRequestDetails getCurrentState(String channelId) {
+        Optional<CloseRequestDetails> cached = cache.get(channelId);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
 
+        // Taken before the read, so a write that lands while it runs keeps its newer row cached
+        long token = cache.loadToken(channelId);
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(GET_CURRENT_STATE_QUERY)) {
 
-            stmt.setString(1, channelId);
+            Snowflakes.bind(stmt, 1, channelId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                CloseRequestDetails details = new CloseRequestDetails();
-                details.channelId = rs.getString("channel_id");
-                details.requestedBy = rs.getString("requested_by");
-                details.ticketOwner = rs.getString("ticket_owner");
-                details.reason = rs.getString("reason");
-                details.timeoutHours = rs.getObject("timeout_hours", Integer.class);
-                details.status = rs.getString("status");
-                details.createdAt = rs.getTimestamp("created_at");
-                details.respondedAt = rs.getTimestamp("responded_at");
-                details.respondedBy = rs.getString("responded_by");
-                details.excludedFromAutoClose = rs.getBoolean("excluded_from_autoclose");
-                details.messageId = rs.getString("message_id");
-                return details;
-            }
+            CloseRequestDetails details = rs.next() ? mapDetails(rs) : null;
+            cache.putLoaded(channelId, details, token);
+            return details;
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to get close request details: " + e.getMessage());
@@ -135,17 +207,17 @@ public class CloseRequestDAO {
     /**
      * Update close request with message ID
      */
+    @Override
     public void updateCloseRequestMessageId(String channelId, String messageId) {
-        String query = "UPDATE close_requests SET message_id = ? WHERE channel_id = ? AND status = 'pending'";
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_CLOSE_REQUEST_MESSAGE_ID_QUERY)) {
 
-            stmt.setString(1, messageId);
-            stmt.setString(2, channelId);
-            stmt.executeUpdate();
+            Snowflakes.bind(stmt, 1, messageId);
+            Snowflakes.bind(stmt, 2, channelId);
+            writeThrough(channelId, stmt.executeQuery());
 
         } catch (SQLException e) {
+            cache.invalidate(channelId);
             System.err.println("❌ Failed to update close request message ID: " + e.getMessage());
             e.printStackTrace();
         }
@@ -154,21 +226,17 @@ public class CloseRequestDAO {
     /**
      * Confirm close request
      */
+    @Override
     public void confirmCloseRequest(String channelId, String respondedBy) {
-        String query = """
-            UPDATE close_requests 
-            SET status = 'confirmed', responded_at = CURRENT_TIMESTAMP, responded_by = ?
-            WHERE channel_id = ? AND status = 'pending'
-            """;
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(CONFIRM_CLOSE_REQUEST_QUERY)) {
 
-            stmt.setString(1, respondedBy);
-            stmt.setString(2, channelId);
-            stmt.executeUpdate();
+            Snowflakes.bind(stmt, 1, respondedBy);
+            Snowflakes.bind(stmt, 2, channelId);
+            writeThrough(channelId, stmt.executeQuery());
 
         } catch (SQLException e) {
+            cache.invalidate(channelId);
             System.err.println("❌ Failed to confirm close request: " + e.getMessage());
             e.printStackTrace();
         }
@@ -177,21 +245,17 @@ public class CloseRequestDAO {
     /**
      * Deny close request
      */
+    @Override
     public void denyCloseRequest(String channelId, String respondedBy) {
-        String query = """
-            UPDATE close_requests 
-            SET status = 'denied', responded_at = CURRENT_TIMESTAMP, responded_by = ?
-            WHERE channel_id = ? AND status = 'pending'
-            """;
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(DENY_CLOSE_REQUEST_QUERY)) {
 
-            stmt.setString(1, respondedBy);
-            stmt.setString(2, channelId);
-            stmt.executeUpdate();
+            Snowflakes.bind(stmt, 1, respondedBy);
+            Snowflakes.bind(stmt, 2, channelId);
+            writeThrough(channelId, stmt.executeQuery());
 
         } catch (SQLException e) {
+            cache.invalidate(channelId);
             System.err.println("❌ Failed to deny close request: " + e.getMessage());
             e.printStackTrace();
         }
@@ -200,97 +264,162 @@ public class CloseRequestDAO {
     /**
      * Auto-close request (timeout)
      */
+    @Override
     public void autoCloseRequest(String channelId) {
-        String query = """
-            UPDATE close_requests 
-            SET status = 'auto_closed', responded_at = CURRENT_TIMESTAMP, responded_by = 'SYSTEM'
-            WHERE channel_id = ? AND status = 'pending'
-            """;
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(AUTO_CLOSE_REQUEST_QUERY)) {
 
-            stmt.setString(1, channelId);
-            stmt.executeUpdate();
+            Snowflakes.bind(stmt, 1, Snowflakes.SYSTEM_USER_ID);
+            Snowflakes.bind(stmt, 2, channelId);
+            writeThrough(channelId, stmt.executeQuery());
 
         } catch (SQLException e) {
+            cache.invalidate(channelId);
             System.err.println("❌ Failed to auto-close request: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
     /**
-     * Exclude ticket from auto-close
+     * Get the number of milliseconds until the earliest pending auto-close deadline.
+     * Returns -1 if no pending close request has a deadline.
      */
-    public void excludeFromAutoClose(String channelId, String excludedBy) {
-        String query = """
-            INSERT INTO close_requests (channel_id, requested_by, ticket_owner, reason, status, excluded_from_autoclose, created_at)
-            VALUES (?, ?, 'SYSTEM', 'Excluded from auto-close', 'excluded', TRUE, CURRENT_TIMESTAMP)
-            ON CONFLICT (channel_id)
-            DO UPDATE SET 
-                excluded_from_autoclose = TRUE,
-                status = 'excluded'
-            """;
-
+    @Override
+    public long getMillisUntilNextAutoClose() {
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(GET_MILLIS_UNTIL_NEXT_AUTO_CLOSE_QUERY)) {
 
-            stmt.setString(1, channelId);
-            stmt.setString(2, excludedBy);
-            stmt.executeUpdate();
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                long millisUntil = rs.getLong("millis_until");
+                if (!rs.wasNull()) {
+                    return Math.max(0, millisUntil);
+                }
+            }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to exclude from auto-close: " + e.getMessage());
+            System.err.println("❌ Failed to get next auto-close deadline: " + e.getMessage());
             e.printStackTrace();
         }
+
+        return -1;
     }
 
     /**
-     * Check if ticket is excluded from auto-close
+     * Atomically mark up to {@code limit} overdue pending close requests as auto-closed and return them.
+     * Uses SKIP LOCKED so concurrent bot instances never claim the same request twice.
      */
-    public boolean isExcludedFromAutoClose(String channelId) {
-        String query = "SELECT excluded_from_autoclose FROM close_requests WHERE channel_id = ?";
+    @Override
+    public List<DueAutoClose> claimDueAutoCloses(int limit) {
+        List<DueAutoClose> claimed = new ArrayList<>();
 
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(CLAIM_DUE_AUTO_CLOSES_QUERY)) {
 
-            stmt.setString(1, channelId);
+            Snowflakes.bind(stmt, 1, Snowflakes.SYSTEM_USER_ID);
+            stmt.setInt(2, limit);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return rs.getBoolean("excluded_from_autoclose");
+            while (rs.next()) {
+                CloseRequestDetails details = mapDetails(rs);
+                cache.put(details.channelId, details);
+
+                DueAutoClose due = new DueAutoClose();
+                due.channelId = details.channelId;
+                due.guildId = rs.getString("guild_id");
+                due.timeoutHours = details.timeoutHours != null ? details.timeoutHours : 0;
+                claimed.add(due);
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to check auto-close exclusion: " + e.getMessage());
+            System.err.println("❌ Failed to claim due auto-closes: " + e.getMessage());
             e.printStackTrace();
         }
 
-        return false;
+        return claimed;
     }
 
     /**
-     * Clean up old close requests (optional maintenance method)
+     * Put a claimed auto-close back to pending with a new deadline
      */
-    public void cleanupOldCloseRequests(int daysOld) {
-        String query = """
-            DELETE FROM close_requests 
-            WHERE status != 'pending' AND created_at < CURRENT_TIMESTAMP - (? * INTERVAL '1 day')
-            """;
-
+    @Override
+    public void releaseAutoCloseClaim(String channelId, long retryAfterMillis) {
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(RELEASE_AUTO_CLOSE_CLAIM_QUERY)) {
 
-            stmt.setInt(1, daysOld);
-            int deleted = stmt.executeUpdate();
+            stmt.setLong(1, retryAfterMillis);
+            Snowflakes.bind(stmt, 2, channelId);
+            writeThrough(channelId, stmt.executeQuery());
 
-            if (deleted > 0) {
-                System.out.println("🧹 Cleaned up " + deleted + " old close requests");
-            }
+        } catch (SQLException e) {
+            cache.invalidate(channelId);
+            System.err.println("❌ Failed to release auto-close claim: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exclude ticket from auto-close
+     */
+    @Override
+    public void excludeFromAutoClose(String guildId, String channelId, String excludedBy) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXCLUDE_FROM_AUTO_CLOSE_QUERY)) {
+
+            Snowflakes.bind(stmt, 1, channelId);
+            Snowflakes.bind(stmt, 2, excludedBy);
+            Snowflakes.bind(stmt, 3, Snowflakes.SYSTEM_USER_ID);
+            Snowflakes.bind(stmt, 4, guildId);
+            writeThrough(channelId, stmt.executeQuery());
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to cleanup old close requests: " + e.getMessage());
+            cache.invalidate(channelId);
+            System.err.println("❌ Failed to exclude from auto-close: " + e.getMessage());
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Check if ticket is excluded from auto-close
+     */
+    @Override
+    public boolean isExcludedFromAutoClose(String channelId) {
+        CloseRequestDetails state = getCurrentState(channelId);
+        return state != null && state.excludedFromAutoClose;
+    }
+
+    /**
+     * Drop the cached state of a channel (called when the channel is deleted)
+     */
+    @Override
+    public void evictChannel(String channelId) {
+        cache.invalidate(channelId);
+    }
+
+    /**
+     * Store the row returned by a mutation in the cache. No row means the statement didn't match,
+     * so the cached state (if any) is still accurate.
+     */
+    private void writeThrough(String channelId, ResultSet rs) throws SQLException {
+        if (rs.next()) {
+            cache.put(channelId, mapDetails(rs));
+        }
+    }
+
+    private CloseRequestDetails mapDetails(ResultSet rs) throws SQLException {
+        CloseRequestDetails details = new CloseRequestDetails();
+        details.channelId = rs.getString("channel_id");
+        details.requestedBy = rs.getString("requested_by");
+        details.ticketOwner = Snowflakes.displayUser(rs.getString("ticket_owner"));
+        details.reason = rs.getString("reason");
+        details.timeoutHours = rs.getObject("timeout_hours", Integer.class);
+        details.status = rs.getString("status");
+        details.createdAt = rs.getTimestamp("created_at");
+        details.respondedAt = rs.getTimestamp("responded_at");
+        details.respondedBy = Snowflakes.displayUser(rs.getString("responded_by"));
+        details.excludedFromAutoClose = rs.getBoolean("excluded_from_autoclose");
+        details.messageId = rs.getString("message_id");
+        return details;
+    }
+}
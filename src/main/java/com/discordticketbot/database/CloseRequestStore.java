@@ -0,0 +1,128 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Close requests: at most one row per ticket channel, carrying its auto-close deadline
+ */
+public interface CloseRequestStore {
+    /**
+     * Data class to hold close request details
+     */
+    class CloseRequestDetails {
+        public String channelId;
+        public String requestedBy;
+        public String ticketOwner;
+        public String reason;
+        public Integer timeoutHours;
+        public String status;
+        public Timestamp createdAt;
+        public Timestamp respondedAt;
+        public String respondedBy;
+        public boolean excludedFromAutoClose;
+        public String messageId;
+
+        public CloseRequestDetails() {}
+    }
+
+    /**
+     * Data class for a close request whose auto-close deadline has passed
+     */
+    class DueAutoClose {
+        public String channelId;
+        /** Null only for requests stored before close requests recorded their guild */
+        public String guildId;
+        public int timeoutHours;
+
+        public DueAutoClose() {}
+    }
+
+    /**
+     * Outcome of {@link #openCloseRequest}
+     */
+    class OpenCloseRequestResult {
+        /** True if a new request was opened; false if one was already pending, which is left as it was */
+        public final boolean opened;
+        /** The request now on the channel: the new one, or the one already pending (null if it vanished meanwhile) */
+        public final CloseRequestDetails details;
+        /** True if a timeout was asked for but not applied because the ticket is excluded from auto-close */
+        public final boolean timeoutDropped;
+
+        public OpenCloseRequestResult(boolean opened, CloseRequestDetails details, Integer requestedTimeoutHours) {
+            this.opened = opened;
+            this.details = details;
+            this.timeoutDropped = opened && requestedTimeoutHours != null && details != null && details.timeoutHours == null;
+        }
+    }
+
+    /**
+     * Open a close request unless one is already pending, replacing any earlier answered one.
+     * The pending check, the auto-close exclusion (which drops the timeout), the upsert and the
+     * close request event are applied atomically. Returns null if the store failed.
+     */
+    OpenCloseRequestResult openCloseRequest(String guildId, String channelId, String requestedBy, String ticketOwner, String reason, Integer timeoutHours);
+
+    /**
+     * Check if there's an active close request for a channel
+     */
+    boolean hasActiveCloseRequest(String channelId);
+
+    /**
+     * Get the pending close request of a channel, or null
+     */
+    CloseRequestDetails getCloseRequestDetails(String channelId);
+
+    /**
+     * Update close request with message ID
+     */
+    void updateCloseRequestMessageId(String channelId, String messageId);
+
+    /**
+     * Confirm close request
+     */
+    void confirmCloseRequest(String channelId, String respondedBy);
+
+    /**
+     * Deny close request
+     */
+    void denyCloseRequest(String channelId, String respondedBy);
+
+    /**
+     * Auto-close request (timeout)
+     */
+    void autoCloseRequest(String channelId);
+
+    /**
+     * Get the number of milliseconds until the earliest pending auto-close deadline.
+     * Returns -1 if no pending close request has a deadline.
+     */
+    long getMillisUntilNextAutoClose();
+
+    /**
+     * Mark up to {@code limit} overdue pending close requests as auto-closed and return them.
+     * A request is only ever claimed once.
+     */
+    List<DueAutoClose> claimDueAutoCloses(int limit);
+
+    /**
+     * Hand back an auto-close claimed by {@link #claimDueAutoCloses} that could not be carried out.
+     * The request is pending again with its deadline {@code retryAfterMillis} from now.
+     */
+    void releaseAutoCloseClaim(String channelId, long retryAfterMillis);
+
+    /**
+     * Exclude ticket from auto-close
+     */
+    void excludeFromAutoClose(String guildId, String channelId, String excludedBy);
+
+    /**
+     * Check if ticket is excluded from auto-close
+     */
+    boolean isExcludedFromAutoClose(String channelId);
+
+    /**
+     * Drop any state held in memory for a channel (called when the channel is deleted)
+     */
+    void evictChannel(String channelId);
+}
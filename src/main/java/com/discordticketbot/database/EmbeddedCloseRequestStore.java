@@ -0,0 +1,357 @@
+package com.discordticketbot.database;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Close requests in the embedded H2 database. H2 has no RETURNING, so state changes are plain
+ * conditional UPDATEs and reads always go to the table (there is no cache to keep in sync).
+ */
+public class EmbeddedCloseRequestStore implements CloseRequestStore {
+    private static final String DETAILS_COLUMNS = """
+        channel_id, requested_by, ticket_owner, reason, timeout_hours, status,
+        created_at, responded_at, responded_by, excluded_from_autoclose, message_id""";
+
+    // Only replaces a request that isn't pending. A replaced request keeps its owner, message and
+    // exclusion flag, and an excluded ticket gets no deadline, like the PostgreSQL upsert.
+    private static final String OPEN_CLOSE_REQUEST_QUERY = """
+        MERGE INTO close_requests t
+        USING (VALUES (CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR),
+                       CAST(? AS INTEGER), CAST(? AS VARCHAR(20))))
+              s (channel_id, requested_by, ticket_owner, reason, timeout_hours, guild_id)
+        ON t.channel_id = s.channel_id
+        WHEN MATCHED AND t.status <> 'pending' THEN UPDATE SET
+            requested_by = s.requested_by,
+            reason = s.reason,
+            timeout_hours = CASE WHEN t.excluded_from_autoclose THEN NULL ELSE s.timeout_hours END,
+            status = 'pending',
+            created_at = CURRENT_TIMESTAMP,
+            responded_at = NULL,
+            responded_by = NULL,
+            auto_close_at = CASE WHEN t.excluded_from_autoclose THEN NULL ELSE DATEADD(HOUR, s.timeout_hours, CURRENT_TIMESTAMP) END,
+            guild_id = s.guild_id
+        WHEN NOT MATCHED THEN INSERT (channel_id, requested_by, ticket_owner, reason, timeout_hours, status, created_at, auto_close_at, guild_id)
+            VALUES (s.channel_id, s.requested_by, s.ticket_owner, s.reason, s.timeout_hours, 'pending', CURRENT_TIMESTAMP,
+                    DATEADD(HOUR, s.timeout_hours, CURRENT_TIMESTAMP), s.guild_id)
+        """;
+
+    private static final String GET_CURRENT_STATE_QUERY = "SELECT " + DETAILS_COLUMNS + " FROM close_requests WHERE channel_id = ?";
+
+    private static final String GET_PENDING_QUERY = "SELECT " + DETAILS_COLUMNS + " FROM close_requests WHERE channel_id = ? AND status = 'pending'";
+
+    private static final String IS_EXCLUDED_QUERY = "SELECT excluded_from_autoclose FROM close_requests WHERE channel_id = ?";
+
+    private static final String UPDATE_MESSAGE_ID_QUERY = "UPDATE close_requests SET message_id = ? WHERE channel_id = ? AND status = 'pending'";
+
+    private static final String RESPOND_QUERY = """
+        UPDATE close_requests
+        SET status = ?, responded_at = CURRENT_TIMESTAMP, responded_by = ?
+        WHERE channel_id = ? AND status = 'pending'
+        """;
+
+    private static final String NEXT_AUTO_CLOSE_QUERY = """
+        SELECT MIN(auto_close_at) AS next_auto_close
+        FROM close_requests
+        WHERE status = 'pending' AND auto_close_at IS NOT NULL
+        """;
+
+    private static final String DUE_AUTO_CLOSES_QUERY = """
+        SELECT channel_id, guild_id, timeout_hours
+        FROM close_requests
+        WHERE status = 'pending' AND auto_close_at <= CURRENT_TIMESTAMP
+        ORDER BY auto_close_at
+        LIMIT ?
+        """;
+
+    private static final String RELEASE_AUTO_CLOSE_CLAIM_QUERY = """
+        UPDATE close_requests
+        SET status = 'pending', responded_at = NULL, responded_by = NULL,
+            auto_close_at = DATEADD(MILLISECOND, ?, CURRENT_TIMESTAMP)
+        WHERE channel_id = ? AND status = 'auto_closed'
+        """;
+
+    private static final String EXCLUDE_FROM_AUTO_CLOSE_QUERY = """
+        MERGE INTO close_requests t
+        USING (VALUES (CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20))))
+              s (channel_id, requested_by, ticket_owner, guild_id)
+        ON t.channel_id = s.channel_id
+        WHEN MATCHED THEN UPDATE SET
+            excluded_from_autoclose = TRUE,
+            status = 'excluded',
+            auto_close_at = NULL,
+            guild_id = s.guild_id
+        WHEN NOT MATCHED THEN INSERT (channel_id, requested_by, ticket_owner, reason, status, excluded_from_autoclose, created_at, guild_id)
+            VALUES (s.channel_id, s.requested_by, s.ticket_owner, 'Excluded from auto-close', 'excluded', TRUE, CURRENT_TIMESTAMP, s.guild_id)
+        """;
+
+    private final DataSource dataSource;
+
+    EmbeddedCloseRequestStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Open a close request in one transaction: the MERGE only matches a request that isn't
+     * pending, and the event is written from the row it left behind.
+     */
+    @Override
+    public OpenCloseRequestResult openCloseRequest(String guildId, String channelId, String requestedBy, String ticketOwner, String reason, Integer timeoutHours) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement merge = conn.prepareStatement(OPEN_CLOSE_REQUEST_QUERY);
+                 PreparedStatement select = conn.prepareStatement(GET_CURRENT_STATE_QUERY);
+                 PreparedStatement event = conn.prepareStatement(TicketLogDAO.LOG_TICKET_EVENT_QUERY)) {
+
+                merge.setString(1, channelId);
+                merge.setString(2, requestedBy);
+                merge.setString(3, ticketOwner);
+                merge.setString(4, reason);
+                if (timeoutHours != null) {
+                    merge.setInt(5, timeoutHours);
+                } else {
+                    merge.setNull(5, Types.INTEGER);
+                }
+                merge.setString(6, guildId);
+                boolean opened = merge.executeUpdate() > 0;
+
+                select.setString(1, channelId);
+                ResultSet rs = select.executeQuery();
+                CloseRequestDetails details = rs.next() ? mapDetails(rs) : null;
+
+                if (opened && details != null) {
+                    event.setString(1, guildId);
+                    event.setString(2, channelId);
+                    event.setString(3, requestedBy);
+                    event.setShort(4, TicketEventType.CLOSE_REQUESTED.code);
+                    event.setString(5, TicketLogStore.closeRequestDetail(reason, details.timeoutHours));
+                    event.executeUpdate();
+                }
+                conn.commit();
+
+                return new OpenCloseRequestResult(opened, details, timeoutHours);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to open close request: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean hasActiveCloseRequest(String channelId) {
+        return getCloseRequestDetails(channelId) != null;
+    }
+
+    @Override
+    public CloseRequestDetails getCloseRequestDetails(String channelId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_PENDING_QUERY)) {
+
+            stmt.setString(1, channelId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapDetails(rs);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get close request details: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    @Override
+    public void updateCloseRequestMessageId(String channelId, String messageId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_MESSAGE_ID_QUERY)) {
+
+            stmt.setString(1, messageId);
+            stmt.setString(2, channelId);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to update close request message ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void confirmCloseRequest(String channelId, String respondedBy) {
+        respond(channelId, "confirmed", respondedBy, "Failed to confirm close request");
+    }
+
+    @Override
+    public void denyCloseRequest(String channelId, String respondedBy) {
+        respond(channelId, "denied", respondedBy, "Failed to deny close request");
+    }
+
+    @Override
+    public void autoCloseRequest(String channelId) {
+        respond(channelId, "auto_closed", Snowflakes.SYSTEM_USER_ID, "Failed to auto-close request");
+    }
+
+    private void respond(String channelId, String status, String respondedBy, String failureMessage) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESPOND_QUERY)) {
+
+            stmt.setString(1, status);
+            stmt.setString(2, respondedBy);
+            stmt.setString(3, channelId);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ " + failureMessage + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public long getMillisUntilNextAutoClose() {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(NEXT_AUTO_CLOSE_QUERY)) {
+
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                Timestamp next = rs.getTimestamp("next_auto_close");
+                if (next != null) {
+                    return Math.max(0, next.getTime() - System.currentTimeMillis());
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get next auto-close deadline: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Claim overdue requests inside one transaction. Each UPDATE is still guarded by
+     * status = 'pending', so a request answered meanwhile is skipped rather than claimed.
+     */
+    @Override
+    public List<DueAutoClose> claimDueAutoCloses(int limit) {
+        List<DueAutoClose> claimed = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement select = conn.prepareStatement(DUE_AUTO_CLOSES_QUERY);
+                 PreparedStatement update = conn.prepareStatement(RESPOND_QUERY)) {
+
+                select.setInt(1, limit);
+                ResultSet rs = select.executeQuery();
+
+                while (rs.next()) {
+                    String channelId = rs.getString("channel_id");
+                    update.setString(1, "auto_closed");
+                    update.setString(2, Snowflakes.SYSTEM_USER_ID);
+                    update.setString(3, channelId);
+
+                    if (update.executeUpdate() > 0) {
+                        DueAutoClose due = new DueAutoClose();
+                        due.channelId = channelId;
+                        due.guildId = rs.getString("guild_id");
+                        due.timeoutHours = rs.getInt("timeout_hours");
+                        claimed.add(due);
+                    }
+                }
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                claimed.clear();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to claim due auto-closes: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return claimed;
+    }
+
+    @Override
+    public void releaseAutoCloseClaim(String channelId, long retryAfterMillis) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RELEASE_AUTO_CLOSE_CLAIM_QUERY)) {
+
+            stmt.setLong(1, retryAfterMillis);
+            stmt.setString(2, channelId);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to release auto-close claim: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void excludeFromAutoClose(String guildId, String channelId, String excludedBy) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXCLUDE_FROM_AUTO_CLOSE_QUERY)) {
+
+            stmt.setString(1, channelId);
+            stmt.setString(2, excludedBy);
+            stmt.setString(3, Snowflakes.SYSTEM_USER_ID);
+            stmt.setString(4, guildId);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to exclude from auto-close: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public boolean isExcludedFromAutoClose(String channelId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(IS_EXCLUDED_QUERY)) {
+
+            stmt.setString(1, channelId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean("excluded_from_autoclose");
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to check auto-close exclusion: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return false;
+    }
+
+    @Override
+    public void evictChannel(String channelId) {
+        // Nothing is cached, every read goes to the table
+    }
+
+    private static CloseRequestDetails mapDetails(ResultSet rs) throws SQLException {
+        CloseRequestDetails details = new CloseRequestDetails();
+        details.channelId = rs.getString("channel_id");
+        details.requestedBy = rs.getString("requested_by");
+        details.ticketOwner = Snowflakes.displayUser(rs.getString("ticket_owner"));
+        details.reason = rs.getString("reason");
+        details.timeoutHours = rs.getObject("timeout_hours", Integer.class);
+        details.status = rs.getString("status");
+        details.createdAt = rs.getTimestamp("created_at");
+        details.respondedAt = rs.getTimestamp("responded_at");
+        details.respondedBy = Snowflakes.displayUser(rs.getString("responded_by"));
+        details.excludedFromAutoClose = rs.getBoolean("excluded_from_autoclose");
+        details.messageId = rs.getString("message_id");
+        return details;
+    }
+}
@@ -0,0 +1,225 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.config.GuildConfig;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Guild configurations in the embedded H2 database
+ */
+public class EmbeddedGuildConfigStore implements GuildConfigStore {
+    // One row per (guild, support role), folded into configs in Java
+    private static final String LOAD_CONFIGS_QUERY = """
+        SELECT g.guild_id, g.category_id, g.panel_channel_id, g.transcript_channel_id, g.error_log_channel_id, g.ticket_counter,
+               g.cleanup_ticket_logs_days, g.cleanup_close_requests_days, r.role_id
+        FROM guild_configs g
+        LEFT JOIN support_roles r ON r.guild_id = g.guild_id
+        %s
+        """;
+
+    // H2 has no ON CONFLICT DO UPDATE, MERGE gives the same upsert with a counter that never moves backwards
+    private static final String SAVE_GUILD_CONFIG_QUERY = """
+        MERGE INTO guild_configs t
+        USING (VALUES (CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(20)),
+                       CAST(? AS VARCHAR(20)), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER)))
+              s (guild_id, category_id, panel_channel_id, transcript_channel_id, error_log_channel_id, ticket_counter,
+                 cleanup_ticket_logs_days, cleanup_close_requests_days)
+        ON t.guild_id = s.guild_id
+        WHEN MATCHED THEN UPDATE SET
+            category_id = s.category_id,
+            panel_channel_id = s.panel_channel_id,
+            transcript_channel_id = s.transcript_channel_id,
+            error_log_channel_id = s.error_log_channel_id,
+            ticket_counter = GREATEST(t.ticket_counter, s.ticket_counter),
+            cleanup_ticket_logs_days = s.cleanup_ticket_logs_days,
+            cleanup_close_requests_days = s.cleanup_close_requests_days,
+            updated_at = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN INSERT (guild_id, category_id, panel_channel_id, transcript_channel_id, error_log_channel_id,
+                                      ticket_counter, cleanup_ticket_logs_days, cleanup_close_requests_days)
+            VALUES (s.guild_id, s.category_id, s.panel_channel_id, s.transcript_channel_id, s.error_log_channel_id,
+                    s.ticket_counter, s.cleanup_ticket_logs_days, s.cleanup_close_requests_days)
+        """;
+
+    private static final String RESERVE_TICKET_NUMBERS_QUERY = """
+        SELECT ticket_counter FROM FINAL TABLE (
+            UPDATE guild_configs
+            SET ticket_counter = COALESCE(ticket_counter, 0) + ?, updated_at = CURRENT_TIMESTAMP
+            WHERE guild_id = ?
+        )
+        """;
+
+    private final DataSource dataSource;
+
+    EmbeddedGuildConfigStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void saveGuildConfig(String guildId, GuildConfig config) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SAVE_GUILD_CONFIG_QUERY)) {
+                    stmt.setString(1, guildId);
+                    stmt.setString(2, config.categoryId);
+                    stmt.setString(3, config.panelChannelId);
+                    stmt.setString(4, config.transcriptChannelId);
+                    stmt.setString(5, config.errorLogChannelId);
+                    stmt.setInt(6, config.ticketCounter);
+                    stmt.setInt(7, config.cleanupTicketLogsDays);
+                    stmt.setInt(8, config.cleanupCloseRequestsDays);
+                    stmt.executeUpdate();
+                }
+                saveSupportRoles(conn, guildId, config.supportRoleIds);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+            System.out.println("✅ Guild config saved for: " + guildId);
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to save guild config: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void saveSupportRoles(Connection conn, String guildId, Set<String> roleIds) throws SQLException {
+        try (PreparedStatement deleteStmt = conn.prepareStatement(GuildConfigDAO.SAVE_SUPPORT_ROLES_DELETE_QUERY)) {
+            deleteStmt.setString(1, guildId);
+            deleteStmt.executeUpdate();
+        }
+
+        try (PreparedStatement insertStmt = conn.prepareStatement(GuildConfigDAO.SAVE_SUPPORT_ROLES_INSERT_QUERY)) {
+            for (String roleId : roleIds) {
+                insertStmt.setString(1, guildId);
+                insertStmt.setString(2, roleId);
+                insertStmt.addBatch();
+            }
+            insertStmt.executeBatch();
+        }
+    }
+
+    @Override
+    public Map<String, GuildConfig> loadGuildConfigs(Collection<String> guildIds) {
+        Map<String, GuildConfig> configs = new HashMap<>();
+        if (guildIds.isEmpty()) {
+            return configs;
+        }
+
+        String query = String.format(LOAD_CONFIGS_QUERY, "WHERE g.guild_id = ANY(?)");
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setArray(1, conn.createArrayOf("VARCHAR", guildIds.toArray()));
+            readGuildConfigs(stmt.executeQuery(), configs);
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load guild configs: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return configs;
+    }
+
+    @Override
+    public Map<String, GuildConfig> loadAllGuildConfigs() {
+        Map<String, GuildConfig> configs = new HashMap<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(String.format(LOAD_CONFIGS_QUERY, ""))) {
+
+            readGuildConfigs(stmt.executeQuery(), configs);
+            System.out.println("✅ Loaded " + configs.size() + " guild configurations from embedded database");
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load guild configs: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+
+        return configs;
+    }
+
+    private void readGuildConfigs(ResultSet rs, Map<String, GuildConfig> configs) throws SQLException {
+        while (rs.next()) {
+            String guildId = rs.getString("guild_id");
+            GuildConfig config = configs.get(guildId);
+            if (config == null) {
+                config = new GuildConfig();
+                config.categoryId = rs.getString("category_id");
+                config.panelChannelId = rs.getString("panel_channel_id");
+                config.transcriptChannelId = rs.getString("transcript_channel_id");
+                config.errorLogChannelId = rs.getString("error_log_channel_id");
+                config.ticketCounter = rs.getInt("ticket_counter");
+                config.cleanupTicketLogsDays = rs.getInt("cleanup_ticket_logs_days");
+                config.cleanupCloseRequestsDays = rs.getInt("cleanup_close_requests_days");
+                configs.put(guildId, config);
+            }
+
+            String roleId = rs.getString("role_id");
+            if (roleId != null) {
+                config.supportRoleIds.add(roleId);
+            }
+        }
+    }
+
+    @Override
+    public void updateTicketCounter(String guildId, int newCounter) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GuildConfigDAO.UPDATE_TICKET_COUNTER_QUERY)) {
+
+            stmt.setInt(1, newCounter);
+            stmt.setString(2, guildId);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to update ticket counter: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int reserveTicketNumbers(String guildId, int count) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESERVE_TICKET_NUMBERS_QUERY)) {
+
+            stmt.setInt(1, count);
+            stmt.setString(2, guildId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt("ticket_counter");
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to reserve ticket numbers: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void deleteGuildConfig(String guildId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GuildConfigDAO.DELETE_GUILD_CONFIG_QUERY)) {
+
+            stmt.setString(1, guildId);
+            if (stmt.executeUpdate() > 0) {
+                System.out.println("✅ Guild config deleted for: " + guildId);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to delete guild config: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
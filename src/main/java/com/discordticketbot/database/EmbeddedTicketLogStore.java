@@ -0,0 +1,309 @@
+package com.discordticketbot.database;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ticket logs and events in the embedded H2 database. Writes are synchronous (an in-process
+ * insert is cheaper than queueing it) and stats are counted straight from ticket_logs.
+ */
+public class EmbeddedTicketLogStore implements TicketLogStore {
+    private static final String GET_TICKET_STATS_QUERY = """
+        SELECT status, COUNT(*) AS count
+        FROM ticket_logs
+        WHERE guild_id = ?
+        GROUP BY status
+        """;
+
+    private static final String GET_TICKET_STATS_BY_TYPE_QUERY = """
+        SELECT ticket_type, COUNT(*) AS count
+        FROM ticket_logs
+        WHERE guild_id = ? AND ticket_type IS NOT NULL
+        GROUP BY ticket_type
+        """;
+
+    // Rows H2 hands over per batch when streaming history
+    private static final int HISTORY_FETCH_SIZE = 200;
+
+    /**
+     * Binds the parameters of a statement
+     */
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private final DataSource dataSource;
+
+    EmbeddedTicketLogStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void logTicketCreated(String guildId, String channelId, String channelName, String ownerId, String ticketType, int ticketNumber) {
+        execute(TicketLogDAO.LOG_TICKET_CREATED_QUERY, stmt -> {
+            stmt.setString(1, guildId);
+            stmt.setString(2, channelId);
+            stmt.setString(3, channelName);
+            stmt.setString(4, ownerId);
+            stmt.setString(5, ticketType);
+            stmt.setInt(6, ticketNumber);
+        }, "Failed to log ticket creation");
+    }
+
+    @Override
+    public void logTicketClosedWithReason(String channelId, String closedBy, String reason) {
+        execute(TicketLogDAO.LOG_TICKET_CLOSED_WITH_REASON_QUERY, stmt -> {
+            stmt.setString(1, closedBy + " (Reason: " + reason + ")");
+            stmt.setString(2, channelId);
+        }, "Failed to log ticket closure");
+    }
+
+    @Override
+    public void logTicketReopened(String channelId, String reopenedBy) {
+        execute(TicketLogDAO.LOG_TICKET_REOPENED_QUERY, stmt -> {
+            stmt.setString(1, "Reopened by: " + reopenedBy);
+            stmt.setString(2, channelId);
+        }, "Failed to log ticket reopen");
+    }
+
+    @Override
+    public void logTicketDeleted(String channelId, String deletedBy) {
+        execute(TicketLogDAO.LOG_TICKET_DELETED_QUERY, stmt -> {
+            stmt.setString(1, "Deleted by: " + deletedBy);
+            stmt.setString(2, channelId);
+        }, "Failed to log ticket deletion");
+    }
+
+    @Override
+    public void logCloseRequest(String guildId, String channelId, String requestedBy, String reason, Integer timeoutHours) {
+        logTicketEvent(guildId, channelId, requestedBy, TicketEventType.CLOSE_REQUESTED, TicketLogStore.closeRequestDetail(reason, timeoutHours));
+    }
+
+    @Override
+    public void logCloseRequestDenied(String guildId, String channelId, String deniedBy) {
+        logTicketEvent(guildId, channelId, deniedBy, TicketEventType.CLOSE_DENIED, null);
+    }
+
+    private void logTicketEvent(String guildId, String channelId, String actorId, TicketEventType type, String detail) {
+        execute(TicketLogDAO.LOG_TICKET_EVENT_QUERY, stmt -> {
+            stmt.setString(1, guildId);
+            stmt.setString(2, channelId);
+            stmt.setString(3, actorId);
+            stmt.setShort(4, type.code);
+            stmt.setString(5, detail);
+        }, "Failed to log ticket event");
+    }
+
+    @Override
+    public void logTicketAutoClosed(String channelId, int timeoutHours) {
+        execute(TicketLogDAO.LOG_TICKET_AUTO_CLOSED_QUERY, stmt -> {
+            stmt.setString(1, "Auto-closed after " + timeoutHours + " hours timeout");
+            stmt.setString(2, channelId);
+        }, "Failed to log auto-close");
+    }
+
+    @Override
+    public Map<String, Integer> getTicketStats(String guildId) {
+        Map<String, Integer> stats = new HashMap<>();
+        for (String status : new String[]{"open", "closed", "deleted", "auto_closed", "reopened"}) {
+            stats.put(status, 0);
+        }
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKET_STATS_QUERY)) {
+
+            stmt.setString(1, guildId);
+            ResultSet rs = stmt.executeQuery();
+
+            int total = 0;
+            while (rs.next()) {
+                int count = rs.getInt("count");
+                total += count;
+                stats.merge(rs.getString("status"), count, Integer::sum);
+            }
+            stats.put("total", total);
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get ticket statistics: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return stats;
+    }
+
+    @Override
+    public Map<String, Integer> getTicketStatsByType(String guildId) {
+        Map<String, Integer> stats = new HashMap<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKET_STATS_BY_TYPE_QUERY)) {
+
+            stmt.setString(1, guildId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                stats.put(rs.getString("ticket_type"), rs.getInt("count"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get ticket statistics by type: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return stats;
+    }
+
+    @Override
+    public List<TicketLog> getRecentTicketActivity(String guildId, int limit) {
+        return queryLogs(TicketLogDAO.GET_RECENT_TICKET_ACTIVITY_QUERY, stmt -> {
+            stmt.setString(1, guildId);
+            stmt.setInt(2, limit);
+        }, "Failed to get recent ticket activity");
+    }
+
+    @Override
+    public List<TicketLog> getTicketsByUser(String guildId, String userId) {
+        return queryLogs(TicketLogDAO.GET_TICKETS_BY_USER_QUERY, stmt -> {
+            stmt.setString(1, guildId);
+            stmt.setString(2, userId);
+        }, "Failed to get tickets by user");
+    }
+
+    @Override
+    public TicketLogPage getTicketHistoryPage(String guildId, String userId, HistoryCursor cursor, PageDirection direction, int limit) {
+        PageDirection readDirection = cursor != null ? direction : PageDirection.OLDER;
+        List<TicketLog> logs = queryLogs(TicketLogDAO.historyQuery(userId != null, cursor != null, readDirection, true), stmt -> {
+            int index = bindHistory(stmt, guildId, userId, cursor);
+            stmt.setInt(index, limit + 1);
+        }, "Failed to get ticket history page");
+        return TicketLogPage.fromRows(logs, cursor, readDirection, limit);
+    }
+
+    @Override
+    public int streamTicketHistory(String guildId, String userId, Consumer<TicketLog> consumer) {
+        int delivered = 0;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TicketLogDAO.historyQuery(userId != null, false, PageDirection.OLDER, false))) {
+
+            stmt.setFetchSize(HISTORY_FETCH_SIZE);
+            bindHistory(stmt, guildId, userId, null);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(TicketLogDAO.readTicketLog(rs));
+                    delivered++;
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to stream ticket history: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return delivered;
+    }
+
+    private static int bindHistory(PreparedStatement stmt, String guildId, String userId, HistoryCursor cursor) throws SQLException {
+        int index = 1;
+        stmt.setString(index++, guildId);
+        if (userId != null) {
+            stmt.setString(index++, userId);
+        }
+        if (cursor != null) {
+            stmt.setTimestamp(index++, cursor.createdAt);
+            stmt.setLong(index++, cursor.id);
+        }
+        return index;
+    }
+
+    @Override
+    public List<TicketEvent> getTicketEvents(String channelId) {
+        List<TicketEvent> events = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TicketLogDAO.GET_TICKET_EVENTS_QUERY)) {
+
+            stmt.setString(1, channelId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                TicketEvent event = new TicketEvent();
+                event.id = rs.getLong("id");
+                event.guildId = rs.getString("guild_id");
+                event.channelId = rs.getString("channel_id");
+                event.actorId = Snowflakes.displayUser(rs.getString("actor_id"));
+                event.type = TicketEventType.fromCode(rs.getShort("event_type"));
+                event.createdAt = rs.getTimestamp("created_at");
+                event.detail = rs.getString("detail");
+                events.add(event);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get ticket events: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return events;
+    }
+
+    @Override
+    public int getHighestTicketNumber(String guildId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TicketLogDAO.GET_HIGHEST_TICKET_NUMBER_QUERY)) {
+
+            stmt.setString(1, guildId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt("highest_number");
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get highest ticket number: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return 0;
+    }
+
+    private void execute(String sql, Binder binder, String failureMessage) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            binder.bind(stmt);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("❌ " + failureMessage + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private List<TicketLog> queryLogs(String sql, Binder binder, String failureMessage) {
+        List<TicketLog> logs = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            binder.bind(stmt);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                logs.add(TicketLogDAO.readTicketLog(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ " + failureMessage + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return logs;
+    }
+}
@@ -0,0 +1,168 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The embedded backend (TICKET_STORE=embedded): an in-process H2 database in PostgreSQL mode,
+ * stored at EMBEDDED_DB_URL. Lets the bot run on a single machine without a database server.
+ */
+public class EmbeddedTicketStore implements TicketStore {
+    private static final String DEFAULT_URL = "jdbc:h2:./data/ticketbot";
+    private static final String COMPATIBILITY_SETTINGS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    private static final String SCHEMA_SCRIPT = "RUNSCRIPT FROM 'classpath:db/embedded/schema.sql'";
+
+    // Retention of the row's guild (aliased t), guilds without a stored config keep the 30 day default
+    private static final String TICKET_LOG_DAYS =
+            "COALESCE((SELECT g.cleanup_ticket_logs_days FROM guild_configs g WHERE g.guild_id = t.guild_id), 30)";
+    private static final String CLOSE_REQUEST_DAYS =
+            "COALESCE((SELECT g.cleanup_close_requests_days FROM guild_configs g WHERE g.guild_id = t.guild_id), 30)";
+
+    private static final String DELETE_TICKET_LOGS = """
+        DELETE FROM ticket_logs t
+        WHERE t.status IN ('deleted', 'closed')
+          AND %1$s > 0
+          AND t.closed_at < DATEADD(DAY, -%1$s, CURRENT_TIMESTAMP)
+        """.formatted(TICKET_LOG_DAYS);
+
+    private static final String DELETE_TICKET_EVENTS = """
+        DELETE FROM ticket_events t
+        WHERE %1$s > 0
+          AND t.created_at < DATEADD(DAY, -%1$s, CURRENT_TIMESTAMP)
+        """.formatted(TICKET_LOG_DAYS);
+
+    private static final String DELETE_CLOSE_REQUESTS = """
+        DELETE FROM close_requests t
+        WHERE t.status != 'pending'
+          AND %1$s > 0
+          AND t.created_at < DATEADD(DAY, -%1$s, CURRENT_TIMESTAMP)
+        """.formatted(CLOSE_REQUEST_DAYS);
+
+    private final HikariDataSource dataSource;
+    private final EmbeddedGuildConfigStore guildConfigs;
+    private final EmbeddedTicketLogStore ticketLogs;
+    private final EmbeddedCloseRequestStore closeRequests;
+    private final EmbeddedTranscriptStore transcripts;
+    private final AtomicBoolean retentionRunning = new AtomicBoolean(false);
+
+    public EmbeddedTicketStore() {
+        String url = EnvUtil.get("EMBEDDED_DB_URL", DEFAULT_URL);
+        if (!url.toUpperCase().contains("MODE=")) {
+            url += COMPATIBILITY_SETTINGS;
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(4);
+        config.setMinimumIdle(1);
+
+        try {
+            this.dataSource = new HikariDataSource(config);
+            createSchema();
+            System.out.println("✅ Embedded database ready at " + url);
+        } catch (Exception e) {
+            System.err.println("❌ Failed to open embedded database: " + e.getMessage());
+            throw new RuntimeException("Embedded database initialization failed", e);
+        }
+
+        DataSource instrumented = StatementStats.getInstance().wrap(dataSource);
+        this.guildConfigs = new EmbeddedGuildConfigStore(instrumented);
+        this.ticketLogs = new EmbeddedTicketLogStore(instrumented);
+        this.closeRequests = new EmbeddedCloseRequestStore(instrumented);
+        this.transcripts = new EmbeddedTranscriptStore(instrumented);
+    }
+
+    private void createSchema() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(SCHEMA_SCRIPT);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "embedded";
+    }
+
+    @Override
+    public GuildConfigStore guildConfigs() {
+        return guildConfigs;
+    }
+
+    @Override
+    public TicketLogStore ticketLogs() {
+        return ticketLogs;
+    }
+
+    @Override
+    public CloseRequestStore closeRequests() {
+        return closeRequests;
+    }
+
+    @Override
+    public TranscriptStore transcripts() {
+        return transcripts;
+    }
+
+    @Override
+    public boolean testConnection() {
+        try (Connection conn = dataSource.getConnection()) {
+            return conn.isValid(5);
+        } catch (SQLException e) {
+            System.err.println("❌ Embedded database connection test failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void runRetention() {
+        if (!retentionRunning.compareAndSet(false, true)) {
+            System.out.println("ℹ️ Retention run already in progress, skipping");
+            return;
+        }
+
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            int ticketLogsDeleted = stmt.executeUpdate(DELETE_TICKET_LOGS);
+            int ticketEventsDeleted = stmt.executeUpdate(DELETE_TICKET_EVENTS);
+            int closeRequestsDeleted = stmt.executeUpdate(DELETE_CLOSE_REQUESTS);
+
+            System.out.println("🧹 Retention run finished: ticketLogs=" + ticketLogsDeleted
+                    + ", ticketEvents=" + ticketEventsDeleted + ", closeRequests=" + closeRequestsDeleted);
+
+        } catch (SQLException e) {
+            System.err.println("❌ Retention run failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            retentionRunning.set(false);
+        }
+    }
+
+    @Override
+    public boolean runRetentionAsync() {
+        if (retentionRunning.get()) {
+            return false;
+        }
+
+        Thread thread = new Thread(this::runRetention, "embedded-retention");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+            System.out.println("Embedded database closed.");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.discordticketbot.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Transcripts in the embedded H2 database. H2 has no tsvector, so every word of the query must
+ * appear (case-insensitively) in the text; the newest matches are scored by how often the words
+ * occur and snippets are cut in Java.
+ */
+public class EmbeddedTranscriptStore implements TranscriptStore {
+    // Skips a transcript that is already stored, like ON CONFLICT DO NOTHING in TranscriptDAO
+    private static final String SAVE_TRANSCRIPT_QUERY = """
+        MERGE INTO transcripts t
+        USING (VALUES (CAST(? AS VARCHAR(36)))) AS s(unique_id)
+        ON t.unique_id = s.unique_id
+        WHEN NOT MATCHED THEN
+            INSERT (unique_id, guild_id, channel_id, channel_name, message_count, content)
+            VALUES (s.unique_id, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String SEARCH_TRANSCRIPTS_QUERY = """
+        SELECT unique_id, guild_id, channel_id, channel_name, message_count, created_at, content
+        FROM transcripts
+        WHERE guild_id = ?%s
+        ORDER BY created_at DESC
+        LIMIT %d
+        """;
+
+    private final DataSource dataSource;
+
+    EmbeddedTranscriptStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean saveTranscript(String uniqueId, String guildId, String channelId, String channelName, int messageCount, String content) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SAVE_TRANSCRIPT_QUERY)) {
+
+            stmt.setString(1, uniqueId);
+            stmt.setString(2, guildId);
+            stmt.setString(3, channelId);
+            stmt.setString(4, channelName);
+            stmt.setInt(5, messageCount);
+            stmt.setString(6, content);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to store transcript " + uniqueId + " for search: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public List<TranscriptSearchResult> searchTranscripts(String guildId, String query, int limit) {
+        List<TranscriptSearchResult> results = new ArrayList<>();
+        List<String> terms = TranscriptStore.searchTerms(query);
+        if (terms.isEmpty()) {
+            return results;
+        }
+
+        String sql = SEARCH_TRANSCRIPTS_QUERY.formatted(
+                " AND LOWER(content) LIKE ? ESCAPE '\\'".repeat(terms.size()), TranscriptDAO.MAX_CANDIDATES);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, guildId);
+            for (int i = 0; i < terms.size(); i++) {
+                stmt.setString(i + 2, "%" + terms.get(i).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                String content = rs.getString("content");
+
+                TranscriptSearchResult result = new TranscriptSearchResult();
+                result.uniqueId = rs.getString("unique_id");
+                result.guildId = rs.getString("guild_id");
+                result.channelId = rs.getString("channel_id");
+                result.channelName = rs.getString("channel_name");
+                result.messageCount = rs.getInt("message_count");
+                result.createdAt = rs.getTimestamp("created_at");
+                result.rank = TranscriptStore.countMatches(content, terms);
+                result.snippet = TranscriptStore.snippet(content, terms);
+                results.add(result);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to search transcripts: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        // Stable sort keeps newest first among equal scores
+        results.sort(Comparator.comparingDouble((TranscriptSearchResult r) -> r.rank).reversed());
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+}
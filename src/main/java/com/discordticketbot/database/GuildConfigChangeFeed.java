@@ -0,0 +1,143 @@
+package com.discordticketbot.database;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Delivers guild configuration changes from every bot instance sharing the database.
+ *
+ * Triggers on guild_configs and support_roles (migration V7) send a NOTIFY with the guild ID
+ * on commit. This feed LISTENs on a background thread and hands each change to a
+ * {@link GuildConfigStore.ChangeListener}, so instances refresh only the guild that changed,
+ * without polling. The connection is opened outside the pool, so holding it for the life of
+ * the process never takes a slot from queries. Notifications sent while the connection is down are
+ * lost, so after a reconnect the listener is told to reload everything.
+ */
+public class GuildConfigChangeFeed {
+    static final String CHANNEL = "guild_config_changed";
+    private static final String DELETED_PREFIX = "deleted:";
+
+    private static final int POLL_TIMEOUT_MILLIS = 5000;
+    private static final int POLLS_PER_HEALTH_CHECK = 12;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private static GuildConfigChangeFeed instance;
+
+    private final DatabaseManager dbManager;
+    private volatile boolean running;
+    private GuildConfigStore.ChangeListener listener;
+    private Thread worker;
+
+    private GuildConfigChangeFeed() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public static synchronized GuildConfigChangeFeed getInstance() {
+        if (instance == null) {
+            instance = new GuildConfigChangeFeed();
+        }
+        return instance;
+    }
+
+    /**
+     * Start listening in the background, delivering changes to {@code listener}
+     */
+    public synchronized void start(GuildConfigStore.ChangeListener listener) {
+        if (worker != null) {
+            return;
+        }
+
+        this.listener = listener;
+        this.running = true;
+        worker = new Thread(this::listen, "guild-config-feed");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop listening. The worker exits after its current poll.
+     */
+    public synchronized void shutdown() {
+        running = false;
+        worker = null;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+
+        while (running) {
+            try (Connection conn = dbManager.openDedicatedConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
+                System.out.println("✅ Listening for guild config changes");
+
+                if (reconnecting) {
+                    dispatchInvalidated();
+                }
+                reconnecting = true;
+
+                int idlePolls = 0;
+                while (running) {
+                    PGNotification[] notifications = pgConn.getNotifications(POLL_TIMEOUT_MILLIS);
+
+                    if (notifications == null || notifications.length == 0) {
+                        // A dropped TCP connection never raises on an idle LISTEN, so check now and then
+                        if (++idlePolls >= POLLS_PER_HEALTH_CHECK) {
+                            idlePolls = 0;
+                            if (!conn.isValid(5)) {
+                                throw new SQLException("listen connection is no longer valid");
+                            }
+                        }
+                        continue;
+                    }
+
+                    idlePolls = 0;
+                    for (PGNotification notification : notifications) {
+                        dispatchChanged(notification.getParameter());
+                    }
+                }
+
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                System.err.println("⚠️ Guild config change feed lost its connection, reconnecting: " + e.getMessage());
+
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void dispatchChanged(String payload) {
+        try {
+            if (payload.startsWith(DELETED_PREFIX)) {
+                listener.guildConfigDeleted(payload.substring(DELETED_PREFIX.length()));
+            } else {
+                listener.guildConfigChanged(payload);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Failed to apply guild config change " + payload + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void dispatchInvalidated() {
+        try {
+            listener.guildConfigsInvalidated();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Failed to reload guild configs: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -4,11 +4,58 @@ import com.discordticketbot.config.GuildConfig;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-public class GuildConfigDAO {
+public class GuildConfigDAO implements GuildConfigStore {
+    // Configs joined with their support roles, so loading N guilds is one round-trip instead of N + 1
+    static final String LOAD_CONFIGS_QUERY = """
+        SELECT g.guild_id, g.category_id, g.panel_channel_id, g.transcript_channel_id, g.error_log_channel_id, g.ticket_counter,
+               g.cleanup_ticket_logs_days, g.cleanup_close_requests_days,
+               COALESCE(array_agg(r.role_id) FILTER (WHERE r.role_id IS NOT NULL), '{}') AS support_role_ids
+        FROM guild_configs g
+        LEFT JOIN support_roles r ON r.guild_id = g.guild_id
+        %s
+        GROUP BY g.guild_id
+        """;
+
+    // The SQL query for inserting or updating guild configurations, now including the error log channel ID.
+    static final String SAVE_GUILD_CONFIG_QUERY = """
+        INSERT INTO guild_configs (guild_id, category_id, panel_channel_id, transcript_channel_id, error_log_channel_id, ticket_counter,
+                                   cleanup_ticket_logs_days, cleanup_close_requests_days, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (guild_id) 
+        DO UPDATE SET 
+            category_id = EXCLUDED.category_id,
+            panel_channel_id = EXCLUDED.panel_channel_id,
+            transcript_channel_id = EXCLUDED.transcript_channel_id,
+            error_log_channel_id = EXCLUDED.error_log_channel_id,
+            ticket_counter = GREATEST(guild_configs.ticket_counter, EXCLUDED.ticket_counter),
+            cleanup_ticket_logs_days = EXCLUDED.cleanup_ticket_logs_days,
+            cleanup_close_requests_days = EXCLUDED.cleanup_close_requests_days,
+            updated_at = CURRENT_TIMESTAMP
+        """;
+
+    static final String UPDATE_TICKET_COUNTER_QUERY = """
+        UPDATE guild_configs 
+        SET ticket_counter = GREATEST(COALESCE(ticket_counter, 0), ?), updated_at = CURRENT_TIMESTAMP 
+        WHERE guild_id = ?
+        """;
+
+    static final String RESERVE_TICKET_NUMBERS_QUERY = """
+        UPDATE guild_configs 
+        SET ticket_counter = COALESCE(ticket_counter, 0) + ?, updated_at = CURRENT_TIMESTAMP 
+        WHERE guild_id = ?
+        RETURNING ticket_counter
+        """;
+
+    static final String SAVE_SUPPORT_ROLES_DELETE_QUERY = "DELETE FROM support_roles WHERE guild_id = ?";
+
+    static final String SAVE_SUPPORT_ROLES_INSERT_QUERY = "INSERT INTO support_roles (guild_id, role_id) VALUES (?, ?)";
+
+    static final String DELETE_GUILD_CONFIG_QUERY = "DELETE FROM guild_configs WHERE guild_id = ?";
+
     private final DatabaseManager dbManager;
 
     public GuildConfigDAO() {
@@ -16,37 +63,36 @@ public class GuildConfigDAO {
     }
 
     /**
-     * Save or update guild configuration
+     * Save or update guild configuration. Config and support roles are written in one transaction,
+     * so other instances are notified once, after both are in place.
      */
+    @Override
     public void saveGuildConfig(String guildId, GuildConfig config) {
-        // The SQL query for inserting or updating guild configurations, now including the error log channel ID.
-        String upsertQuery = """
-            INSERT INTO guild_configs (guild_id, category_id, panel_channel_id, transcript_channel_id, error_log_channel_id, ticket_counter, updated_at)
-            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-            ON CONFLICT (guild_id) 
-            DO UPDATE SET 
-                category_id = EXCLUDED.category_id,
-                panel_channel_id = EXCLUDED.panel_channel_id,
-                transcript_channel_id = EXCLUDED.transcript_channel_id,
-                error_log_channel_id = EXCLUDED.error_log_channel_id,
-                ticket_counter = EXCLUDED.ticket_counter,
-                updated_at = CURRENT_TIMESTAMP
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(upsertQuery)) {
-
-            stmt.setString(1, guildId);
-            stmt.setString(2, config.categoryId);
-            stmt.setString(3, config.panelChannelId);
-            stmt.setString(4, config.transcriptChannelId);
-            stmt.setString(5, config.errorLogChannelId); // Set the error log channel ID
-            stmt.setInt(6, config.ticketCounter);
-
-            stmt.executeUpdate();
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SAVE_GUILD_CONFIG_QUERY)) {
+                    Snowflakes.bind(stmt, 1, guildId);
+                    Snowflakes.bind(stmt, 2, config.categoryId);
+                    Snowflakes.bind(stmt, 3, config.panelChannelId);
+                    Snowflakes.bind(stmt, 4, config.transcriptChannelId);
+                    Snowflakes.bind(stmt, 5, config.errorLogChannelId); // Set the error log channel ID
+                    stmt.setInt(6, config.ticketCounter);
+                    stmt.setInt(7, config.cleanupTicketLogsDays);
+                    stmt.setInt(8, config.cleanupCloseRequestsDays);
+
+                    stmt.executeUpdate();
+                }
 
-            // Save support roles
-            saveSupportRoles(guildId, config.supportRoleIds);
+                // Save support roles
+                saveSupportRoles(conn, guildId, config.supportRoleIds);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
 
             System.out.println("✅ Guild config saved for: " + guildId);
 
@@ -57,100 +103,95 @@ public class GuildConfigDAO {
     }
 
     /**
-     * Load guild configuration from database
+     * Load the configurations for a set of guilds (e.g. the guilds of one shard) in a single round-trip.
+     * Guilds without a stored configuration are absent from the returned map.
      */
-    public GuildConfig loadGuildConfig(String guildId) {
-        // The SQL query to load guild configurations, now includes the error log channel ID.
-        String query = """
-            SELECT category_id, panel_channel_id, transcript_channel_id, error_log_channel_id, ticket_counter
-            FROM guild_configs 
-            WHERE guild_id = ?
-            """;
+    @Override
+    public Map<String, GuildConfig> loadGuildConfigs(Collection<String> guildIds) {
+        Map<String, GuildConfig> configs = new HashMap<>();
+        if (guildIds.isEmpty()) {
+            return configs;
+        }
+
+        String query = String.format(LOAD_CONFIGS_QUERY, "WHERE g.guild_id = ANY(?)");
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setString(1, guildId);
+            Snowflakes.bindArray(stmt, 1, guildIds);
             ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                GuildConfig config = new GuildConfig();
-                config.categoryId = rs.getString("category_id");
-                config.panelChannelId = rs.getString("panel_channel_id");
-                config.transcriptChannelId = rs.getString("transcript_channel_id");
-                config.errorLogChannelId = rs.getString("error_log_channel_id"); // Load the error log channel ID
-                config.ticketCounter = rs.getInt("ticket_counter");
-
-                // Load support roles
-                config.supportRoleIds = loadSupportRoles(guildId);
-
-                return config;
-            }
+            readGuildConfigs(rs, configs);
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to load guild config: " + e.getMessage());
+            System.err.println("❌ Failed to load guild configs: " + e.getMessage());
             e.printStackTrace();
         }
 
-        return null;
+        return configs;
     }
 
     /**
-     * Load all guild configurations
+     * Load all guild configurations, together with their support roles, in a single round-trip
      */
+    @Override
     public Map<String, GuildConfig> loadAllGuildConfigs() {
         Map<String, GuildConfig> configs = new HashMap<>();
-        // The SQL query to load all guild configurations, now includes the error log channel ID.
-        String query = """
-            SELECT guild_id, category_id, panel_channel_id, transcript_channel_id, error_log_channel_id, ticket_counter
-            FROM guild_configs
-            """;
+        String query = String.format(LOAD_CONFIGS_QUERY, "");
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String guildId = rs.getString("guild_id");
-                GuildConfig config = new GuildConfig();
-                config.categoryId = rs.getString("category_id");
-                config.panelChannelId = rs.getString("panel_channel_id");
-                config.transcriptChannelId = rs.getString("transcript_channel_id");
-                config.errorLogChannelId = rs.getString("error_log_channel_id"); // Load the error log channel ID for each guild
-                config.ticketCounter = rs.getInt("ticket_counter");
-
-                // Load support roles for this guild
-                config.supportRoleIds = loadSupportRoles(guildId);
-
-                configs.put(guildId, config);
-            }
+            readGuildConfigs(rs, configs);
 
             System.out.println("✅ Loaded " + configs.size() + " guild configurations from database");
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to load guild configs: " + e.getMessage());
             e.printStackTrace();
+            return null;
         }
 
         return configs;
     }
 
     /**
-     * Update ticket counter for a guild
+     * Map rows produced by {@link #LOAD_CONFIGS_QUERY} into guild configurations
      */
-    public void updateTicketCounter(String guildId, int newCounter) {
-        String query = """
-            UPDATE guild_configs 
-            SET ticket_counter = ?, updated_at = CURRENT_TIMESTAMP 
-            WHERE guild_id = ?
-            """;
+    private void readGuildConfigs(ResultSet rs, Map<String, GuildConfig> configs) throws SQLException {
+        while (rs.next()) {
+            String guildId = rs.getString("guild_id");
+            GuildConfig config = new GuildConfig();
+            config.categoryId = rs.getString("category_id");
+            config.panelChannelId = rs.getString("panel_channel_id");
+            config.transcriptChannelId = rs.getString("transcript_channel_id");
+            config.errorLogChannelId = rs.getString("error_log_channel_id");
+            config.ticketCounter = rs.getInt("ticket_counter");
+            config.cleanupTicketLogsDays = rs.getInt("cleanup_ticket_logs_days");
+            config.cleanupCloseRequestsDays = rs.getInt("cleanup_close_requests_days");
+
+            Array roles = rs.getArray("support_role_ids");
+            if (roles != null) {
+                for (Object roleId : (Object[]) roles.getArray()) {
+                    config.supportRoleIds.add(String.valueOf(roleId));
+                }
+                roles.free();
+            }
 
+            configs.put(guildId, config);
+        }
+    }
+
+    /**
+     * Update ticket counter for a guild (never moves the counter backwards)
+     */
+    @Override
+    public void updateTicketCounter(String guildId, int newCounter) {
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_TICKET_COUNTER_QUERY)) {
 
             stmt.setInt(1, newCounter);
-            stmt.setString(2, guildId);
+            Snowflakes.bind(stmt, 2, guildId);
             stmt.executeUpdate();
 
         } catch (SQLException e) {
@@ -160,73 +201,60 @@ public class GuildConfigDAO {
     }
 
     /**
-     * Save support roles for a guild
+     * Atomically reserve {@code count} ticket numbers for a guild.
+     * Returns the highest reserved number, or -1 if the guild has no stored configuration or the update failed.
      */
-    private void saveSupportRoles(String guildId, java.util.Set<String> roleIds) {
-        // Delete existing roles
-        String deleteQuery = "DELETE FROM support_roles WHERE guild_id = ?";
-
-        // Insert new roles
-        String insertQuery = "INSERT INTO support_roles (guild_id, role_id) VALUES (?, ?)";
+    @Override
+    public int reserveTicketNumbers(String guildId, int count) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RESERVE_TICKET_NUMBERS_QUERY)) {
 
-        try (Connection conn = dbManager.getConnection()) {
-            // Delete existing
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
-                deleteStmt.setString(1, guildId);
-                deleteStmt.executeUpdate();
-            }
+            stmt.setInt(1, count);
+            Snowflakes.bind(stmt, 2, guildId);
+            ResultSet rs = stmt.executeQuery();
 
-            // Insert new roles
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
-                for (String roleId : roleIds) {
-                    insertStmt.setString(1, guildId);
-                    insertStmt.setString(2, roleId);
-                    insertStmt.addBatch();
-                }
-                insertStmt.executeBatch();
+            if (rs.next()) {
+                return rs.getInt("ticket_counter");
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to save support roles: " + e.getMessage());
+            System.err.println("❌ Failed to reserve ticket numbers: " + e.getMessage());
             e.printStackTrace();
         }
+
+        return -1;
     }
 
     /**
-     * Load support roles for a guild
+     * Replace the support roles of a guild, on the caller's transaction
      */
-    private java.util.Set<String> loadSupportRoles(String guildId) {
-        java.util.Set<String> roleIds = new java.util.HashSet<>();
-        String query = "SELECT role_id FROM support_roles WHERE guild_id = ?";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, guildId);
-            ResultSet rs = stmt.executeQuery();
+    private void saveSupportRoles(Connection conn, String guildId, java.util.Set<String> roleIds) throws SQLException {
+        // Delete existing
+        try (PreparedStatement deleteStmt = conn.prepareStatement(SAVE_SUPPORT_ROLES_DELETE_QUERY)) {
+            Snowflakes.bind(deleteStmt, 1, guildId);
+            deleteStmt.executeUpdate();
+        }
 
-            while (rs.next()) {
-                roleIds.add(rs.getString("role_id"));
+        // Insert new roles
+        try (PreparedStatement insertStmt = conn.prepareStatement(SAVE_SUPPORT_ROLES_INSERT_QUERY)) {
+            for (String roleId : roleIds) {
+                Snowflakes.bind(insertStmt, 1, guildId);
+                Snowflakes.bind(insertStmt, 2, roleId);
+                insertStmt.addBatch();
             }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to load support roles: " + e.getMessage());
-            e.printStackTrace();
+            insertStmt.executeBatch();
         }
-
-        return roleIds;
     }
 
     /**
      * Delete guild configuration
      */
+    @Override
     public void deleteGuildConfig(String guildId) {
-        String query = "DELETE FROM guild_configs WHERE guild_id = ?";
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_GUILD_CONFIG_QUERY)) {
 
-            stmt.setString(1, guildId);
+            Snowflakes.bind(stmt, 1, guildId);
             int deleted = stmt.executeUpdate();
 
             if (deleted > 0) {
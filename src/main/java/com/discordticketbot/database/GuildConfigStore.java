@@ -0,0 +1,71 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.config.GuildConfig;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guild configurations, their support roles and the per-guild ticket counter
+ */
+public interface GuildConfigStore {
+    /**
+     * Receives guild configuration changes made by other bot instances or directly in the database
+     */
+    interface ChangeListener {
+        /**
+         * The stored configuration or support roles of a guild changed
+         */
+        void guildConfigChanged(String guildId);
+
+        /**
+         * The stored configuration of a guild was deleted
+         */
+        void guildConfigDeleted(String guildId);
+
+        /**
+         * Changes may have been missed (e.g. while reconnecting), every guild should be reloaded
+         */
+        void guildConfigsInvalidated();
+    }
+
+    /**
+     * Save or update guild configuration (the stored ticket counter never moves backwards)
+     */
+    void saveGuildConfig(String guildId, GuildConfig config);
+
+    /**
+     * Load guild configuration, or null if none is stored
+     */
+    default GuildConfig loadGuildConfig(String guildId) {
+        return loadGuildConfigs(List.of(guildId)).get(guildId);
+    }
+
+    /**
+     * Load the configurations for a set of guilds. Guilds without a stored configuration are absent from the returned map.
+     */
+    Map<String, GuildConfig> loadGuildConfigs(Collection<String> guildIds);
+
+    /**
+     * Load all guild configurations together with their support roles. Returns null if the load
+     * fails, so a caller can tell that apart from a database with no guilds.
+     */
+    Map<String, GuildConfig> loadAllGuildConfigs();
+
+    /**
+     * Update ticket counter for a guild (never moves the counter backwards)
+     */
+    void updateTicketCounter(String guildId, int newCounter);
+
+    /**
+     * Atomically reserve {@code count} ticket numbers for a guild.
+     * Returns the highest reserved number, or -1 if the guild has no stored configuration or the update failed.
+     */
+    int reserveTicketNumbers(String guildId, int count);
+
+    /**
+     * Delete guild configuration
+     */
+    void deleteGuildConfig(String guildId);
+}
@@ -0,0 +1,250 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Close requests held in a concurrent map keyed by channel. Entries are immutable and replaced
+ * with compute(), so every transition is atomic per channel just like the conditional UPDATEs
+ * of the database backends.
+ */
+public class InMemoryCloseRequestStore implements CloseRequestStore {
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    private record Entry(CloseRequestDetails details, String guildId, Long autoCloseAt) {
+        boolean isPending() {
+            return "pending".equals(details.status);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> requests = new ConcurrentHashMap<>();
+    private final TicketLogStore ticketLogs;
+
+    InMemoryCloseRequestStore(TicketLogStore ticketLogs) {
+        this.ticketLogs = ticketLogs;
+    }
+
+    /**
+     * Open a close request with one compute() on the channel, then record its event
+     */
+    @Override
+    public OpenCloseRequestResult openCloseRequest(String guildId, String channelId, String requestedBy, String ticketOwner, String reason, Integer timeoutHours) {
+        long now = System.currentTimeMillis();
+        boolean[] opened = new boolean[1];
+
+        Entry result = requests.compute(channelId, (id, existing) -> {
+            if (existing != null && existing.isPending()) {
+                return existing;
+            }
+
+            CloseRequestDetails details = new CloseRequestDetails();
+            details.channelId = channelId;
+            details.requestedBy = requestedBy;
+            details.reason = reason;
+            details.status = "pending";
+            details.createdAt = new Timestamp(now);
+
+            // Like the upsert, a replaced request keeps its owner, message and exclusion flag
+            if (existing != null) {
+                details.ticketOwner = existing.details.ticketOwner;
+                details.messageId = existing.details.messageId;
+                details.excludedFromAutoClose = existing.details.excludedFromAutoClose;
+            } else {
+                details.ticketOwner = ticketOwner;
+            }
+            details.timeoutHours = details.excludedFromAutoClose ? null : timeoutHours;
+
+            opened[0] = true;
+            Long autoCloseAt = details.timeoutHours != null ? now + details.timeoutHours * HOUR_MILLIS : null;
+            return new Entry(details, guildId, autoCloseAt);
+        });
+
+        if (opened[0]) {
+            ticketLogs.logCloseRequest(guildId, channelId, requestedBy, reason, result.details.timeoutHours);
+        }
+        return new OpenCloseRequestResult(opened[0], forDisplay(result.details), timeoutHours);
+    }
+
+    @Override
+    public boolean hasActiveCloseRequest(String channelId) {
+        Entry entry = requests.get(channelId);
+        return entry != null && entry.isPending();
+    }
+
+    @Override
+    public CloseRequestDetails getCloseRequestDetails(String channelId) {
+        Entry entry = requests.get(channelId);
+        return entry != null && entry.isPending() ? forDisplay(entry.details) : null;
+    }
+
+    @Override
+    public void updateCloseRequestMessageId(String channelId, String messageId) {
+        requests.computeIfPresent(channelId, (id, entry) -> {
+            if (!entry.isPending()) {
+                return entry;
+            }
+            CloseRequestDetails details = copy(entry.details);
+            details.messageId = messageId;
+            return new Entry(details, entry.guildId, entry.autoCloseAt);
+        });
+    }
+
+    @Override
+    public void confirmCloseRequest(String channelId, String respondedBy) {
+        respond(channelId, "confirmed", respondedBy);
+    }
+
+    @Override
+    public void denyCloseRequest(String channelId, String respondedBy) {
+        respond(channelId, "denied", respondedBy);
+    }
+
+    @Override
+    public void autoCloseRequest(String channelId) {
+        respond(channelId, "auto_closed", Snowflakes.SYSTEM_USER_ID);
+    }
+
+    @Override
+    public long getMillisUntilNextAutoClose() {
+        long now = System.currentTimeMillis();
+        return requests.values().stream()
+                .filter(entry -> entry.isPending() && entry.autoCloseAt != null)
+                .mapToLong(entry -> Math.max(0, entry.autoCloseAt - now))
+                .min()
+                .orElse(-1);
+    }
+
+    @Override
+    public List<DueAutoClose> claimDueAutoCloses(int limit) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Entry>> due = requests.entrySet().stream()
+                .filter(e -> e.getValue().isPending() && e.getValue().autoCloseAt != null && e.getValue().autoCloseAt <= now)
+                .sorted(Comparator.comparingLong(e -> e.getValue().autoCloseAt))
+                .toList();
+
+        List<DueAutoClose> claimed = new ArrayList<>();
+        for (Map.Entry<String, Entry> candidate : due) {
+            if (claimed.size() >= limit) {
+                break;
+            }
+
+            // The candidate may have been answered meanwhile, respond() only wins on a pending entry
+            Entry closed = respond(candidate.getKey(), "auto_closed", Snowflakes.SYSTEM_USER_ID);
+            if (closed != null) {
+                DueAutoClose claim = new DueAutoClose();
+                claim.channelId = candidate.getKey();
+                claim.guildId = closed.guildId;
+                claim.timeoutHours = closed.details.timeoutHours != null ? closed.details.timeoutHours : 0;
+                claimed.add(claim);
+            }
+        }
+
+        return claimed;
+    }
+
+    @Override
+    public void releaseAutoCloseClaim(String channelId, long retryAfterMillis) {
+        requests.computeIfPresent(channelId, (id, entry) -> {
+            if (!"auto_closed".equals(entry.details.status)) {
+                return entry;
+            }
+            CloseRequestDetails details = copy(entry.details);
+            details.status = "pending";
+            details.respondedAt = null;
+            details.respondedBy = null;
+            return new Entry(details, entry.guildId, System.currentTimeMillis() + retryAfterMillis);
+        });
+    }
+
+    @Override
+    public void excludeFromAutoClose(String guildId, String channelId, String excludedBy) {
+        requests.compute(channelId, (id, existing) -> {
+            CloseRequestDetails details;
+            if (existing != null) {
+                details = copy(existing.details);
+            } else {
+                details = new CloseRequestDetails();
+                details.channelId = channelId;
+                details.requestedBy = excludedBy;
+                details.ticketOwner = Snowflakes.SYSTEM_USER_ID;
+                details.reason = "Excluded from auto-close";
+                details.createdAt = new Timestamp(System.currentTimeMillis());
+            }
+            details.status = "excluded";
+            details.excludedFromAutoClose = true;
+            return new Entry(details, guildId, null);
+        });
+    }
+
+    @Override
+    public boolean isExcludedFromAutoClose(String channelId) {
+        Entry entry = requests.get(channelId);
+        return entry != null && entry.details.excludedFromAutoClose;
+    }
+
+    @Override
+    public void evictChannel(String channelId) {
+        // Nothing is cached on top of the map itself
+    }
+
+    /**
+     * Remove answered close requests older than their guild's retention. Returns the number removed.
+     */
+    int removeExpired(ToIntFunction<String> retentionDays) {
+        long now = System.currentTimeMillis();
+        int before = requests.size();
+        requests.values().removeIf(entry -> {
+            int days = retentionDays.applyAsInt(entry.guildId);
+            return days > 0 && !entry.isPending() && entry.details.createdAt.getTime() < now - days * DAY_MILLIS;
+        });
+        return before - requests.size();
+    }
+
+    /**
+     * Move a pending request to {@code status}. Returns the new entry, or null if it wasn't pending.
+     */
+    private Entry respond(String channelId, String status, String respondedBy) {
+        Entry[] updated = {null};
+        requests.computeIfPresent(channelId, (id, entry) -> {
+            if (!entry.isPending()) {
+                return entry;
+            }
+            CloseRequestDetails details = copy(entry.details);
+            details.status = status;
+            details.respondedAt = new Timestamp(System.currentTimeMillis());
+            details.respondedBy = respondedBy;
+            updated[0] = new Entry(details, entry.guildId, entry.autoCloseAt);
+            return updated[0];
+        });
+        return updated[0];
+    }
+
+    private static CloseRequestDetails forDisplay(CloseRequestDetails source) {
+        CloseRequestDetails details = copy(source);
+        details.ticketOwner = Snowflakes.displayUser(details.ticketOwner);
+        details.respondedBy = Snowflakes.displayUser(details.respondedBy);
+        return details;
+    }
+
+    private static CloseRequestDetails copy(CloseRequestDetails source) {
+        CloseRequestDetails details = new CloseRequestDetails();
+        details.channelId = source.channelId;
+        details.requestedBy = source.requestedBy;
+        details.ticketOwner = source.ticketOwner;
+        details.reason = source.reason;
+        details.timeoutHours = source.timeoutHours;
+        details.status = source.status;
+        details.createdAt = source.createdAt;
+        details.respondedAt = source.respondedAt;
+        details.respondedBy = source.respondedBy;
+        details.excludedFromAutoClose = source.excludedFromAutoClose;
+        details.messageId = source.messageId;
+        return details;
+    }
+}
@@ -0,0 +1,95 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.config.GuildConfig;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guild configurations held in a concurrent map. Callers always get copies, so a config only
+ * changes in the store when it is saved, as with the database backends.
+ */
+public class InMemoryGuildConfigStore implements GuildConfigStore {
+    private final ConcurrentHashMap<String, GuildConfig> configs = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveGuildConfig(String guildId, GuildConfig config) {
+        configs.merge(guildId, copy(config), (stored, saved) -> {
+            saved.ticketCounter = Math.max(stored.ticketCounter, saved.ticketCounter);
+            return saved;
+        });
+    }
+
+    @Override
+    public Map<String, GuildConfig> loadGuildConfigs(Collection<String> guildIds) {
+        Map<String, GuildConfig> loaded = new HashMap<>();
+        for (String guildId : guildIds) {
+            GuildConfig config = configs.get(guildId);
+            if (config != null) {
+                loaded.put(guildId, copy(config));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public Map<String, GuildConfig> loadAllGuildConfigs() {
+        return loadGuildConfigs(configs.keySet());
+    }
+
+    @Override
+    public void updateTicketCounter(String guildId, int newCounter) {
+        configs.computeIfPresent(guildId, (id, config) -> {
+            config.ticketCounter = Math.max(config.ticketCounter, newCounter);
+            return config;
+        });
+    }
+
+    @Override
+    public int reserveTicketNumbers(String guildId, int count) {
+        int[] last = {-1};
+        configs.computeIfPresent(guildId, (id, config) -> {
+            config.ticketCounter += count;
+            last[0] = config.ticketCounter;
+            return config;
+        });
+        return last[0];
+    }
+
+    @Override
+    public void deleteGuildConfig(String guildId) {
+        configs.remove(guildId);
+    }
+
+    /**
+     * Ticket log retention of a guild in days, 30 when it has no stored configuration
+     */
+    int ticketLogRetentionDays(String guildId) {
+        GuildConfig config = configs.get(guildId);
+        return config != null ? config.cleanupTicketLogsDays : 30;
+    }
+
+    /**
+     * Close request retention of a guild in days, 30 when it has no stored configuration
+     */
+    int closeRequestRetentionDays(String guildId) {
+        GuildConfig config = configs.get(guildId);
+        return config != null ? config.cleanupCloseRequestsDays : 30;
+    }
+
+    private static GuildConfig copy(GuildConfig source) {
+        GuildConfig config = new GuildConfig();
+        config.categoryId = source.categoryId;
+        config.panelChannelId = source.panelChannelId;
+        config.transcriptChannelId = source.transcriptChannelId;
+        config.errorLogChannelId = source.errorLogChannelId;
+        config.supportRoleIds = new HashSet<>(source.supportRoleIds);
+        config.ticketCounter = source.ticketCounter;
+        config.cleanupTicketLogsDays = source.cleanupTicketLogsDays;
+        config.cleanupCloseRequestsDays = source.cleanupCloseRequestsDays;
+        return config;
+    }
+}
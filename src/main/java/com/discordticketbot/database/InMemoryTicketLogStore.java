@@ -0,0 +1,306 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ticket logs and events held in concurrent maps, indexed by guild and by channel.
+ * A log row is only changed while holding its monitor, and callers always get copies.
+ */
+public class InMemoryTicketLogStore implements TicketLogStore {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final AtomicInteger nextLogId = new AtomicInteger();
+    private final AtomicLong nextEventId = new AtomicLong();
+    private final ConcurrentHashMap<String, Queue<TicketLog>> logsByGuild = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Queue<TicketLog>> logsByChannel = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Queue<TicketEvent>> eventsByChannel = new ConcurrentHashMap<>();
+
+    @Override
+    public void logTicketCreated(String guildId, String channelId, String channelName, String ownerId, String ticketType, int ticketNumber) {
+        TicketLog log = new TicketLog();
+        log.id = nextLogId.incrementAndGet();
+        log.guildId = guildId;
+        log.channelId = channelId;
+        log.channelName = channelName;
+        log.ownerId = ownerId;
+        log.ticketType = ticketType;
+        log.ticketNumber = ticketNumber;
+        log.createdAt = now();
+        log.status = "open";
+
+        logsByGuild.computeIfAbsent(guildId, id -> new ConcurrentLinkedQueue<>()).add(log);
+        if (channelId != null) {
+            logsByChannel.computeIfAbsent(channelId, id -> new ConcurrentLinkedQueue<>()).add(log);
+        }
+    }
+
+    @Override
+    public void logTicketClosedWithReason(String channelId, String closedBy, String reason) {
+        updateChannel(channelId, true, log -> {
+            log.status = "closed";
+            log.closedAt = now();
+            log.closedBy = closedBy + " (Reason: " + reason + ")";
+        });
+    }
+
+    @Override
+    public void logTicketReopened(String channelId, String reopenedBy) {
+        updateChannel(channelId, false, log -> {
+            log.status = "reopened";
+            log.closedAt = null;
+            log.closedBy = "Reopened by: " + reopenedBy;
+        });
+    }
+
+    @Override
+    public void logTicketDeleted(String channelId, String deletedBy) {
+        updateChannel(channelId, false, log -> {
+            log.status = "deleted";
+            log.closedAt = now();
+            log.closedBy = "Deleted by: " + deletedBy;
+        });
+    }
+
+    @Override
+    public void logCloseRequest(String guildId, String channelId, String requestedBy, String reason, Integer timeoutHours) {
+        logEvent(guildId, channelId, requestedBy, TicketEventType.CLOSE_REQUESTED, TicketLogStore.closeRequestDetail(reason, timeoutHours));
+    }
+
+    @Override
+    public void logCloseRequestDenied(String guildId, String channelId, String deniedBy) {
+        logEvent(guildId, channelId, deniedBy, TicketEventType.CLOSE_DENIED, null);
+    }
+
+    @Override
+    public void logTicketAutoClosed(String channelId, int timeoutHours) {
+        updateChannel(channelId, true, log -> {
+            log.status = "auto_closed";
+            log.closedAt = now();
+            log.closedBy = "Auto-closed after " + timeoutHours + " hours timeout";
+        });
+    }
+
+    @Override
+    public Map<String, Integer> getTicketStats(String guildId) {
+        Map<String, Integer> stats = new HashMap<>();
+        for (String status : new String[]{"open", "closed", "deleted", "auto_closed", "reopened"}) {
+            stats.put(status, 0);
+        }
+
+        List<TicketLog> logs = guildLogs(guildId);
+        for (TicketLog log : logs) {
+            stats.merge(log.status, 1, Integer::sum);
+        }
+        stats.put("total", logs.size());
+        return stats;
+    }
+
+    @Override
+    public Map<String, Integer> getTicketStatsByType(String guildId) {
+        Map<String, Integer> stats = new HashMap<>();
+        for (TicketLog log : guildLogs(guildId)) {
+            if (log.ticketType != null) {
+                stats.merge(log.ticketType, 1, Integer::sum);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public List<TicketLog> getRecentTicketActivity(String guildId, int limit) {
+        return guildLogs(guildId).stream()
+                .sorted(Comparator.comparing((TicketLog log) -> log.createdAt).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<TicketLog> getTicketsByUser(String guildId, String userId) {
+        return guildLogs(guildId).stream()
+                .filter(log -> userId.equals(log.ownerId))
+                .sorted(Comparator.comparing((TicketLog log) -> log.createdAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public TicketLogPage getTicketHistoryPage(String guildId, String userId, HistoryCursor cursor, PageDirection direction, int limit) {
+        PageDirection readDirection = cursor != null ? direction : PageDirection.OLDER;
+        Comparator<TicketLog> newestFirst = Comparator.comparing((TicketLog log) -> log.createdAt)
+                .thenComparingInt(log -> log.id)
+                .reversed();
+
+        List<TicketLog> rows = guildLogs(guildId).stream()
+                .filter(log -> userId == null || userId.equals(log.ownerId))
+                .filter(log -> cursor == null || (readDirection == PageDirection.OLDER) == cursor.isAfter(log))
+                .filter(log -> cursor == null || log.id != cursor.id || !log.createdAt.equals(cursor.createdAt))
+                .sorted(readDirection == PageDirection.OLDER ? newestFirst : newestFirst.reversed())
+                .limit(limit + 1L)
+                .toList();
+        return TicketLogPage.fromRows(rows, cursor, readDirection, limit);
+    }
+
+    @Override
+    public int streamTicketHistory(String guildId, String userId, Consumer<TicketLog> consumer) {
+        List<TicketLog> rows = guildLogs(guildId).stream()
+                .filter(log -> userId == null || userId.equals(log.ownerId))
+                .sorted(Comparator.comparing((TicketLog log) -> log.createdAt).thenComparingInt(log -> log.id).reversed())
+                .toList();
+        rows.forEach(consumer);
+        return rows.size();
+    }
+
+    @Override
+    public List<TicketEvent> getTicketEvents(String channelId) {
+        Queue<TicketEvent> events = eventsByChannel.get(channelId);
+        if (events == null) {
+            return new ArrayList<>();
+        }
+
+        List<TicketEvent> history = new ArrayList<>();
+        for (TicketEvent event : events) {
+            TicketEvent copy = new TicketEvent();
+            copy.id = event.id;
+            copy.guildId = event.guildId;
+            copy.channelId = event.channelId;
+            copy.actorId = Snowflakes.displayUser(event.actorId);
+            copy.type = event.type;
+            copy.createdAt = event.createdAt;
+            copy.detail = event.detail;
+            history.add(copy);
+        }
+        history.sort(Comparator.comparing((TicketEvent event) -> event.createdAt));
+        return history;
+    }
+
+    @Override
+    public int getHighestTicketNumber(String guildId) {
+        return guildLogs(guildId).stream().mapToInt(log -> log.ticketNumber).max().orElse(0);
+    }
+
+    /**
+     * Remove closed or deleted logs and events older than their guild's retention. Returns the number of removed logs and events.
+     */
+    int removeExpired(ToIntFunction<String> retentionDays) {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        for (Map.Entry<String, Queue<TicketLog>> guild : logsByGuild.entrySet()) {
+            int days = retentionDays.applyAsInt(guild.getKey());
+            if (days <= 0) {
+                continue;
+            }
+
+            long cutoff = now - days * DAY_MILLIS;
+            List<TicketLog> expired = new ArrayList<>();
+            guild.getValue().removeIf(log -> {
+                synchronized (log) {
+                    boolean isExpired = ("closed".equals(log.status) || "deleted".equals(log.status))
+                            && log.closedAt != null && log.closedAt.getTime() < cutoff;
+                    if (isExpired) {
+                        expired.add(log);
+                    }
+                    return isExpired;
+                }
+            });
+
+            for (TicketLog log : expired) {
+                Queue<TicketLog> channelLogs = log.channelId != null ? logsByChannel.get(log.channelId) : null;
+                if (channelLogs != null) {
+                    channelLogs.remove(log);
+                }
+            }
+            removed += expired.size();
+        }
+
+        for (Queue<TicketEvent> events : eventsByChannel.values()) {
+            int before = events.size();
+            events.removeIf(event -> {
+                int days = retentionDays.applyAsInt(event.guildId);
+                return days > 0 && event.createdAt.getTime() < now - days * DAY_MILLIS;
+            });
+            removed += before - events.size();
+        }
+
+        logsByChannel.values().removeIf(Collection::isEmpty);
+        eventsByChannel.values().removeIf(Collection::isEmpty);
+        return removed;
+    }
+
+    private void logEvent(String guildId, String channelId, String actorId, TicketEventType type, String detail) {
+        TicketEvent event = new TicketEvent();
+        event.id = nextEventId.incrementAndGet();
+        event.guildId = guildId;
+        event.channelId = channelId;
+        event.actorId = actorId;
+        event.type = type;
+        event.createdAt = now();
+        event.detail = detail;
+
+        eventsByChannel.computeIfAbsent(channelId, id -> new ConcurrentLinkedQueue<>()).add(event);
+    }
+
+    /**
+     * Apply a change to every log row of a channel (only to open ones if {@code openOnly})
+     */
+    private void updateChannel(String channelId, boolean openOnly, Consumer<TicketLog> change) {
+        Queue<TicketLog> logs = logsByChannel.get(channelId);
+        if (logs == null) {
+            return;
+        }
+
+        for (TicketLog log : logs) {
+            synchronized (log) {
+                if (!openOnly || "open".equals(log.status)) {
+                    change.accept(log);
+                }
+            }
+        }
+    }
+
+    /**
+     * Consistent copies of a guild's log rows
+     */
+    private List<TicketLog> guildLogs(String guildId) {
+        Queue<TicketLog> logs = logsByGuild.get(guildId);
+        List<TicketLog> copies = new ArrayList<>();
+        if (logs == null) {
+            return copies;
+        }
+
+        for (TicketLog log : logs) {
+            synchronized (log) {
+                TicketLog copy = new TicketLog();
+                copy.id = log.id;
+                copy.guildId = log.guildId;
+                copy.channelId = log.channelId;
+                copy.channelName = log.channelName;
+                copy.ownerId = log.ownerId;
+                copy.ticketType = log.ticketType;
+                copy.ticketNumber = log.ticketNumber;
+                copy.createdAt = log.createdAt;
+                copy.closedAt = log.closedAt;
+                copy.closedBy = log.closedBy;
+                copy.status = log.status;
+                copies.add(copy);
+            }
+        }
+        return copies;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,79 @@
+package com.discordticketbot.database;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The in-memory backend (TICKET_STORE=memory). Nothing survives a restart, which makes it
+ * useful for local development and for trying the bot without a database.
+ */
+public class InMemoryTicketStore implements TicketStore {
+    private final InMemoryGuildConfigStore guildConfigs = new InMemoryGuildConfigStore();
+    private final InMemoryTicketLogStore ticketLogs = new InMemoryTicketLogStore();
+    private final InMemoryCloseRequestStore closeRequests = new InMemoryCloseRequestStore(ticketLogs);
+    private final InMemoryTranscriptStore transcripts = new InMemoryTranscriptStore();
+    private final AtomicBoolean retentionRunning = new AtomicBoolean(false);
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public GuildConfigStore guildConfigs() {
+        return guildConfigs;
+    }
+
+    @Override
+    public TicketLogStore ticketLogs() {
+        return ticketLogs;
+    }
+
+    @Override
+    public CloseRequestStore closeRequests() {
+        return closeRequests;
+    }
+
+    @Override
+    public TranscriptStore transcripts() {
+        return transcripts;
+    }
+
+    @Override
+    public boolean testConnection() {
+        return true;
+    }
+
+    @Override
+    public void runRetention() {
+        if (!retentionRunning.compareAndSet(false, true)) {
+            System.out.println("ℹ️ Retention run already in progress, skipping");
+            return;
+        }
+
+        try {
+            int logsDeleted = ticketLogs.removeExpired(guildConfigs::ticketLogRetentionDays);
+            int closeRequestsDeleted = closeRequests.removeExpired(guildConfigs::closeRequestRetentionDays);
+            System.out.println("🧹 Retention removed " + logsDeleted + " ticket logs/events and "
+                    + closeRequestsDeleted + " close requests from memory");
+        } finally {
+            retentionRunning.set(false);
+        }
+    }
+
+    @Override
+    public boolean runRetentionAsync() {
+        if (retentionRunning.get()) {
+            return false;
+        }
+
+        Thread thread = new Thread(this::runRetention, "memory-retention");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to flush or release
+    }
+}
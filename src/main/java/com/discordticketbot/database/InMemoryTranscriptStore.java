@@ -0,0 +1,81 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Transcripts held in memory per guild, newest first. Search matches every word of the query
+ * case-insensitively, like the embedded backend.
+ */
+public class InMemoryTranscriptStore implements TranscriptStore {
+    private static class StoredTranscript {
+        final TranscriptSearchResult info;
+        final String content;
+
+        StoredTranscript(TranscriptSearchResult info, String content) {
+            this.info = info;
+            this.content = content;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Deque<StoredTranscript>> transcriptsByGuild = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Boolean> uniqueIds = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean saveTranscript(String uniqueId, String guildId, String channelId, String channelName, int messageCount, String content) {
+        if (uniqueIds.putIfAbsent(uniqueId, Boolean.TRUE) != null) {
+            return true;
+        }
+
+        TranscriptSearchResult info = new TranscriptSearchResult();
+        info.uniqueId = uniqueId;
+        info.guildId = guildId;
+        info.channelId = channelId;
+        info.channelName = channelName;
+        info.messageCount = messageCount;
+        info.createdAt = new Timestamp(System.currentTimeMillis());
+
+        transcriptsByGuild.computeIfAbsent(guildId, id -> new ConcurrentLinkedDeque<>())
+                .addFirst(new StoredTranscript(info, content));
+        return true;
+    }
+
+    @Override
+    public List<TranscriptSearchResult> searchTranscripts(String guildId, String query, int limit) {
+        List<TranscriptSearchResult> results = new ArrayList<>();
+        List<String> terms = TranscriptStore.searchTerms(query);
+        Deque<StoredTranscript> transcripts = transcriptsByGuild.get(guildId);
+        if (terms.isEmpty() || transcripts == null) {
+            return results;
+        }
+
+        Iterator<StoredTranscript> newestFirst = transcripts.iterator();
+        while (newestFirst.hasNext() && results.size() < TranscriptDAO.MAX_CANDIDATES) {
+            StoredTranscript transcript = newestFirst.next();
+            if (!TranscriptStore.containsAll(transcript.content, terms)) {
+                continue;
+            }
+
+            TranscriptSearchResult result = new TranscriptSearchResult();
+            result.uniqueId = transcript.info.uniqueId;
+            result.guildId = transcript.info.guildId;
+            result.channelId = transcript.info.channelId;
+            result.channelName = transcript.info.channelName;
+            result.messageCount = transcript.info.messageCount;
+            result.createdAt = transcript.info.createdAt;
+            result.rank = TranscriptStore.countMatches(transcript.content, terms);
+            result.snippet = TranscriptStore.snippet(transcript.content, terms);
+            results.add(result);
+        }
+
+        // Stable sort keeps newest first among equal scores
+        results.sort(Comparator.comparingDouble((TranscriptSearchResult r) -> r.rank).reversed());
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+}
@@ -0,0 +1,116 @@
+package com.discordticketbot.database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed exponential buckets from 50µs to 10s.
+ *
+ * Recording is one atomic increment, so it is cheap enough for every connection checkout.
+ * Percentiles are estimated as the upper bound of the bucket they fall in. {@link #snapshot()}
+ * returns the bucket counts so callers can compute percentiles over a window.
+ */
+public class LatencyHistogram {
+    // Bucket upper bounds in microseconds; the last bucket holds everything above 10s
+    private static final long[] BOUNDS_MICROS = {
+            50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder totalMicros = new LongAdder();
+    private volatile long maxMicros;
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMillis(long millis) {
+        recordMicros(millis * 1_000);
+    }
+
+    private void recordMicros(long micros) {
+        counts.incrementAndGet(bucketOf(micros));
+        totalMicros.add(micros);
+        if (micros > maxMicros) {
+            maxMicros = micros; // racy but monotonic enough for a gauge
+        }
+    }
+
+    private static int bucketOf(long micros) {
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            if (micros <= BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS_MICROS.length;
+    }
+
+    /**
+     * Current bucket counts (cumulative since start)
+     */
+    public long[] snapshot() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double getAverageMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.sum() / 1_000.0 / count;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros / 1_000.0;
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return percentileMillis(snapshot(), percentile);
+    }
+
+    /**
+     * Percentile estimate (upper bucket bound, in milliseconds) for bucket counts, e.g. the
+     * difference of two snapshots. Returns 0 for an empty histogram.
+     */
+    public static double percentileMillis(long[] bucketCounts, double percentile) {
+        long total = 0;
+        for (long count : bucketCounts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                long bound = i < BOUNDS_MICROS.length ? BOUNDS_MICROS[i] : BOUNDS_MICROS[BOUNDS_MICROS.length - 1];
+                return bound / 1_000.0;
+            }
+        }
+        return BOUNDS_MICROS[BOUNDS_MICROS.length - 1] / 1_000.0;
+    }
+
+    /**
+     * One-line summary: count, average, p50/p95/p99 and max
+     */
+    public String getSummary() {
+        long[] snapshot = snapshot();
+        return String.format("n=%d avg=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), getAverageMillis(), percentileMillis(snapshot, 50), percentileMillis(snapshot, 95),
+                percentileMillis(snapshot, 99), getMaxMillis());
+    }
+}
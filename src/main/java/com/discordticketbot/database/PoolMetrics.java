@@ -0,0 +1,122 @@
+package com.discordticketbot.database;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection pool telemetry, fed by HikariCP's metrics tracker hooks.
+ *
+ * Gauges (active, idle, total, pending threads) are read live from the pool. Acquire time
+ * (how long a caller waited for a connection) and usage time (how long it was held) go into
+ * {@link LatencyHistogram}s. Connections currently checked out are also counted here, with
+ * a resettable peak, which {@link AdaptivePoolSizer} uses to decide when the pool can shrink.
+ * Hikari reports a borrow that timed out through the acquire hook too, followed by the timeout
+ * hook and never the usage hook, so the timeout hook takes that checkout back off the count.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final LatencyHistogram creationTime = new LatencyHistogram();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creationTime.recordMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireTime.recordNanos(elapsedAcquiredNanos);
+                peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageTime.recordMillis(elapsedBorrowedMillis);
+                inUse.decrementAndGet();
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+                inUse.decrementAndGet(); // Counted by recordConnectionAcquiredNanos, but never checked out
+            }
+        };
+    }
+
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getIdleConnections() : 0;
+    }
+
+    public int getTotalConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getTotalConnections() : 0;
+    }
+
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getPendingThreads() : 0;
+    }
+
+    public int getMaxConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getMaxConnections() : 0;
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public LatencyHistogram getUsageTime() {
+        return usageTime;
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Highest number of connections checked out at once since the last call, then reset to the current count.
+     * Never more than the pool's maximum size.
+     */
+    int takePeakInUse() {
+        int peak = peakInUse.getAndSet(Math.max(0, inUse.get()));
+        PoolStats stats = poolStats;
+        return stats != null && stats.getMaxConnections() > 0 ? Math.min(peak, stats.getMaxConnections()) : peak;
+    }
+
+    /**
+     * One-line summary of the gauges
+     */
+    public String getGaugeSummary() {
+        return String.format("active=%d, idle=%d, total=%d/%d, pending=%d, timeouts=%d",
+                getActiveConnections(), getIdleConnections(), getTotalConnections(), getMaxConnections(),
+                getPendingThreads(), getTimeouts());
+    }
+
+    /**
+     * One-line summary of the pool metrics
+     */
+    public String getMetricsSummary() {
+        return getGaugeSummary() + ", acquire " + acquireTime.getSummary() + ", usage " + usageTime.getSummary()
+                + ", connect avg=" + String.format("%.1fms", creationTime.getAverageMillis());
+    }
+}
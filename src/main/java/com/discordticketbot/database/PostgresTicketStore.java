@@ -0,0 +1,106 @@
+package com.discordticketbot.database;
+
+/**
+ * The PostgreSQL backend (TICKET_STORE=postgres): the DAOs, plus the maintenance that only
+ * exists on a shared server (async log writer, close request cache, partitions, retention engine,
+ * the snowflake migration and the guild config change feed).
+ */
+public class PostgresTicketStore implements TicketStore {
+    private final DatabaseManager dbManager;
+    private final GuildConfigDAO guildConfigDAO;
+    private final TicketLogDAO ticketLogDAO;
+    private final CloseRequestDAO closeRequestDAO;
+    private final TranscriptDAO transcriptDAO;
+    private final TicketLogPartitionManager partitionManager;
+
+    public PostgresTicketStore() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.guildConfigDAO = new GuildConfigDAO();
+        this.ticketLogDAO = new TicketLogDAO();
+        this.closeRequestDAO = new CloseRequestDAO();
+        this.transcriptDAO = new TranscriptDAO();
+        this.partitionManager = new TicketLogPartitionManager(dbManager);
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    @Override
+    public GuildConfigStore guildConfigs() {
+        return guildConfigDAO;
+    }
+
+    @Override
+    public TicketLogStore ticketLogs() {
+        return ticketLogDAO;
+    }
+
+    @Override
+    public CloseRequestStore closeRequests() {
+        return closeRequestDAO;
+    }
+
+    @Override
+    public TranscriptStore transcripts() {
+        return transcriptDAO;
+    }
+
+    @Override
+    public boolean testConnection() {
+        return dbManager.testConnection();
+    }
+
+    @Override
+    public String getPoolSummary() {
+        String summary = formatPoolSummary(dbManager.getPoolMetrics());
+
+        ReadReplica replica = dbManager.getReadReplica();
+        if (replica != null) {
+            summary += "\nreplica " + replica.getSummary() + "\n" + formatPoolSummary(replica.getPoolMetrics());
+        }
+        return summary;
+    }
+
+    private static String formatPoolSummary(PoolMetrics metrics) {
+        return String.format("active %d, idle %d, pending %d (max %d)\nacquire p95 %.1fms, p99 %.1fms, timeouts %d",
+                metrics.getActiveConnections(), metrics.getIdleConnections(), metrics.getPendingThreads(),
+                metrics.getMaxConnections(), metrics.getAcquireTime().getPercentileMillis(95),
+                metrics.getAcquireTime().getPercentileMillis(99), metrics.getTimeouts());
+    }
+
+    @Override
+    public void startMaintenance() {
+        SnowflakeMigrator.getInstance().start();
+    }
+
+    @Override
+    public void watchGuildConfigs(GuildConfigStore.ChangeListener listener) {
+        GuildConfigChangeFeed.getInstance().start(listener);
+    }
+
+    @Override
+    public void runRetention() {
+        partitionManager.createFuturePartitions();
+
+        // One pass over all guilds, each row expires under its own guild's retention settings
+        RetentionEngine.getInstance().run();
+    }
+
+    @Override
+    public boolean runRetentionAsync() {
+        return RetentionEngine.getInstance().runAsync();
+    }
+
+    @Override
+    public void close() {
+        GuildConfigChangeFeed.getInstance().shutdown();
+
+        // Flush queued ticket log writes before the pool goes away
+        TicketLogWriter.getInstance().shutdown();
+        System.out.println("Close request cache: " + CloseRequestCache.getInstance().getMetricsSummary());
+
+        dbManager.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.discordticketbot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional read-only replica for analytics reads (DATABASE_REPLICA_URL), with its own pool.
+ *
+ * Replication lag is checked in the background; while it is above the limit, or the replica
+ * can't be reached, {@link DatabaseManager#getReadConnection()} reads from the primary
+ * instead. Reads served by each pool are counted for the pool summary.
+ */
+public class ReadReplica {
+    // Zero when the WAL receiver is streaming and has replayed everything it received (an idle
+    // primary sends none). Otherwise the age of the last replayed transaction: a receiver that
+    // lost the primary has replayed all it got, so the LSNs alone would report no lag forever.
+    // -1 (unusable) when nothing has been replayed yet.
+    static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                 AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), -1)
+        END AS lag_seconds
+        """;
+
+    private final HikariDataSource dataSource;
+    private final PoolMetrics poolMetrics;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = -1;
+
+    ReadReplica(HikariConfig config, PoolMetrics poolMetrics, double maxLagSeconds, long checkIntervalSeconds) {
+        this.dataSource = new HikariDataSource(config);
+        this.poolMetrics = poolMetrics;
+        this.maxLagSeconds = maxLagSeconds;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkLag();
+        scheduler.scheduleWithFixedDelay(this::checkLag, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void checkLag() {
+        boolean wasUsable = usable;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LAG_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+
+            lagSeconds = rs.next() ? rs.getDouble("lag_seconds") : -1;
+            usable = lagSeconds >= 0 && lagSeconds <= maxLagSeconds;
+
+            if (wasUsable && !usable) {
+                System.err.println(lagSeconds < 0
+                        ? "⚠️ Read replica has not replayed anything from the primary, reading from primary"
+                        : String.format("⚠️ Read replica is %.1fs behind (limit %.0fs), reading from primary", lagSeconds, maxLagSeconds));
+            } else if (!wasUsable && usable) {
+                System.out.println(String.format("✅ Read replica in use (lag %.1fs)", lagSeconds));
+            }
+
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            usable = false;
+            if (wasUsable) {
+                System.err.println("⚠️ Read replica unavailable, reading from primary: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether the replica was reachable and within the lag limit at the last check
+     */
+    boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Connection from the replica pool. On failure the replica is skipped until the next lag check.
+     */
+    Connection getConnection() throws SQLException {
+        try {
+            Connection conn = dataSource.getConnection();
+            replicaReads.increment();
+            return conn;
+        } catch (SQLException e) {
+            usable = false;
+            System.err.println("⚠️ Read replica unavailable, reading from primary: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Count a read that had to go to the primary
+     */
+    void recordPrimaryRead() {
+        primaryReads.increment();
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * One-line summary of routing and lag
+     */
+    public String getSummary() {
+        return String.format("%s, lag %s, reads replica=%d primary=%d",
+                usable ? "in use" : "bypassed",
+                lagSeconds >= 0 ? String.format("%.1fs", lagSeconds) : "unknown",
+                replicaReads.sum(), primaryReads.sum());
+    }
+
+    void close() {
+        scheduler.shutdownNow();
+        if (!dataSource.isClosed()) {
+            System.out.println("Replica pool: " + poolMetrics.getMetricsSummary() + " (" + getSummary() + ")");
+            dataSource.close();
+        }
+    }
+}
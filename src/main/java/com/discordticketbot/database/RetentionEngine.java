@@ -0,0 +1,353 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chunked, rate-limited retention for ticket_logs, ticket_events and close_requests.
+ *
+ * One run covers every guild at once: the expiry cutoff of each row comes from its own guild's
+ * cleanup_*_days setting (default 30 days, 0 or less disables cleanup for that guild). Rows are
+ * deleted in primary-key windows of RETENTION_BATCH_SIZE ids with a RETENTION_BATCH_PAUSE_MILLIS
+ * pause in between, so no single statement holds locks for long. The last processed id is stored
+ * in retention_progress after every window, and a run interrupted by a restart resumes from there.
+ * An advisory lock keeps two instances from running retention at the same time.
+ */
+public class RetentionEngine {
+    private static final String TICKET_LOGS_JOB = "ticket_logs";
+    private static final String TICKET_EVENTS_JOB = "ticket_events";
+    private static final String CLOSE_REQUESTS_JOB = "close_requests";
+
+    // Arbitrary application-wide key for pg_advisory_lock, distinct from the migration and partition locks
+    private static final long RETENTION_LOCK_KEY = 0x5469636B657452L;
+
+    // Retention of the row's guild (aliased t), guilds without a stored config keep the 30 day default
+    private static final String TICKET_LOG_DAYS =
+            "COALESCE((SELECT g.cleanup_ticket_logs_days FROM guild_configs g WHERE g.guild_id = t.guild_id), 30)";
+    private static final String CLOSE_REQUEST_DAYS =
+            "COALESCE((SELECT g.cleanup_close_requests_days FROM guild_configs g WHERE g.guild_id = t.guild_id), 30)";
+
+    static final String DELETE_TICKET_LOGS = """
+        DELETE FROM ticket_logs t
+        WHERE t.id >= ? AND t.id < ?
+          AND t.status IN ('deleted', 'closed')
+          AND %1$s > 0
+          AND t.closed_at < CURRENT_TIMESTAMP - (%1$s * INTERVAL '1 day')
+        """.formatted(TICKET_LOG_DAYS);
+
+    // Ticket events follow the ticket log policy of their guild
+    static final String DELETE_TICKET_EVENTS = """
+        DELETE FROM ticket_events t
+        WHERE t.id >= ? AND t.id < ?
+          AND %1$s > 0
+          AND t.created_at < CURRENT_TIMESTAMP - (%1$s * INTERVAL '1 day')
+        """.formatted(TICKET_LOG_DAYS);
+
+    static final String DELETE_CLOSE_REQUESTS = """
+        DELETE FROM close_requests t
+        WHERE t.id >= ? AND t.id < ?
+          AND t.status != 'pending'
+          AND %1$s > 0
+          AND t.created_at < CURRENT_TIMESTAMP - (%1$s * INTERVAL '1 day')
+        RETURNING t.channel_id
+        """.formatted(CLOSE_REQUEST_DAYS);
+
+    private static RetentionEngine instance;
+
+    private final DatabaseManager dbManager;
+    private final TicketLogPartitionManager partitionManager;
+    private final CloseRequestCache closeRequestCache;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Outcome of one retention run
+     */
+    public static class RetentionReport {
+        public long ticketLogsDeleted;
+        public long ticketEventsDeleted;
+        public long closeRequestsDeleted;
+        public long durationMillis;
+        public boolean resumed;
+
+        public RetentionReport() {}
+
+        @Override
+        public String toString() {
+            return ticketLogsDeleted + " ticket logs, " + ticketEventsDeleted + " ticket events and " + closeRequestsDeleted + " close requests removed in "
+                    + durationMillis + "ms" + (resumed ? " (resumed an interrupted run)" : "");
+        }
+    }
+
+    private RetentionEngine() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.partitionManager = new TicketLogPartitionManager(dbManager);
+        this.closeRequestCache = CloseRequestCache.getInstance();
+        this.batchSize = Math.max(1, EnvUtil.getInt("RETENTION_BATCH_SIZE", 5000));
+        this.pauseMillis = Math.max(0, EnvUtil.getLong("RETENTION_BATCH_PAUSE_MILLIS", 200));
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "retention-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized RetentionEngine getInstance() {
+        if (instance == null) {
+            instance = new RetentionEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Start a run in the background. Returns false if a run is already in progress.
+     */
+    public boolean runAsync() {
+        if (running.get()) {
+            return false;
+        }
+        executor.submit(this::run);
+        return true;
+    }
+
+    /**
+     * Run retention for all guilds on the calling thread. Returns null if a run is already in progress
+     * here or on another instance.
+     */
+    public RetentionReport run() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("ℹ️ Retention run already in progress, skipping");
+            return null;
+        }
+
+        try (Connection lockConn = dbManager.getConnection()) {
+            if (!tryLock(lockConn)) {
+                System.out.println("ℹ️ Retention is running on another instance, skipping");
+                return null;
+            }
+
+            try {
+                long start = System.currentTimeMillis();
+                RetentionReport report = new RetentionReport();
+
+                if (partitionManager.isEnabled()) {
+                    report.ticketLogsDeleted += dropExpiredPartitions();
+                }
+                report.ticketLogsDeleted += runJob(TICKET_LOGS_JOB, "ticket_logs", DELETE_TICKET_LOGS, report);
+                report.ticketEventsDeleted += runJob(TICKET_EVENTS_JOB, "ticket_events", DELETE_TICKET_EVENTS, report);
+                report.closeRequestsDeleted += runJob(CLOSE_REQUESTS_JOB, "close_requests", DELETE_CLOSE_REQUESTS, report);
+
+                report.durationMillis = System.currentTimeMillis() - start;
+                System.out.println("🧹 Retention run finished: " + report);
+                return report;
+
+            } finally {
+                unlock(lockConn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Retention run failed: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Delete expired rows of one table window by window, recording progress after each window
+     */
+    private long runJob(String job, String table, String deleteQuery, RetentionReport report) throws SQLException {
+        long start = System.currentTimeMillis();
+        long deleted = 0;
+
+        long[] range = readIdRange(table);
+        if (range == null) {
+            finishRun(job, 0, System.currentTimeMillis() - start);
+            return 0;
+        }
+
+        Long lastId = startRun(job, range[0] - 1);
+        if (lastId != null) {
+            report.resumed = true;
+            System.out.println("🔄 Resuming " + job + " retention after id " + lastId);
+        }
+
+        long from = lastId != null ? lastId + 1 : range[0];
+        while (from <= range[1]) {
+            long to = from + batchSize;
+            deleted += deleteWindow(table, deleteQuery, from, to);
+            saveProgress(job, to - 1);
+            from = to;
+
+            if (from <= range[1] && pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.out.println("⚠️ " + job + " retention interrupted, will resume from id " + (from - 1));
+                    return deleted;
+                }
+            }
+        }
+
+        finishRun(job, deleted, System.currentTimeMillis() - start);
+        return deleted;
+    }
+
+    private int deleteWindow(String table, String deleteQuery, long from, long to) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(deleteQuery)) {
+
+            stmt.setLong(1, from);
+            stmt.setLong(2, to);
+
+            if (!table.equals("close_requests")) {
+                return stmt.executeUpdate();
+            }
+
+            // Deleted close requests must not linger in the cache
+            int deleted = 0;
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                closeRequestCache.invalidate(rs.getString("channel_id"));
+                deleted++;
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Drop whole monthly partitions in which every row has expired under its guild's policy
+     */
+    private int dropExpiredPartitions() throws SQLException {
+        // Only months older than the shortest retention in use can be fully expired
+        String query = """
+            SELECT LEAST(30, MIN(cleanup_ticket_logs_days) FILTER (WHERE cleanup_ticket_logs_days > 0)) AS min_days
+            FROM guild_configs
+            """;
+
+        int minDays = 30;
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                minDays = rs.getInt("min_days");
+            }
+        }
+
+        return partitionManager.dropPartitions(LocalDate.now().minusDays(minDays),
+                TicketLogPartitionManager.liveCondition(TICKET_LOG_DAYS));
+    }
+
+    private long[] readIdRange(String table) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + table)) {
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                long min = rs.getLong("min_id");
+                if (!rs.wasNull()) {
+                    return new long[]{min, rs.getLong("max_id")};
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mark a run as started. Returns the id an interrupted run stopped at, or null for a fresh run.
+     */
+    private Long startRun(String job, long startAfterId) throws SQLException {
+        String insertQuery = "INSERT INTO retention_progress (job) VALUES (?) ON CONFLICT (job) DO NOTHING";
+        String selectQuery = "SELECT last_id FROM retention_progress WHERE job = ?";
+        String startQuery = "UPDATE retention_progress SET last_id = ?, run_started_at = CURRENT_TIMESTAMP WHERE job = ?";
+
+        try (Connection conn = dbManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                stmt.setString(1, job);
+                stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(selectQuery)) {
+                stmt.setString(1, job);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    long lastId = rs.getLong("last_id");
+                    if (!rs.wasNull()) {
+                        return lastId;
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(startQuery)) {
+                stmt.setLong(1, startAfterId);
+                stmt.setString(2, job);
+                stmt.executeUpdate();
+            }
+        }
+
+        return null;
+    }
+
+    private void saveProgress(String job, long lastId) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE retention_progress SET last_id = ? WHERE job = ?")) {
+
+            stmt.setLong(1, lastId);
+            stmt.setString(2, job);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void finishRun(String job, long deleted, long durationMillis) throws SQLException {
+        String query = """
+            INSERT INTO retention_progress (job, last_id, last_completed_at, last_rows_deleted, last_duration_ms)
+            VALUES (?, NULL, CURRENT_TIMESTAMP, ?, ?)
+            ON CONFLICT (job)
+            DO UPDATE SET
+                last_id = NULL,
+                last_completed_at = EXCLUDED.last_completed_at,
+                last_rows_deleted = EXCLUDED.last_rows_deleted,
+                last_duration_ms = EXCLUDED.last_duration_ms
+            """;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, job);
+            stmt.setLong(2, deleted);
+            stmt.setLong(3, durationMillis);
+            stmt.executeUpdate();
+        }
+
+        System.out.println("🧹 " + job + " retention: " + deleted + " rows removed in " + durationMillis + "ms");
+    }
+
+    private boolean tryLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            stmt.setLong(1, RETENTION_LOCK_KEY);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            stmt.setLong(1, RETENTION_LOCK_KEY);
+            stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Failed to release retention lock: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.discordticketbot.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migration runner.
+ *
+ * Migrations are plain SQL files under {@code db/migration/} on the classpath, named
+ * {@code V<version>__<description>.sql}. Each one is applied exactly once, inside its own
+ * transaction, and recorded in the schema_version table with a checksum. A Postgres advisory
+ * lock serialises concurrent instances. When the schema is already current, startup costs a
+ * single query.
+ *
+ * A script whose first line is {@value #NO_TRANSACTION_MARKER} runs outside a transaction, one
+ * statement at a time, for statements Postgres refuses inside one such as CREATE INDEX
+ * CONCURRENTLY. Its statements must be safe to run again, since a failure part way leaves the
+ * earlier ones applied and the whole script is retried on the next start.
+ */
+public class SchemaMigrator {
+    private static final String MIGRATION_PATH = "db/migration/";
+
+    // Ordered list of migrations. Append new files here; never edit a migration once it has shipped.
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__baseline.sql",
+            "V2__ticket_stats_rollup.sql",
+            "V3__retention_settings.sql",
+            "V4__compact_types.sql",
+            "V5__ticket_log_indexes.sql",
+            "V6__ticket_events.sql",
+            "V7__guild_config_notify.sql",
+            "V8__ticket_log_history_indexes.sql",
+            "V9__transcripts.sql"
+    );
+
+    // Arbitrary application-wide key for pg_advisory_lock
+    private static final long MIGRATION_LOCK_KEY = 0x5469636B65744DL;
+
+    private static final String UNDEFINED_TABLE_STATE = "42P01";
+
+    static final String NO_TRANSACTION_MARKER = "-- migrate:no-transaction";
+
+    // CREATE INDEX CONCURRENTLY IF NOT EXISTS <name> ON <table>
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+IF\\s+NOT\\s+EXISTS\\s+(\\w+)\\s+ON\\s+(?:ONLY\\s+)?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * A single migration script loaded from the classpath
+     */
+    private static class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final long checksum;
+        final boolean transactional;
+
+        Migration(int version, String description, String script, long checksum) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.checksum = checksum;
+            this.transactional = !script.startsWith(NO_TRANSACTION_MARKER);
+        }
+    }
+
+    public SchemaMigrator(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Bring the schema up to date
+     */
+    public void migrate() {
+        List<Migration> migrations;
+        try {
+            migrations = loadMigrations();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to load schema migrations: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        // Fast path: one query when nothing is pending
+        try {
+            Map<Integer, Long> applied = readAppliedVersions();
+            if (isUpToDate(migrations, applied)) {
+                System.out.println("✅ Database schema is up to date (version " + latestVersion(migrations) + ")");
+                return;
+            }
+        } catch (SQLException e) {
+            if (!UNDEFINED_TABLE_STATE.equals(e.getSQLState())) {
+                System.err.println("❌ Failed to read schema version: " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+            // schema_version doesn't exist yet, fall through and create it
+        }
+
+        applyPendingMigrations(migrations);
+    }
+
+    private void applyPendingMigrations(List<Migration> migrations) {
+        System.out.println("🔄 Running database migrations...");
+
+        try (Connection conn = dbManager.getConnection()) {
+            lock(conn);
+            try {
+                createVersionTable(conn);
+
+                // Re-read under the lock, another instance may have migrated in the meantime
+                Map<Integer, Long> applied = readAppliedVersions(conn);
+
+                for (Migration migration : migrations) {
+                    Long appliedChecksum = applied.get(migration.version);
+                    if (appliedChecksum != null) {
+                        if (appliedChecksum != migration.checksum) {
+                            System.err.println("⚠️ Checksum mismatch for applied migration V" + migration.version
+                                    + " (" + migration.description + "). Migrations must not be edited after they ship.");
+                        }
+                        continue;
+                    }
+
+                    applyMigration(conn, migration);
+                }
+
+                System.out.println("✅ Database migrations completed successfully!");
+
+            } finally {
+                unlock(conn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to run database migrations: " + e.getMessage());
+            e.printStackTrace();
+            // Don't throw here - let the bot continue with existing schema
+        }
+    }
+
+    private void applyMigration(Connection conn, Migration migration) throws SQLException {
+        System.out.println("🔄 Applying migration V" + migration.version + ": " + migration.description + "...");
+        long start = System.currentTimeMillis();
+
+        if (!migration.transactional) {
+            applyWithoutTransaction(conn, migration, start);
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+
+            stmt.execute(migration.script);
+
+            record.setInt(1, migration.version);
+            record.setString(2, migration.description);
+            record.setLong(3, migration.checksum);
+            record.setInt(4, (int) (System.currentTimeMillis() - start));
+            record.executeUpdate();
+
+            conn.commit();
+            System.out.println("✅ Applied migration V" + migration.version + " in " + (System.currentTimeMillis() - start) + "ms");
+
+        } catch (SQLException e) {
+            conn.rollback();
+            System.err.println("❌ Migration V" + migration.version + " failed and was rolled back: " + e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void applyWithoutTransaction(Connection conn, Migration migration, long start) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements(migration.script)) {
+                Matcher index = CONCURRENT_INDEX.matcher(sql);
+                if (index.find()) {
+                    dropInvalidIndex(conn, index.group(1));
+                    if (isPartitioned(conn, index.group(2))) {
+                        // Postgres can't build an index on a partitioned table concurrently
+                        System.out.println("⚠️ " + index.group(2) + " is partitioned, building " + index.group(1) + " without CONCURRENTLY");
+                        sql = sql.replaceFirst("(?i)\\s+CONCURRENTLY\\b", "");
+                    }
+                }
+                stmt.execute(sql);
+            }
+            recordVersion(conn, migration, start);
+            System.out.println("✅ Applied migration V" + migration.version + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (SQLException e) {
+            System.err.println("❌ Migration V" + migration.version + " failed and will be retried on next start: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * An interrupted CREATE INDEX CONCURRENTLY leaves an invalid index behind, which IF NOT EXISTS
+     * would then skip, so it is dropped before the statement runs again
+     */
+    private void dropInvalidIndex(Connection conn, String name) throws SQLException {
+        boolean invalid;
+        try (PreparedStatement stmt = conn.prepareStatement("""
+                SELECT NOT i.indisvalid
+                FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE c.relname = ? AND pg_table_is_visible(c.oid)
+                """)) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                invalid = rs.next() && rs.getBoolean(1);
+            }
+        }
+
+        if (invalid) {
+            System.out.println("🔄 Dropping invalid index " + name + " left by an earlier attempt");
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+        }
+    }
+
+    private boolean isPartitioned(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT c.relkind = 'p' FROM pg_class c WHERE c.relname = ? AND pg_table_is_visible(c.oid)")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void recordVersion(Connection conn, Migration migration, long start) throws SQLException {
+        try (PreparedStatement record = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            record.setInt(1, migration.version);
+            record.setString(2, migration.description);
+            record.setLong(3, migration.checksum);
+            record.setInt(4, (int) (System.currentTimeMillis() - start));
+            record.executeUpdate();
+        }
+    }
+
+    /**
+     * Split a script into statements at semicolons ending a line, dropping comment-only chunks
+     */
+    private List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        for (String chunk : script.split(";\\s*(?:\\r?\\n|$)")) {
+            boolean hasSql = chunk.lines().anyMatch(line -> !line.isBlank() && !line.strip().startsWith("--"));
+            if (hasSql) {
+                statements.add(chunk.strip());
+            }
+        }
+        return statements;
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        String createVersionTable = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                checksum BIGINT NOT NULL,
+                applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                execution_ms INTEGER
+            )
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createVersionTable);
+        }
+    }
+
+    private Map<Integer, Long> readAppliedVersions() throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            return readAppliedVersions(conn);
+        }
+    }
+
+    private Map<Integer, Long> readAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version, checksum FROM schema_version")) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+
+        return applied;
+    }
+
+    private boolean isUpToDate(List<Migration> migrations, Map<Integer, Long> applied) {
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version);
+            if (checksum == null || checksum != migration.checksum) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int latestVersion(List<Migration> migrations) {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    private void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_lock(?)")) {
+            stmt.setLong(1, MIGRATION_LOCK_KEY);
+            stmt.executeQuery();
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            stmt.setLong(1, MIGRATION_LOCK_KEY);
+            stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Failed to release migration lock: " + e.getMessage());
+        }
+    }
+
+    private List<Migration> loadMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        int previousVersion = 0;
+
+        for (String fileName : MIGRATIONS) {
+            int separator = fileName.indexOf("__");
+            if (!fileName.startsWith("V") || separator < 0 || !fileName.endsWith(".sql")) {
+                throw new IOException("Invalid migration file name: " + fileName);
+            }
+
+            int version = Integer.parseInt(fileName.substring(1, separator));
+            if (version <= previousVersion) {
+                throw new IOException("Migrations are out of order at " + fileName);
+            }
+            previousVersion = version;
+
+            String description = fileName.substring(separator + 2, fileName.length() - ".sql".length()).replace('_', ' ');
+            String script = readResource(MIGRATION_PATH + fileName);
+
+            CRC32 crc = new CRC32();
+            crc.update(script.getBytes(StandardCharsets.UTF_8));
+
+            migrations.add(new Migration(version, description, script, crc.getValue()));
+        }
+
+        return migrations;
+    }
+
+    private String readResource(String path) throws IOException {
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Migration not found on classpath: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
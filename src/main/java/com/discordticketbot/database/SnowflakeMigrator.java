@@ -0,0 +1,706 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Online migration of Discord ID columns from VARCHAR to BIGINT and of status columns to enums.
+ *
+ * Enabled with SNOWFLAKE_MIGRATION=true; runs on a background thread while the bot keeps serving:
+ * <ol>
+ *   <li>Add a shadow column per converted column and a trigger that keeps it in sync on every write.</li>
+ *   <li>Backfill the shadow columns in primary-key batches (SNOWFLAKE_BATCH_SIZE rows, resumable).</li>
+ *   <li>Build shadow copies of the affected indexes concurrently, and validate NOT NULL checks.</li>
+ *   <li>Swap everything in one short transaction: drop the old columns, rename the shadows, re-attach
+ *       primary keys and unique constraints to the prebuilt indexes and re-add foreign keys.</li>
+ * </ol>
+ * Until the swap, the VARCHAR columns stay authoritative and the DAOs bind IDs untyped (see
+ * {@link Snowflakes}), so old and new instances can run side by side. Table and index sizes and
+ * the latency of a few hot lookups are logged before the backfill and after the swap.
+ */
+public class SnowflakeMigrator {
+    private static final String SNOWFLAKE_PATTERN = "^[0-9]{1,19}$";
+    private static final String SHADOW_SUFFIX = "__new";
+
+    // Arbitrary application-wide key for pg_advisory_lock, distinct from the other maintenance locks
+    private static final long SNOWFLAKE_LOCK_KEY = 0x5469636B657453L;
+
+    private static final int LATENCY_SAMPLES = 50;
+
+    private static SnowflakeMigrator instance;
+
+    /**
+     * One table to convert: its batch key (null for small tables converted in one statement),
+     * snowflake columns, and optional status column with its enum type and default.
+     */
+    private static class TableSpec {
+        final String table;
+        final String batchKey;
+        final List<String> snowflakeColumns;
+        final String statusColumn;
+        final String statusType;
+        final String statusDefault;
+
+        TableSpec(String table, String batchKey, List<String> snowflakeColumns, String statusType, String statusDefault) {
+            this.table = table;
+            this.batchKey = batchKey;
+            this.snowflakeColumns = snowflakeColumns;
+            this.statusColumn = statusType != null ? "status" : null;
+            this.statusType = statusType;
+            this.statusDefault = statusDefault;
+        }
+
+        List<String> columns() {
+            List<String> columns = new ArrayList<>(snowflakeColumns);
+            if (statusColumn != null) columns.add(statusColumn);
+            return columns;
+        }
+
+        String conversion(String column, String source) {
+            if (column.equals(statusColumn)) {
+                return source + "::text::" + statusType;
+            }
+            return "CASE WHEN " + source + " ~ '" + SNOWFLAKE_PATTERN + "' THEN " + source + "::bigint"
+                    + " WHEN " + source + " = 'SYSTEM' THEN 0 END";
+        }
+
+        String targetType(String column) {
+            return column.equals(statusColumn) ? statusType : "BIGINT";
+        }
+    }
+
+    // Referenced tables first, so foreign keys can be re-added in order
+    private static final List<TableSpec> TABLES = List.of(
+            new TableSpec("guild_configs", null,
+                    List.of("guild_id", "category_id", "panel_channel_id", "transcript_channel_id", "error_log_channel_id"), null, null),
+            new TableSpec("support_roles", "id", List.of("guild_id", "role_id"), null, null),
+            new TableSpec("ticket_logs", "id", List.of("guild_id", "channel_id", "owner_id"), "ticket_status", "open"),
+            new TableSpec("close_requests", "id",
+                    List.of("channel_id", "requested_by", "ticket_owner", "message_id", "responded_by", "guild_id"), "close_request_status", "pending"),
+            new TableSpec("ticket_stats", null, List.of("guild_id"), null, null),
+            new TableSpec("ticket_events", "id", List.of("guild_id", "channel_id", "actor_id"), null, null),
+            new TableSpec("transcripts", "id", List.of("guild_id", "channel_id"), null, null)
+    );
+
+    private final DatabaseManager dbManager;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pauseMillis;
+    private Thread worker;
+
+    private SnowflakeMigrator() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.enabled = EnvUtil.getBoolean("SNOWFLAKE_MIGRATION", false);
+        this.batchSize = Math.max(1, EnvUtil.getInt("SNOWFLAKE_BATCH_SIZE", 5000));
+        this.pauseMillis = Math.max(0, EnvUtil.getLong("SNOWFLAKE_BATCH_PAUSE_MILLIS", 100));
+    }
+
+    public static synchronized SnowflakeMigrator getInstance() {
+        if (instance == null) {
+            instance = new SnowflakeMigrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the migration in the background if it is enabled and not done yet
+     */
+    public synchronized void start() {
+        if (!enabled || Snowflakes.isBigintStorage() || worker != null) {
+            return;
+        }
+
+        worker = new Thread(this::migrate, "snowflake-migrator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void migrate() {
+        try (Connection lockConn = dbManager.getConnection()) {
+            if (!tryLock(lockConn)) {
+                System.out.println("ℹ️ Snowflake migration is running on another instance");
+                return;
+            }
+
+            try {
+                Snowflakes.detectStorage(lockConn);
+                if (Snowflakes.isBigintStorage()) {
+                    return;
+                }
+
+                System.out.println("🔄 Starting online snowflake migration...");
+                if (!checkConvertible()) {
+                    return;
+                }
+
+                String before = readState("measurements_before");
+                if (before == null) {
+                    before = measure();
+                    writeState("measurements_before", before);
+                }
+
+                for (TableSpec spec : TABLES) {
+                    installShadowColumns(spec);
+                }
+                for (TableSpec spec : TABLES) {
+                    backfill(spec);
+                }
+
+                Map<String, String> shadowIndexes = new LinkedHashMap<>();
+                for (TableSpec spec : TABLES) {
+                    buildShadowIndexes(spec, shadowIndexes);
+                    validateNotNullChecks(spec);
+                }
+
+                List<String> foreignKeys = swap(shadowIndexes);
+                Snowflakes.setBigintStorage(true);
+                validateForeignKeys(foreignKeys);
+
+                String after = measure();
+                writeState("measurements_after", after);
+                System.out.println("✅ Snowflake migration completed\n--- Before ---\n" + before + "--- After ---\n" + after);
+
+            } finally {
+                unlock(lockConn);
+            }
+
+        } catch (SQLException | InterruptedException e) {
+            System.err.println("❌ Snowflake migration stopped, it will resume on the next start: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Refuse to run if any value would not survive the conversion
+     */
+    private boolean checkConvertible() throws SQLException {
+        boolean convertible = true;
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (TableSpec spec : TABLES) {
+                for (String column : spec.snowflakeColumns) {
+                    String query = "SELECT COUNT(*) FROM " + spec.table + " WHERE " + column + " IS NOT NULL AND " + column + " <> ''"
+                            + " AND " + column + " <> 'SYSTEM' AND " + column + " !~ '" + SNOWFLAKE_PATTERN + "'";
+                    convertible &= reportInvalid(stmt, query, spec.table + "." + column);
+                }
+                if (spec.statusColumn != null) {
+                    String query = "SELECT COUNT(*) FROM " + spec.table + " WHERE " + spec.statusColumn + " IS NOT NULL AND "
+                            + spec.statusColumn + "::text NOT IN (SELECT unnest(enum_range(NULL::" + spec.statusType + "))::text)";
+                    convertible &= reportInvalid(stmt, query, spec.table + "." + spec.statusColumn);
+                }
+            }
+        }
+
+        return convertible;
+    }
+
+    private boolean reportInvalid(Statement stmt, String query, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            long invalid = rs.getLong(1);
+            if (invalid > 0) {
+                System.err.println("❌ Snowflake migration aborted: " + invalid + " value(s) in " + column + " cannot be converted");
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Add shadow columns and the trigger that keeps them in sync with every insert and update
+     */
+    private void installShadowColumns(TableSpec spec) throws SQLException {
+        StringBuilder assignments = new StringBuilder();
+        for (String column : spec.columns()) {
+            assignments.append("    NEW.").append(column).append(SHADOW_SUFFIX).append(" := ")
+                    .append(spec.conversion(column, "NULLIF(NEW." + column + "::text, '')")).append(";\n");
+        }
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (String column : spec.columns()) {
+                stmt.execute("ALTER TABLE " + spec.table + " ADD COLUMN IF NOT EXISTS " + column + SHADOW_SUFFIX + " " + spec.targetType(column));
+            }
+
+            stmt.execute("CREATE OR REPLACE FUNCTION " + spec.table + "_snowflake_sync() RETURNS TRIGGER AS $$\nBEGIN\n"
+                    + assignments + "    RETURN NEW;\nEND;\n$$ LANGUAGE plpgsql");
+            stmt.execute("DROP TRIGGER IF EXISTS " + spec.table + "_snowflake_sync ON " + spec.table);
+            stmt.execute("CREATE TRIGGER " + spec.table + "_snowflake_sync BEFORE INSERT OR UPDATE ON " + spec.table
+                    + " FOR EACH ROW EXECUTE FUNCTION " + spec.table + "_snowflake_sync()");
+        }
+    }
+
+    /**
+     * Fill the shadow columns of existing rows, batch by batch, recording progress after each batch
+     */
+    private void backfill(TableSpec spec) throws SQLException, InterruptedException {
+        if ("done".equals(readState("backfill:" + spec.table))) {
+            return;
+        }
+
+        List<String> assignments = new ArrayList<>();
+        for (String column : spec.columns()) {
+            assignments.add(column + SHADOW_SUFFIX + " = " + spec.conversion(column, "NULLIF(" + column + "::text, '')"));
+        }
+        String update = "UPDATE " + spec.table + " SET " + String.join(", ", assignments);
+
+        long start = System.currentTimeMillis();
+        long updated = 0;
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            if (spec.batchKey == null) {
+                updated = stmt.executeUpdate(update);
+            } else {
+                long maxId;
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + spec.batchKey + "), 0) FROM " + spec.table)) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+
+                String progress = readState("backfill:" + spec.table);
+                long from = progress != null ? Long.parseLong(progress) + 1 : 0;
+
+                try (PreparedStatement batch = conn.prepareStatement(update + " WHERE " + spec.batchKey + " >= ? AND " + spec.batchKey + " < ?")) {
+                    while (from <= maxId) {
+                        long to = from + batchSize;
+                        batch.setLong(1, from);
+                        batch.setLong(2, to);
+                        updated += batch.executeUpdate();
+                        writeState("backfill:" + spec.table, String.valueOf(to - 1));
+                        from = to;
+
+                        if (pauseMillis > 0) {
+                            Thread.sleep(pauseMillis);
+                        }
+                    }
+                }
+            }
+        }
+
+        writeState("backfill:" + spec.table, "done");
+        System.out.println("✅ Backfilled " + spec.table + ": " + updated + " rows in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Build a copy of every index that uses a converted column on the shadow columns, before the swap.
+     *
+     * On a partitioned table an index is built in two parts: the parent index ON ONLY the table
+     * (invalid while it has no children), then one index per partition, built concurrently and
+     * attached to it, after which the parent index is valid. Primary keys and unique constraints
+     * can't be re-attached to a prebuilt index on a partitioned table, so an index backing one
+     * stops the migration.
+     */
+    private void buildShadowIndexes(TableSpec spec, Map<String, String> shadowIndexes) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            boolean partitioned = isPartitioned(stmt, spec.table);
+            String query = """
+                SELECT c.relname AS index_name, pg_get_indexdef(i.indexrelid) AS definition,
+                       EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = i.indexrelid AND k.contype IN ('p', 'u')) AS backs_constraint
+                FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE i.indrelid = '%s'::regclass
+                """.formatted(spec.table);
+
+            Map<String, String> definitions = new LinkedHashMap<>();
+            List<String> constraintIndexes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    definitions.put(rs.getString("index_name"), rs.getString("definition"));
+                    if (rs.getBoolean("backs_constraint")) {
+                        constraintIndexes.add(rs.getString("index_name"));
+                    }
+                }
+            }
+
+            for (Map.Entry<String, String> index : definitions.entrySet()) {
+                String name = index.getKey();
+                if (name.endsWith(SHADOW_SUFFIX)) continue;
+
+                String shadowDefinition = shadowDefinition(spec, name, index.getValue(), !partitioned);
+                if (shadowDefinition == null) continue; // Doesn't touch a converted column
+
+                String shadowName = shadowName(name);
+                if (!partitioned) {
+                    stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + shadowName);
+                    stmt.execute(shadowDefinition);
+                    shadowIndexes.put(shadowName, name);
+                    continue;
+                }
+
+                if (constraintIndexes.contains(name)) {
+                    throw new SQLException("index " + name + " backs a primary key or unique constraint on partitioned table "
+                            + spec.table + " and cannot be rebuilt online; convert that constraint by hand first");
+                }
+
+                // Dropping the parent index drops the partition indexes attached to it from an earlier attempt
+                stmt.execute("DROP INDEX IF EXISTS " + shadowName);
+                stmt.execute(shadowDefinition);
+
+                for (String[] child : partitionIndexes(stmt, name)) {
+                    String childShadowName = shadowName(child[0]);
+                    stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + childShadowName);
+                    stmt.execute(shadowDefinition(spec, child[0], child[1], true));
+                    stmt.execute("ALTER INDEX " + shadowName + " ATTACH PARTITION " + childShadowName);
+                    shadowIndexes.put(childShadowName, child[0]);
+                }
+
+                try (ResultSet rs = stmt.executeQuery("SELECT indisvalid FROM pg_index WHERE indexrelid = '" + shadowName + "'::regclass")) {
+                    if (!rs.next() || !rs.getBoolean("indisvalid")) {
+                        throw new SQLException("shadow index " + shadowName + " is missing partition indexes");
+                    }
+                }
+                shadowIndexes.put(shadowName, name);
+            }
+        }
+    }
+
+    /**
+     * The partition indexes attached to a partitioned index: {index name, definition}
+     */
+    private List<String[]> partitionIndexes(Statement stmt, String parentIndex) throws SQLException {
+        List<String[]> children = new ArrayList<>();
+        String query = """
+            SELECT c.relname AS index_name, pg_get_indexdef(c.oid) AS definition
+            FROM pg_inherits h
+            JOIN pg_class c ON c.oid = h.inhrelid
+            WHERE h.inhparent = '%s'::regclass
+            """.formatted(parentIndex);
+
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                children.add(new String[]{rs.getString("index_name"), rs.getString("definition")});
+            }
+        }
+        return children;
+    }
+
+    /**
+     * The CREATE INDEX statement for the shadow copy of an index, or null if the index uses no converted column.
+     *
+     * Columns are renamed to their shadow columns. A status column is also compared as its enum in
+     * the predicate, so after the swap a partial index like WHERE status = 'pending' still matches
+     * queries against the enum column; pg_get_indexdef shows the VARCHAR original as
+     * ((status)::text = 'pending'::text).
+     */
+    private String shadowDefinition(TableSpec spec, String name, String definition, boolean concurrently) throws SQLException {
+        int using = definition.indexOf(" USING ");
+        String columnsPart = definition.substring(using);
+        String shadowColumnsPart = columnsPart;
+
+        if (spec.statusColumn != null) {
+            String shadowStatus = spec.statusColumn + SHADOW_SUFFIX;
+            String textType = "::(?:text|character varying)";
+            shadowColumnsPart = shadowColumnsPart
+                    .replaceAll("\\(" + spec.statusColumn + "\\)" + textType + "(?!\\[)", shadowStatus)
+                    .replaceAll("\\b" + spec.statusColumn + "\\b" + textType + "(?!\\[)", shadowStatus);
+
+            // Literals compared with the status column: status = 'x', status <> 'x', status = ANY (ARRAY['x', ...])
+            Matcher single = Pattern.compile(shadowStatus + "(\\s*(?:=|<>)\\s*)'([^']*)'" + textType).matcher(shadowColumnsPart);
+            shadowColumnsPart = single.replaceAll(result -> Matcher.quoteReplacement(
+                    shadowStatus + result.group(1) + "'" + result.group(2) + "'::" + spec.statusType));
+
+            Matcher array = Pattern.compile(shadowStatus + "(\\s*(?:=|<>)\\s*(?:ANY|ALL)\\s*)\\(\\(ARRAY\\[([^\\]]*)\\]\\)" + textType + "\\[\\]\\)")
+                    .matcher(shadowColumnsPart);
+            shadowColumnsPart = array.replaceAll(result -> Matcher.quoteReplacement(
+                    shadowStatus + result.group(1) + "(ARRAY[" + result.group(2).replaceAll("'" + textType, "'") + "]::"
+                            + spec.statusType + "[])"));
+
+            if (shadowColumnsPart.matches("(?s).*\\b" + shadowStatus + "\\)?::.*")) {
+                throw new SQLException("cannot rebuild the predicate of index " + name + " on the " + spec.statusType
+                        + " column: " + definition);
+            }
+        }
+
+        for (String column : spec.columns()) {
+            shadowColumnsPart = shadowColumnsPart.replaceAll("\\b" + column + "\\b", Matcher.quoteReplacement(column + SHADOW_SUFFIX));
+        }
+        if (shadowColumnsPart.equals(columnsPart)) {
+            return null;
+        }
+
+        String header = definition.substring(0, using)
+                .replaceFirst("INDEX " + Pattern.quote(name) + " ON", Matcher.quoteReplacement(
+                        "INDEX " + (concurrently ? "CONCURRENTLY " : "") + shadowName(name) + " ON"));
+        return header + shadowColumnsPart;
+    }
+
+    /**
+     * Prove the shadow columns of NOT NULL columns have no nulls, so SET NOT NULL during the swap doesn't scan
+     */
+    private void validateNotNullChecks(TableSpec spec) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (String column : notNullColumns(stmt, spec)) {
+                String check = shadowName(spec.table + "_" + column + "_nn");
+                stmt.execute("ALTER TABLE " + spec.table + " DROP CONSTRAINT IF EXISTS " + check);
+                stmt.execute("ALTER TABLE " + spec.table + " ADD CONSTRAINT " + check + " CHECK (" + column + SHADOW_SUFFIX + " IS NOT NULL) NOT VALID");
+                stmt.execute("ALTER TABLE " + spec.table + " VALIDATE CONSTRAINT " + check);
+            }
+        }
+    }
+
+    /**
+     * Replace the old columns with the shadow columns in one transaction. Returns the foreign keys
+     * that were re-added NOT VALID and still need validating.
+     */
+    private List<String> swap(Map<String, String> shadowIndexes) throws SQLException {
+        System.out.println("🔄 Swapping snowflake columns...");
+        long start = System.currentTimeMillis();
+        List<String> foreignKeys = new ArrayList<>();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (TableSpec spec : TABLES) {
+                    stmt.execute("LOCK TABLE " + spec.table + " IN ACCESS EXCLUSIVE MODE");
+                }
+
+                // Constraints that depend on converted columns, captured before the columns go away
+                // (a foreign key shows up for both of its tables, keyed by table and name to keep it once)
+                Map<String, String[]> dependent = new LinkedHashMap<>();
+                Map<String, List<String>> notNull = new LinkedHashMap<>();
+                for (TableSpec spec : TABLES) {
+                    for (String[] constraint : dependentConstraints(stmt, spec)) {
+                        dependent.putIfAbsent(constraint[0] + "." + constraint[1], constraint);
+                    }
+                    notNull.put(spec.table, notNullColumns(stmt, spec));
+                }
+                List<String[]> constraints = new ArrayList<>(dependent.values());
+
+                // Foreign keys first, they depend on the referenced unique constraints
+                constraints.sort((a, b) -> Boolean.compare(!"f".equals(a[2]), !"f".equals(b[2])));
+                for (String[] constraint : constraints) {
+                    stmt.execute("ALTER TABLE " + constraint[0] + " DROP CONSTRAINT IF EXISTS " + constraint[1]);
+                }
+
+                for (TableSpec spec : TABLES) {
+                    stmt.execute("DROP TRIGGER IF EXISTS " + spec.table + "_snowflake_sync ON " + spec.table);
+                    stmt.execute("DROP FUNCTION IF EXISTS " + spec.table + "_snowflake_sync()");
+
+                    for (String column : spec.columns()) {
+                        stmt.execute("ALTER TABLE " + spec.table + " DROP COLUMN " + column);
+                        stmt.execute("ALTER TABLE " + spec.table + " RENAME COLUMN " + column + SHADOW_SUFFIX + " TO " + column);
+                    }
+                    for (String column : notNull.get(spec.table)) {
+                        stmt.execute("ALTER TABLE " + spec.table + " ALTER COLUMN " + column + " SET NOT NULL");
+                        stmt.execute("ALTER TABLE " + spec.table + " DROP CONSTRAINT IF EXISTS " + shadowName(spec.table + "_" + column + "_nn"));
+                    }
+                    if (spec.statusColumn != null) {
+                        stmt.execute("ALTER TABLE " + spec.table + " ALTER COLUMN " + spec.statusColumn
+                                + " SET DEFAULT '" + spec.statusDefault + "'::" + spec.statusType);
+                    }
+                }
+
+                for (Map.Entry<String, String> index : shadowIndexes.entrySet()) {
+                    stmt.execute("ALTER INDEX " + index.getKey() + " RENAME TO " + index.getValue());
+                }
+
+                // Unique and primary keys before foreign keys, which need them
+                constraints.sort((a, b) -> Boolean.compare("f".equals(a[2]), "f".equals(b[2])));
+                for (String[] constraint : constraints) {
+                    String table = constraint[0];
+                    String name = constraint[1];
+                    switch (constraint[2]) {
+                        case "p" -> stmt.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " PRIMARY KEY USING INDEX " + constraint[4]);
+                        case "u" -> stmt.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " UNIQUE USING INDEX " + constraint[4]);
+                        case "f" -> {
+                            stmt.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " " + constraint[3] + " NOT VALID");
+                            foreignKeys.add(table + "." + name);
+                        }
+                        default -> stmt.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " " + constraint[3]);
+                    }
+                }
+
+                conn.commit();
+                System.out.println("✅ Snowflake columns swapped in " + (System.currentTimeMillis() - start) + "ms");
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return foreignKeys;
+    }
+
+    private void validateForeignKeys(List<String> foreignKeys) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (String foreignKey : foreignKeys) {
+                String[] parts = foreignKey.split("\\.");
+                stmt.execute("ALTER TABLE " + parts[0] + " VALIDATE CONSTRAINT " + parts[1]);
+            }
+        }
+    }
+
+    /**
+     * Constraints on or referencing converted columns: {table, name, type, definition, index name}
+     */
+    private List<String[]> dependentConstraints(Statement stmt, TableSpec spec) throws SQLException {
+        List<String[]> constraints = new ArrayList<>();
+        String columns = "'" + String.join("', '", spec.columns()) + "'";
+        String query = """
+            SELECT DISTINCT c.conrelid::regclass::text AS table_name, c.conname, c.contype,
+                   pg_get_constraintdef(c.oid) AS definition, c.conindid::regclass::text AS index_name
+            FROM pg_constraint c
+            JOIN pg_attribute a ON (a.attrelid = c.conrelid AND a.attnum = ANY(c.conkey))
+                                OR (a.attrelid = c.confrelid AND a.attnum = ANY(c.confkey))
+            WHERE a.attrelid = '%s'::regclass AND a.attname IN (%s) AND c.contype IN ('p', 'u', 'f', 'c')
+            """.formatted(spec.table, columns);
+
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                if (rs.getString("conname").endsWith(SHADOW_SUFFIX)) continue;
+                constraints.add(new String[]{rs.getString("table_name"), rs.getString("conname"), rs.getString("contype"),
+                        rs.getString("definition"), rs.getString("index_name")});
+            }
+        }
+        return constraints;
+    }
+
+    private List<String> notNullColumns(Statement stmt, TableSpec spec) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        String query = """
+            SELECT attname FROM pg_attribute
+            WHERE attrelid = '%s'::regclass AND attnotnull AND NOT attisdropped AND attname IN ('%s')
+            """.formatted(spec.table, String.join("', '", spec.snowflakeColumns));
+
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                columns.add(rs.getString("attname"));
+            }
+        }
+        return columns;
+    }
+
+    private boolean isPartitioned(Statement stmt, String table) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT relkind FROM pg_class WHERE oid = '" + table + "'::regclass")) {
+            return rs.next() && "p".equals(rs.getString("relkind"));
+        }
+    }
+
+    private String shadowName(String name) {
+        // Identifiers are limited to 63 bytes
+        return (name.length() > 58 ? name.substring(0, 58) : name) + SHADOW_SUFFIX;
+    }
+
+    /**
+     * Table and index sizes plus the average latency of a few hot lookups, as a printable report
+     */
+    private String measure() throws SQLException {
+        StringBuilder report = new StringBuilder();
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (TableSpec spec : TABLES) {
+                String query = "SELECT pg_relation_size('" + spec.table + "') AS table_size, pg_indexes_size('" + spec.table + "') AS index_size,"
+                        + " pg_total_relation_size('" + spec.table + "') AS total_size";
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    rs.next();
+                    report.append(String.format("%-15s table=%8d KB  indexes=%8d KB  total=%8d KB%n", spec.table,
+                            rs.getLong("table_size") / 1024, rs.getLong("index_size") / 1024, rs.getLong("total_size") / 1024));
+                }
+            }
+
+            String channelId = sample(stmt, "SELECT channel_id::text FROM close_requests LIMIT 1");
+            String guildId = sample(stmt, "SELECT guild_id::text FROM ticket_logs LIMIT 1");
+            if (channelId != null) {
+                report.append(latency(conn, "close request by channel", "SELECT status FROM close_requests WHERE channel_id = ?", channelId));
+            }
+            if (guildId != null) {
+                report.append(latency(conn, "tickets by guild", "SELECT COUNT(*) FROM ticket_logs WHERE guild_id = ?", guildId));
+                report.append(latency(conn, "support roles by guild", "SELECT role_id FROM support_roles WHERE guild_id = ?", guildId));
+            }
+        }
+
+        return report.toString();
+    }
+
+    private String sample(Statement stmt, String query) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private String latency(Connection conn, String label, String query, String id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            long totalNanos = 0;
+            for (int i = 0; i < LATENCY_SAMPLES; i++) {
+                Snowflakes.bind(stmt, 1, id);
+                long start = System.nanoTime();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Drain the result
+                    }
+                }
+                totalNanos += System.nanoTime() - start;
+            }
+            return String.format("%-25s avg=%.3fms over %d runs%n", label, totalNanos / (LATENCY_SAMPLES * 1_000_000.0), LATENCY_SAMPLES);
+        }
+    }
+
+    private String readState(String key) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT value FROM snowflake_migration_state WHERE key = ?")) {
+
+            stmt.setString(1, key);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getString("value") : null;
+        }
+    }
+
+    private void writeState(String key, String value) throws SQLException {
+        String query = """
+            INSERT INTO snowflake_migration_state (key, value, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (key) DO UPDATE SET value = EXCLUDED.value, updated_at = CURRENT_TIMESTAMP
+            """;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, key);
+            stmt.setString(2, value);
+            stmt.executeUpdate();
+        }
+    }
+
+    private boolean tryLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            stmt.setLong(1, SNOWFLAKE_LOCK_KEY);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            stmt.setLong(1, SNOWFLAKE_LOCK_KEY);
+            stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Failed to release snowflake migration lock: " + e.getMessage());
+        }
+    }
+}
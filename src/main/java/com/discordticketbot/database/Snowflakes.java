@@ -0,0 +1,91 @@
+package com.discordticketbot.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+
+/**
+ * Binds Discord IDs (snowflakes) to statements for either storage format.
+ *
+ * Before the online snowflake migration the ID columns are VARCHAR, afterwards BIGINT. Until this
+ * process knows the columns are BIGINT, IDs are bound as untyped parameters so the server infers
+ * the column type; that keeps every statement valid against both layouts while another instance
+ * swaps the columns. Once BIGINT storage is detected (or this process performed the swap), IDs
+ * are bound with setLong. Reads use getString, which works for both column types.
+ */
+public class Snowflakes {
+    /**
+     * Stored in user ID columns for actions taken by the bot itself (formerly the text 'SYSTEM')
+     */
+    public static final String SYSTEM_USER_ID = "0";
+
+    private static volatile boolean bigintStorage = false;
+
+    private Snowflakes() {}
+
+    /**
+     * Bind an ID (or null) to a statement parameter
+     */
+    public static void bind(PreparedStatement stmt, int index, String id) throws SQLException {
+        if (id == null || id.isEmpty()) {
+            stmt.setNull(index, bigintStorage ? Types.BIGINT : Types.OTHER);
+        } else if (bigintStorage) {
+            stmt.setLong(index, Long.parseLong(id));
+        } else {
+            stmt.setObject(index, id, Types.OTHER);
+        }
+    }
+
+    /**
+     * Bind a list of IDs to a statement parameter, for {@code = ANY(?)} lookups. Until BIGINT
+     * storage is detected the array is sent as an untyped literal, so like {@link #bind} the
+     * server gives it the column's array type on either layout.
+     */
+    public static void bindArray(PreparedStatement stmt, int index, Collection<String> ids) throws SQLException {
+        if (bigintStorage) {
+            stmt.setArray(index, stmt.getConnection().createArrayOf("int8", ids.stream().map(Long::valueOf).toArray()));
+            return;
+        }
+
+        StringBuilder literal = new StringBuilder("{");
+        for (String id : ids) {
+            if (literal.length() > 1) literal.append(',');
+            literal.append('"').append(id.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        stmt.setObject(index, literal.append('}').toString(), Types.OTHER);
+    }
+
+    /**
+     * Map the stored bot user ID back to the label shown to users
+     */
+    public static String displayUser(String userId) {
+        return SYSTEM_USER_ID.equals(userId) ? "SYSTEM" : userId;
+    }
+
+    public static boolean isBigintStorage() {
+        return bigintStorage;
+    }
+
+    static void setBigintStorage(boolean value) {
+        bigintStorage = value;
+    }
+
+    /**
+     * Detect the current storage format from the column type of close_requests.channel_id
+     */
+    static void detectStorage(Connection conn) throws SQLException {
+        String query = """
+            SELECT format_type(a.atttypid, a.atttypmod) AS column_type
+            FROM pg_attribute a
+            WHERE a.attrelid = to_regclass('close_requests') AND a.attname = 'channel_id' AND NOT a.attisdropped
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            bigintStorage = rs.next() && "bigint".equals(rs.getString("column_type"));
+        }
+    }
+}
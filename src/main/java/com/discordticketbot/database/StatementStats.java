@@ -0,0 +1,284 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement latency, recorded by wrapping the connections the stores get from their pools.
+ *
+ * Every execute call is timed into a {@link LatencyHistogram} keyed by the statement's
+ * fingerprint: its SQL with literals replaced by ? and whitespace collapsed, so every call of
+ * one DAO query lands in the same entry. Statements slower than DB_SLOW_QUERY_MILLIS are logged
+ * with the types of their bind parameters (never the values). The time covers the execute call
+ * only, not reading the rows of a result set afterwards.
+ */
+public class StatementStats {
+    // Fingerprints tracked before further statements are counted under OTHER
+    private static final int MAX_FINGERPRINTS = 500;
+    private static final int MAX_FINGERPRINT_LENGTH = 400;
+    private static final String OTHER = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static StatementStats instance;
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Latency and error count of one statement fingerprint
+     */
+    public static class Entry {
+        public final String fingerprint;
+        public final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public double getTotalMillis() {
+            return latency.getAverageMillis() * latency.getCount();
+        }
+    }
+
+    private StatementStats() {
+        this.enabled = EnvUtil.getBoolean("DB_STATEMENT_STATS", true);
+        long slowMillis = EnvUtil.getLong("DB_SLOW_QUERY_MILLIS", 500);
+        this.slowThresholdNanos = slowMillis > 0 ? slowMillis * 1_000_000 : Long.MAX_VALUE;
+    }
+
+    public static synchronized StatementStats getInstance() {
+        if (instance == null) {
+            instance = new StatementStats();
+        }
+        return instance;
+    }
+
+    /**
+     * A connection whose statements are timed (the connection itself when stats are disabled)
+     */
+    public Connection wrap(Connection conn) {
+        if (!enabled || conn == null) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(conn));
+    }
+
+    /**
+     * A data source whose connections are timed
+     */
+    public DataSource wrap(DataSource dataSource) {
+        if (!enabled) {
+            return dataSource;
+        }
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection conn ? wrap(conn) : result;
+                });
+    }
+
+    /**
+     * Normalised form of a statement: literals replaced by ?, whitespace collapsed
+     */
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_FINGERPRINT_LENGTH
+                ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..."
+                : normalized;
+    }
+
+    private String cachedFingerprint(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = fingerprint(sql);
+            if (fingerprints.size() < MAX_FINGERPRINTS) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    private void record(String fingerprint, long nanos, boolean failed, String[] parameterTypes) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            String key = entries.size() < MAX_FINGERPRINTS ? fingerprint : OTHER;
+            entry = entries.computeIfAbsent(key, Entry::new);
+        }
+
+        entry.latency.recordNanos(nanos);
+        if (failed) {
+            entry.errors.increment();
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            System.err.println(String.format("🐢 Slow statement (%.1fms%s): %s%s",
+                    nanos / 1_000_000.0, failed ? ", failed" : "", fingerprint,
+                    parameterTypes.length > 0 ? " | params: " + Arrays.toString(parameterTypes) : ""));
+        }
+    }
+
+    /**
+     * The {@code limit} statements with the highest value of {@code order}, highest first
+     */
+    public List<Entry> getTop(int limit, Comparator<Entry> order) {
+        List<Entry> top = new ArrayList<>(entries.values());
+        top.sort(order.reversed());
+        return top.size() > limit ? top.subList(0, limit) : top;
+    }
+
+    /**
+     * Plain text table of the top statements, for the HTTP endpoint. {@code sort} is one of
+     * p95 (default), p99, max, total or count.
+     */
+    public String getReport(int limit, String sort) {
+        Comparator<Entry> order = switch (sort == null ? "p95" : sort) {
+            case "p99" -> Comparator.comparingDouble(e -> e.latency.getPercentileMillis(99));
+            case "max" -> Comparator.comparingDouble(e -> e.latency.getMaxMillis());
+            case "total" -> Comparator.comparingDouble(Entry::getTotalMillis);
+            case "count" -> Comparator.comparingLong(e -> e.latency.getCount());
+            default -> Comparator.comparingDouble(e -> e.latency.getPercentileMillis(95));
+        };
+
+        StringBuilder report = new StringBuilder();
+        if (!enabled) {
+            report.append("Statement stats are disabled (DB_STATEMENT_STATS=false)\n");
+            return report.toString();
+        }
+
+        report.append(String.format("%8s %10s %9s %9s %9s %9s %6s  %s%n",
+                "count", "total_ms", "avg_ms", "p95_ms", "p99_ms", "max_ms", "errors", "statement"));
+        for (Entry entry : getTop(limit, order)) {
+            LatencyHistogram latency = entry.latency;
+            report.append(String.format("%8d %10.1f %9.2f %9.2f %9.2f %9.2f %6d  %s%n",
+                    latency.getCount(), entry.getTotalMillis(), latency.getAverageMillis(),
+                    latency.getPercentileMillis(95), latency.getPercentileMillis(99), latency.getMaxMillis(),
+                    entry.getErrors(), entry.fingerprint));
+        }
+        return report.toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Hands out timed statements
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection delegate;
+
+        ConnectionHandler(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementStats.invoke(delegate, method, args);
+
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql != null ? cachedFingerprint(sql) : null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times execute calls and remembers the types bound to each parameter
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement delegate;
+        private final String fingerprint;
+        private String[] parameterTypes = new String[0];
+
+        StatementHandler(Statement delegate, String fingerprint) {
+            this.delegate = delegate;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                // Plain statements carry their SQL in the execute call
+                String statementFingerprint = fingerprint != null ? fingerprint
+                        : args != null && args.length > 0 && args[0] instanceof String sql ? cachedFingerprint(sql)
+                        : "(batch)";
+
+                long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    Object result = StatementStats.invoke(delegate, method, args);
+                    failed = false;
+                    return result;
+                } finally {
+                    record(statementFingerprint, System.nanoTime() - start, failed, parameterTypes);
+                }
+            }
+
+            if (fingerprint != null && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                rememberType(index, name, args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes = new String[0];
+            }
+            return StatementStats.invoke(delegate, method, args);
+        }
+
+        private void rememberType(int index, String setter, Object value) {
+            if (index < 1 || index > 1000) {
+                return;
+            }
+            if (index > parameterTypes.length) {
+                parameterTypes = Arrays.copyOf(parameterTypes, index);
+            }
+
+            String type;
+            if ("setNull".equals(setter) || value == null) {
+                type = "null";
+            } else if ("setObject".equals(setter)) {
+                type = value.getClass().getSimpleName();
+            } else {
+                type = setter.substring(3);
+            }
+            parameterTypes[index - 1] = type;
+        }
+    }
+}
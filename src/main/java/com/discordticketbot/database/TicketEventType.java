@@ -0,0 +1,24 @@
+package com.discordticketbot.database;
+
+/**
+ * Kinds of rows in ticket_events, stored as a SMALLINT code
+ */
+public enum TicketEventType {
+    CLOSE_REQUESTED(1),
+    CLOSE_DENIED(2);
+
+    public final short code;
+
+    TicketEventType(int code) {
+        this.code = (short) code;
+    }
+
+    public static TicketEventType fromCode(short code) {
+        for (TicketEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ticket event type: " + code);
+    }
+}
@@ -6,258 +6,238 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ticket logs and events in PostgreSQL. Statistics and history reads may be served by the read
+ * replica ({@link DatabaseManager#getReadConnection()}); lifecycle writes and the reads that
+ * follow them go to the primary.
+ */
+public class TicketLogDAO implements TicketLogStore {
+    static final String LOG_TICKET_CREATED_QUERY = """
+        INSERT INTO ticket_logs (guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number, status, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, 'open', CURRENT_TIMESTAMP)
+        """;
+
+    static final String LOG_TICKET_CLOSED_WITH_REASON_QUERY = """
+        UPDATE ticket_logs 
+        SET status = 'closed', closed_at = CURRENT_TIMESTAMP, closed_by = ?
+        WHERE channel_id = ? AND status = 'open'
+        """;
+
+    static final String LOG_TICKET_REOPENED_QUERY = """
+        UPDATE ticket_logs 
+        SET status = 'reopened', closed_at = NULL, closed_by = ?
+        WHERE channel_id = ?
+        """;
+
+    static final String LOG_TICKET_DELETED_QUERY = """
+        UPDATE ticket_logs 
+        SET status = 'deleted', closed_at = CURRENT_TIMESTAMP, closed_by = ?
+        WHERE channel_id = ?
+        """;
+
+    static final String LOG_TICKET_EVENT_QUERY = """
+        INSERT INTO ticket_events (guild_id, channel_id, actor_id, event_type, detail)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    static final String LOG_TICKET_AUTO_CLOSED_QUERY = """
+        UPDATE ticket_logs 
+        SET status = 'auto_closed', closed_at = CURRENT_TIMESTAMP, closed_by = ?
+        WHERE channel_id = ? AND status = 'open'
+        """;
+
+    static final String GET_TICKET_STATS_QUERY = """
+        SELECT status, SUM(ticket_count) AS count
+        FROM ticket_stats 
+        WHERE guild_id = ?
+        GROUP BY status
+        """;
+
+    static final String GET_TICKET_STATS_BY_TYPE_QUERY = """
+        SELECT ticket_type, SUM(ticket_count) AS count
+        FROM ticket_stats 
+        WHERE guild_id = ?
+        GROUP BY ticket_type
+        HAVING SUM(ticket_count) > 0
+        """;
+
+    static final String GET_RECENT_TICKET_ACTIVITY_QUERY = """
+        SELECT id, guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number,
+               created_at, closed_at, closed_by, status
+        FROM ticket_logs 
+        WHERE guild_id = ?
+        ORDER BY created_at DESC 
+        LIMIT ?
+        """;
+
+    static final String GET_TICKETS_BY_USER_QUERY = """
+        SELECT id, guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number,
+               created_at, closed_at, closed_by, status
+        FROM ticket_logs 
+        WHERE guild_id = ? AND owner_id = ?
+        ORDER BY created_at DESC
+        """;
+
+    private static final String HISTORY_QUERY = """
+        SELECT id, guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number,
+               created_at, closed_at, closed_by, status
+        FROM ticket_logs
+        WHERE guild_id = ?%s%s
+        ORDER BY created_at %s, id %s%s
+        """;
+
+    // Rows per round trip when streaming history through a server-side cursor
+    private static final int HISTORY_FETCH_SIZE = 200;
+
+    static final String GET_TICKET_EVENTS_QUERY = """
+        SELECT id, guild_id, channel_id, actor_id, event_type, created_at, detail
+        FROM ticket_events
+        WHERE channel_id = ?
+        ORDER BY created_at
+        """;
+
+    static final String GET_HIGHEST_TICKET_NUMBER_QUERY = """
+        SELECT COALESCE(MAX(ticket_number), 0) as highest_number
+        FROM ticket_logs 
+        WHERE guild_id = ?
+        """;
+
+    /**
+     * History listing of a guild, optionally filtered to one owner and to the rows on one side
+     * of a (created_at, id) cursor, in newest-first order for {@code OLDER} and oldest-first for
+     * {@code NEWER}. Parameters in order: guild_id, owner_id, cursor created_at and id, limit,
+     * each only when used.
+     */
+    static String historyQuery(boolean byUser, boolean withCursor, PageDirection direction, boolean limited) {
+        boolean older = direction == PageDirection.OLDER;
+        String order = older ? "DESC" : "ASC";
+        return String.format(HISTORY_QUERY,
+                byUser ? " AND owner_id = ?" : "",
+                withCursor ? (older ? " AND (created_at, id) < (?, ?)" : " AND (created_at, id) > (?, ?)") : "",
+                order, order,
+                limited ? "\nLIMIT ?" : "");
+    }
 
-public class TicketLogDAO {
     private final DatabaseManager dbManager;
+    private final TicketLogWriter logWriter;
 
     public TicketLogDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.logWriter = TicketLogWriter.getInstance();
     }
 
     /**
-     * Data class to hold ticket log information
-     */
-    public static class TicketLog {
-        public int id;
-        public String guildId;
-        public String channelId;
-        public String channelName;
-        public String ownerId;
-        public String ticketType;
-        public int ticketNumber;
-        public Timestamp createdAt;
-        public Timestamp closedAt;
-        public String closedBy;
-        public String status;
-
-        public TicketLog() {}
-    }
-
-    /**
-     * Log when a ticket is created
+     * Log when a ticket is created (queued on the async log writer)
      */
+    @Override
     public void logTicketCreated(String guildId, String channelId, String channelName, String ownerId, String ticketType, int ticketNumber) {
-        String query = """
-            INSERT INTO ticket_logs (guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number, status, created_at)
-            VALUES (?, ?, ?, ?, ?, ?, 'open', CURRENT_TIMESTAMP)
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, guildId);
-            stmt.setString(2, channelId);
+        logWriter.submit(LOG_TICKET_CREATED_QUERY, stmt -> {
+            Snowflakes.bind(stmt, 1, guildId);
+            Snowflakes.bind(stmt, 2, channelId);
             stmt.setString(3, channelName);
-            stmt.setString(4, ownerId);
+            Snowflakes.bind(stmt, 4, ownerId);
             stmt.setString(5, ticketType);
             stmt.setInt(6, ticketNumber);
-
-            stmt.executeUpdate();
-            System.out.println("✅ Logged ticket creation: " + channelName + " (#" + ticketNumber + ")");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log ticket creation: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, "✅ Logged ticket creation: " + channelName + " (#" + ticketNumber + ")", "Failed to log ticket creation");
     }
 
     /**
-     * Log when a ticket is closed with a reason
+     * Log when a ticket is closed with a reason (queued on the async log writer)
      */
+    @Override
     public void logTicketClosedWithReason(String channelId, String closedBy, String reason) {
-        String query = """
-            UPDATE ticket_logs 
-            SET status = 'closed', closed_at = CURRENT_TIMESTAMP, closed_by = ?
-            WHERE channel_id = ? AND status = 'open'
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
+        logWriter.submit(LOG_TICKET_CLOSED_WITH_REASON_QUERY, stmt -> {
             stmt.setString(1, closedBy + " (Reason: " + reason + ")");
-            stmt.setString(2, channelId);
-
-            int updated = stmt.executeUpdate();
-            if (updated > 0) {
-                System.out.println("✅ Logged ticket closure for channel: " + channelId);
-            }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log ticket closure: " + e.getMessage());
-            e.printStackTrace();
-        }
+            Snowflakes.bind(stmt, 2, channelId);
+        }, "✅ Logged ticket closure for channel: " + channelId, "Failed to log ticket closure");
     }
 
     /**
-     * Log when a ticket is reopened
+     * Log when a ticket is reopened (queued on the async log writer)
      */
+    @Override
     public void logTicketReopened(String channelId, String reopenedBy) {
-        String query = """
-            UPDATE ticket_logs 
-            SET status = 'reopened', closed_at = NULL, closed_by = ?
-            WHERE channel_id = ?
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
+        logWriter.submit(LOG_TICKET_REOPENED_QUERY, stmt -> {
             stmt.setString(1, "Reopened by: " + reopenedBy);
-            stmt.setString(2, channelId);
-
-            int updated = stmt.executeUpdate();
-            if (updated > 0) {
-                System.out.println("✅ Logged ticket reopen for channel: " + channelId);
-            }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log ticket reopen: " + e.getMessage());
-            e.printStackTrace();
-        }
+            Snowflakes.bind(stmt, 2, channelId);
+        }, "✅ Logged ticket reopen for channel: " + channelId, "Failed to log ticket reopen");
     }
 
     /**
-     * Log when a ticket is deleted
+     * Log when a ticket is deleted (queued on the async log writer)
      */
+    @Override
     public void logTicketDeleted(String channelId, String deletedBy) {
-        String query = """
-            UPDATE ticket_logs 
-            SET status = 'deleted', closed_at = CURRENT_TIMESTAMP, closed_by = ?
-            WHERE channel_id = ?
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
+        logWriter.submit(LOG_TICKET_DELETED_QUERY, stmt -> {
             stmt.setString(1, "Deleted by: " + deletedBy);
-            stmt.setString(2, channelId);
-
-            int updated = stmt.executeUpdate();
-            if (updated > 0) {
-                System.out.println("✅ Logged ticket deletion for channel: " + channelId);
-            }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log ticket deletion: " + e.getMessage());
-            e.printStackTrace();
-        }
+            Snowflakes.bind(stmt, 2, channelId);
+        }, "✅ Logged ticket deletion for channel: " + channelId, "Failed to log ticket deletion");
     }
 
     /**
-     * Log close request
+     * Log close request as a ticket event (queued on the async log writer)
      */
-    public void logCloseRequest(String channelId, String requestedBy, String reason, Integer timeoutHours) {
-        String query = """
-            INSERT INTO ticket_logs (guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number, status, created_at, closed_by)
-            SELECT guild_id, channel_id, channel_name || ' - Close Request', owner_id, 'close_request', 0, 'close_requested', CURRENT_TIMESTAMP, ?
-            FROM ticket_logs 
-            WHERE channel_id = ? AND status != 'close_requested'
-            LIMIT 1
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            String logEntry = "Close requested by: " + requestedBy + " | Reason: " + reason;
-            if (timeoutHours != null) {
-                logEntry += " | Timeout: " + timeoutHours + "h";
-            }
-
-            stmt.setString(1, logEntry);
-            stmt.setString(2, channelId);
-
-            stmt.executeUpdate();
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log close request: " + e.getMessage());
-            e.printStackTrace();
-        }
+    @Override
+    public void logCloseRequest(String guildId, String channelId, String requestedBy, String reason, Integer timeoutHours) {
+        logTicketEvent(guildId, channelId, requestedBy, TicketEventType.CLOSE_REQUESTED,
+                TicketLogStore.closeRequestDetail(reason, timeoutHours), "Failed to log close request");
     }
 
     /**
-     * Log when close request is denied
+     * Log when close request is denied as a ticket event (queued on the async log writer)
      */
-    public void logCloseRequestDenied(String channelId, String deniedBy) {
-        String query = """
-            INSERT INTO ticket_logs (guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number, status, created_at, closed_by)
-            SELECT guild_id, channel_id, channel_name || ' - Close Denied', owner_id, 'close_denied', 0, 'close_denied', CURRENT_TIMESTAMP, ?
-            FROM ticket_logs 
-            WHERE channel_id = ? AND status = 'open'
-            LIMIT 1
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, "Close request denied by: " + deniedBy);
-            stmt.setString(2, channelId);
-
-            stmt.executeUpdate();
+    @Override
+    public void logCloseRequestDenied(String guildId, String channelId, String deniedBy) {
+        logTicketEvent(guildId, channelId, deniedBy, TicketEventType.CLOSE_DENIED, null, "Failed to log close request denial");
+    }
 
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log close request denial: " + e.getMessage());
-            e.printStackTrace();
-        }
+    private void logTicketEvent(String guildId, String channelId, String actorId, TicketEventType type, String detail, String failureMessage) {
+        logWriter.submit(LOG_TICKET_EVENT_QUERY, stmt -> {
+            Snowflakes.bind(stmt, 1, guildId);
+            Snowflakes.bind(stmt, 2, channelId);
+            Snowflakes.bind(stmt, 3, actorId);
+            stmt.setShort(4, type.code);
+            stmt.setString(5, detail);
+        }, null, failureMessage);
     }
 
     /**
-     * Log when ticket is auto-closed
+     * Log when ticket is auto-closed (queued on the async log writer)
      */
+    @Override
     public void logTicketAutoClosed(String channelId, int timeoutHours) {
-        String query = """
-            UPDATE ticket_logs 
-            SET status = 'auto_closed', closed_at = CURRENT_TIMESTAMP, closed_by = ?
-            WHERE channel_id = ? AND status = 'open'
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
+        logWriter.submit(LOG_TICKET_AUTO_CLOSED_QUERY, stmt -> {
             stmt.setString(1, "Auto-closed after " + timeoutHours + " hours timeout");
-            stmt.setString(2, channelId);
-
-            int updated = stmt.executeUpdate();
-            if (updated > 0) {
-                System.out.println("✅ Logged ticket auto-closure for channel: " + channelId);
-            }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to log ticket auto-closure: " + e.getMessage());
-            e.printStackTrace();
-        }
+            Snowflakes.bind(stmt, 2, channelId);
+        }, "✅ Logged ticket auto-closure for channel: " + channelId, "Failed to log ticket auto-closure");
     }
 
     /**
-     * Get ticket statistics for a guild
+     * Get ticket statistics for a guild (read from the ticket_stats rollup)
      */
+    @Override
     public Map<String, Integer> getTicketStats(String guildId) {
         Map<String, Integer> stats = new HashMap<>();
 
-        String query = """
-            SELECT 
-                COUNT(*) as total_tickets,
-                COUNT(CASE WHEN status = 'open' THEN 1 END) as open_tickets,
-                COUNT(CASE WHEN status = 'closed' THEN 1 END) as closed_tickets,
-                COUNT(CASE WHEN status = 'deleted' THEN 1 END) as deleted_tickets,
-                COUNT(CASE WHEN status = 'auto_closed' THEN 1 END) as auto_closed_tickets,
-                COUNT(CASE WHEN status = 'reopened' THEN 1 END) as reopened_tickets
-            FROM ticket_logs 
-            WHERE guild_id = ? AND ticket_type != 'close_request' AND ticket_type != 'close_denied'
-            """;
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKET_STATS_QUERY)) {
 
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, guildId);
+            Snowflakes.bind(stmt, 1, guildId);
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                stats.put("total", rs.getInt("total_tickets"));
-                stats.put("open", rs.getInt("open_tickets"));
-                stats.put("closed", rs.getInt("closed_tickets"));
-                stats.put("deleted", rs.getInt("deleted_tickets"));
-                stats.put("auto_closed", rs.getInt("auto_closed_tickets"));
-                stats.put("reopened", rs.getInt("reopened_tickets"));
+            int total = 0;
+            for (String status : new String[]{"open", "closed", "deleted", "auto_closed", "reopened"}) {
+                stats.put(status, 0);
+            }
+
+            while (rs.next()) {
+                int count = rs.getInt("count");
+                total += count;
+                stats.merge(rs.getString("status"), count, Integer::sum);
             }
+            stats.put("total", total);
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to get ticket statistics: " + e.getMessage());
@@ -268,22 +248,16 @@ public class TicketLogDAO {
     }
 
     /**
-     * Get ticket statistics by type for a guild
+     * Get ticket statistics by type for a guild (read from the ticket_stats rollup)
      */
+    @Override
     public Map<String, Integer> getTicketStatsByType(String guildId) {
         Map<String, Integer> stats = new HashMap<>();
 
-        String query = """
-            SELECT ticket_type, COUNT(*) as count
-            FROM ticket_logs 
-            WHERE guild_id = ? AND ticket_type != 'close_request' AND ticket_type != 'close_denied'
-            GROUP BY ticket_type
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKET_STATS_BY_TYPE_QUERY)) {
 
-            stmt.setString(1, guildId);
+            Snowflakes.bind(stmt, 1, guildId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
@@ -301,39 +275,19 @@ public class TicketLogDAO {
     /**
      * Get recent ticket activity for a guild
      */
+    @Override
     public List<TicketLog> getRecentTicketActivity(String guildId, int limit) {
         List<TicketLog> logs = new ArrayList<>();
 
-        String query = """
-            SELECT id, guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number,
-                   created_at, closed_at, closed_by, status
-            FROM ticket_logs 
-            WHERE guild_id = ?
-            ORDER BY created_at DESC 
-            LIMIT ?
-            """;
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_RECENT_TICKET_ACTIVITY_QUERY)) {
 
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, guildId);
+            Snowflakes.bind(stmt, 1, guildId);
             stmt.setInt(2, limit);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                TicketLog log = new TicketLog();
-                log.id = rs.getInt("id");
-                log.guildId = rs.getString("guild_id");
-                log.channelId = rs.getString("channel_id");
-                log.channelName = rs.getString("channel_name");
-                log.ownerId = rs.getString("owner_id");
-                log.ticketType = rs.getString("ticket_type");
-                log.ticketNumber = rs.getInt("ticket_number");
-                log.createdAt = rs.getTimestamp("created_at");
-                log.closedAt = rs.getTimestamp("closed_at");
-                log.closedBy = rs.getString("closed_by");
-                log.status = rs.getString("status");
-                logs.add(log);
+                logs.add(readTicketLog(rs));
             }
 
         } catch (SQLException e) {
@@ -347,38 +301,19 @@ public class TicketLogDAO {
     /**
      * Get tickets by user for a guild
      */
+    @Override
     public List<TicketLog> getTicketsByUser(String guildId, String userId) {
         List<TicketLog> logs = new ArrayList<>();
 
-        String query = """
-            SELECT id, guild_id, channel_id, channel_name, owner_id, ticket_type, ticket_number,
-                   created_at, closed_at, closed_by, status
-            FROM ticket_logs 
-            WHERE guild_id = ? AND owner_id = ? AND ticket_type != 'close_request' AND ticket_type != 'close_denied'
-            ORDER BY created_at DESC
-            """;
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKETS_BY_USER_QUERY)) {
 
-            stmt.setString(1, guildId);
-            stmt.setString(2, userId);
+            Snowflakes.bind(stmt, 1, guildId);
+            Snowflakes.bind(stmt, 2, userId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                TicketLog log = new TicketLog();
-                log.id = rs.getInt("id");
-                log.guildId = rs.getString("guild_id");
-                log.channelId = rs.getString("channel_id");
-                log.channelName = rs.getString("channel_name");
-                log.ownerId = rs.getString("owner_id");
-                log.ticketType = rs.getString("ticket_type");
-                log.ticketNumber = rs.getInt("ticket_number");
-                log.createdAt = rs.getTimestamp("created_at");
-                log.closedAt = rs.getTimestamp("closed_at");
-                log.closedBy = rs.getString("closed_by");
-                log.status = rs.getString("status");
-                logs.add(log);
+                logs.add(readTicketLog(rs));
             }
 
         } catch (SQLException e) {
@@ -390,44 +325,144 @@ public class TicketLogDAO {
     }
 
     /**
-     * Clean up old ticket logs (optional maintenance method)
+     * Read one page of ticket history with a keyset query (fetches one extra row to tell whether more follow)
      */
-    public void cleanupOldTicketLogs(int daysOld) {
-        String query = """
-            DELETE FROM ticket_logs 
-            WHERE status IN ('deleted', 'closed') AND closed_at < CURRENT_TIMESTAMP - (? * INTERVAL '1 day')
-            """;
+    @Override
+    public TicketLogPage getTicketHistoryPage(String guildId, String userId, HistoryCursor cursor, PageDirection direction, int limit) {
+        if (cursor == null) {
+            direction = PageDirection.OLDER;
+        }
+        List<TicketLog> logs = new ArrayList<>();
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(historyQuery(userId != null, cursor != null, direction, true))) {
+
+            int index = bindHistory(stmt, guildId, userId, cursor);
+            stmt.setInt(index, limit + 1);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                logs.add(readTicketLog(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to get ticket history page: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return TicketLogPage.fromRows(logs, cursor, direction, limit);
+    }
+
+    /**
+     * Stream ticket history through a server-side cursor. pgjdbc only honours the fetch size
+     * with autocommit off; otherwise it reads the whole result into memory first.
+     */
+    @Override
+    public int streamTicketHistory(String guildId, String userId, Consumer<TicketLog> consumer) {
+        int delivered = 0;
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(historyQuery(userId != null, false, PageDirection.OLDER, false))) {
+                stmt.setFetchSize(HISTORY_FETCH_SIZE);
+                bindHistory(stmt, guildId, userId, null);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(readTicketLog(rs));
+                        delivered++;
+                    }
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to stream ticket history: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return delivered;
+    }
+
+    /**
+     * Bind the parameters of {@link #historyQuery}, returning the index of the next one
+     */
+    private static int bindHistory(PreparedStatement stmt, String guildId, String userId, HistoryCursor cursor) throws SQLException {
+        int index = 1;
+        Snowflakes.bind(stmt, index++, guildId);
+        if (userId != null) {
+            Snowflakes.bind(stmt, index++, userId);
+        }
+        if (cursor != null) {
+            stmt.setTimestamp(index++, cursor.createdAt);
+            stmt.setLong(index++, cursor.id);
+        }
+        return index;
+    }
+
+    /**
+     * Map the current row of a ticket_logs query
+     */
+    static TicketLog readTicketLog(ResultSet rs) throws SQLException {
+        TicketLog log = new TicketLog();
+        log.id = rs.getInt("id");
+        log.guildId = rs.getString("guild_id");
+        log.channelId = rs.getString("channel_id");
+        log.channelName = rs.getString("channel_name");
+        log.ownerId = rs.getString("owner_id");
+        log.ticketType = rs.getString("ticket_type");
+        log.ticketNumber = rs.getInt("ticket_number");
+        log.createdAt = rs.getTimestamp("created_at");
+        log.closedAt = rs.getTimestamp("closed_at");
+        log.closedBy = rs.getString("closed_by");
+        log.status = rs.getString("status");
+        return log;
+    }
+
+    /**
+     * Get the event history of a ticket channel, oldest first
+     */
+    @Override
+    public List<TicketEvent> getTicketEvents(String channelId) {
+        List<TicketEvent> events = new ArrayList<>();
 
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(GET_TICKET_EVENTS_QUERY)) {
 
-            stmt.setInt(1, daysOld);
-            int deleted = stmt.executeUpdate();
+            Snowflakes.bind(stmt, 1, channelId);
+            ResultSet rs = stmt.executeQuery();
 
-            if (deleted > 0) {
-                System.out.println("🧹 Cleaned up " + deleted + " old ticket logs");
+            while (rs.next()) {
+                TicketEvent event = new TicketEvent();
+                event.id = rs.getLong("id");
+                event.guildId = rs.getString("guild_id");
+                event.channelId = rs.getString("channel_id");
+                event.actorId = Snowflakes.displayUser(rs.getString("actor_id"));
+                event.type = TicketEventType.fromCode(rs.getShort("event_type"));
+                event.createdAt = rs.getTimestamp("created_at");
+                event.detail = rs.getString("detail");
+                events.add(event);
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to cleanup old ticket logs: " + e.getMessage());
+            System.err.println("❌ Failed to get ticket events: " + e.getMessage());
             e.printStackTrace();
         }
+
+        return events;
     }
 
     /**
      * Get the highest ticket number for counter initialization
      */
+    @Override
     public int getHighestTicketNumber(String guildId) {
-        String query = """
-            SELECT COALESCE(MAX(ticket_number), 0) as highest_number
-            FROM ticket_logs 
-            WHERE guild_id = ? AND ticket_type != 'close_request' AND ticket_type != 'close_denied'
-            """;
-
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(GET_HIGHEST_TICKET_NUMBER_QUERY)) {
 
-            stmt.setString(1, guildId);
+            Snowflakes.bind(stmt, 1, guildId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
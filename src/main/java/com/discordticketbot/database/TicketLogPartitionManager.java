@@ -0,0 +1,339 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional monthly range partitioning of ticket_logs on created_at.
+ *
+ * Enabled with TICKET_LOGS_PARTITIONING=true. On startup an unpartitioned ticket_logs table is
+ * converted in place (one transaction, the table is locked while rows are copied), and partitions
+ * are kept TICKET_LOGS_PARTITIONS_AHEAD months ahead of the current month. A DEFAULT partition
+ * catches anything outside the managed ranges.
+ *
+ * Retention drops whole monthly partitions once every row in them has expired, instead of
+ * deleting rows one by one. Partitions that still hold open tickets are kept and only their
+ * expired rows are deleted. Queries against ticket_logs are unchanged.
+ */
+public class TicketLogPartitionManager {
+    private static final String PARTITION_PREFIX = "ticket_logs_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Arbitrary application-wide key for pg_advisory_lock, distinct from the migration lock
+    private static final long PARTITION_LOCK_KEY = 0x5469636B65745050L;
+
+    private final DatabaseManager dbManager;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    public TicketLogPartitionManager(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        this.enabled = EnvUtil.getBoolean("TICKET_LOGS_PARTITIONING", false);
+        this.monthsAhead = Math.max(1, EnvUtil.getInt("TICKET_LOGS_PARTITIONS_AHEAD", 3));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Convert ticket_logs to a partitioned table if needed and make sure upcoming partitions exist
+     */
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            lock(conn);
+            try {
+                if (!isPartitioned(conn)) {
+                    convertToPartitioned(conn);
+                }
+                createFuturePartitions(conn);
+            } finally {
+                unlock(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to initialize ticket_logs partitioning: " + e.getMessage());
+            e.printStackTrace();
+            // Don't throw here - the bot keeps working on the existing table
+        }
+    }
+
+    /**
+     * Create partitions for the current month and the configured number of months ahead (maintenance job)
+     */
+    public void createFuturePartitions() {
+        if (!enabled) {
+            return;
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            if (isPartitioned(conn)) {
+                createFuturePartitions(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to create ticket_logs partitions: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rows that row-based retention would keep, as a condition over ticket_logs aliased as t: the
+     * exact negation of "status IN ('deleted', 'closed') AND days > 0 AND closed_at older than days",
+     * so dropping a partition removes exactly the rows a row delete would. {@code daysExpression}
+     * is the SQL for the retention period in days.
+     */
+    static String liveCondition(String daysExpression) {
+        return "t.status IS NULL OR t.status NOT IN ('deleted', 'closed') OR (" + daysExpression + ") <= 0"
+                + " OR t.closed_at IS NULL OR t.closed_at >= CURRENT_TIMESTAMP - ((" + daysExpression + ") * INTERVAL '1 day')";
+    }
+
+    /**
+     * Detach and drop every monthly partition that ended on or before {@code cutoffDate} and has no row
+     * matching {@code liveCondition} (an SQL condition over the partition aliased as t). Returns the number
+     * of rows dropped.
+     */
+    int dropPartitions(LocalDate cutoffDate, String liveCondition) {
+        int removed = 0;
+
+        try (Connection conn = dbManager.getConnection()) {
+            for (String partition : listPartitions(conn)) {
+                YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+                if (month.plusMonths(1).atDay(1).isAfter(cutoffDate)) {
+                    continue; // Partition still has rows inside the retention window
+                }
+                removed += dropIfExpired(conn, partition, liveCondition);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to drop expired ticket_logs partitions: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return removed;
+    }
+
+    private int dropIfExpired(Connection conn, String partition, String liveCondition) throws SQLException {
+        String checkQuery = """
+            SELECT COUNT(*) AS total, COUNT(*) FILTER (WHERE %s) AS live
+            FROM %s t
+            """.formatted(liveCondition, partition);
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+
+            // Hold off writers to this partition between the check and the detach
+            stmt.execute("LOCK TABLE " + partition + " IN EXCLUSIVE MODE");
+
+            int total;
+            int live;
+            try (ResultSet rs = stmt.executeQuery(checkQuery)) {
+                rs.next();
+                total = rs.getInt("total");
+                live = rs.getInt("live");
+            }
+
+            if (live > 0) {
+                conn.rollback();
+                System.out.println("ℹ️ Keeping partition " + partition + ": " + live + " row(s) still open or inside the retention window");
+                return 0;
+            }
+
+            stmt.execute("ALTER TABLE ticket_logs DETACH PARTITION " + partition);
+            stmt.execute("DROP TABLE " + partition);
+            conn.commit();
+
+            System.out.println("🧹 Dropped ticket_logs partition " + partition + " (" + total + " rows)");
+            return total;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void createFuturePartitions(Connection conn) throws SQLException {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(conn, current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(Connection conn, YearMonth month) throws SQLException {
+        String name = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+        String query = "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF ticket_logs FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+
+        // Inside a transaction a failed statement aborts everything after it, so the attempt gets a
+        // savepoint to roll back to
+        Savepoint savepoint = conn.getAutoCommit() ? null : conn.setSavepoint();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(query);
+            if (savepoint != null) {
+                conn.releaseSavepoint(savepoint);
+            }
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                conn.rollback(savepoint);
+            }
+            // Most likely rows for this month already landed in the default partition
+            System.err.println("⚠️ Could not create partition " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild ticket_logs as a partitioned table with the same columns, indexes and triggers, in one transaction
+     */
+    private void convertToPartitioned(Connection conn) throws SQLException {
+        System.out.println("🔄 Converting ticket_logs to a monthly partitioned table...");
+        long start = System.currentTimeMillis();
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("LOCK TABLE ticket_logs IN ACCESS EXCLUSIVE MODE");
+
+            List<String> indexDefinitions = readDefinitions(conn, """
+                SELECT pg_get_indexdef(i.indexrelid)
+                FROM pg_index i
+                WHERE i.indrelid = 'ticket_logs'::regclass AND NOT i.indisprimary
+                """);
+            List<String> triggerDefinitions = readDefinitions(conn, """
+                SELECT pg_get_triggerdef(t.oid)
+                FROM pg_trigger t
+                WHERE t.tgrelid = 'ticket_logs'::regclass AND NOT t.tgisinternal
+                """);
+
+            // Triggers are recreated on the new table after the copy; index names stay taken until the old table is dropped
+            for (String definition : triggerDefinitions) {
+                String triggerName = definition.split(" ")[2];
+                stmt.execute("DROP TRIGGER " + triggerName + " ON ticket_logs");
+            }
+
+            stmt.execute("ALTER TABLE ticket_logs RENAME TO ticket_logs_unpartitioned");
+            stmt.execute("CREATE TABLE ticket_logs (LIKE ticket_logs_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+
+            // Keep the id sequence alive when the old table is dropped
+            try (ResultSet rs = stmt.executeQuery("SELECT pg_get_serial_sequence('ticket_logs_unpartitioned', 'id')")) {
+                if (rs.next() && rs.getString(1) != null) {
+                    stmt.execute("ALTER SEQUENCE " + rs.getString(1) + " OWNED BY ticket_logs.id");
+                }
+            }
+
+            stmt.execute("UPDATE ticket_logs_unpartitioned SET created_at = COALESCE(closed_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL");
+            stmt.execute("ALTER TABLE ticket_logs ALTER COLUMN created_at SET NOT NULL");
+            stmt.execute("CREATE TABLE ticket_logs_default PARTITION OF ticket_logs DEFAULT");
+
+            // Partitions for every month that has history, so old rows can be dropped by month later
+            List<YearMonth> months = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT DISTINCT date_trunc('month', created_at)::date FROM ticket_logs_unpartitioned")) {
+                while (rs.next()) {
+                    months.add(YearMonth.from(rs.getDate(1).toLocalDate()));
+                }
+            }
+            for (YearMonth month : months) {
+                createPartition(conn, month);
+            }
+            createFuturePartitions(conn);
+
+            int copied = stmt.executeUpdate("INSERT INTO ticket_logs SELECT * FROM ticket_logs_unpartitioned");
+            stmt.execute("DROP TABLE ticket_logs_unpartitioned");
+
+            // The primary key of a partitioned table has to include the partition key
+            stmt.execute("ALTER TABLE ticket_logs ADD PRIMARY KEY (id, created_at)");
+
+            // Definitions were captured before the rename, so they already target ticket_logs. Triggers go
+            // in after the copy so row triggers (the stats rollup) don't count history twice.
+            for (String definition : indexDefinitions) {
+                if (definition.startsWith("CREATE UNIQUE")) {
+                    System.err.println("⚠️ Skipping unique index on partitioned ticket_logs: " + definition);
+                    continue;
+                }
+                stmt.execute(definition);
+            }
+            for (String definition : triggerDefinitions) {
+                stmt.execute(definition);
+            }
+
+            conn.commit();
+            System.out.println("✅ Converted ticket_logs to " + months.size() + " monthly partitions (" + copied
+                    + " rows) in " + (System.currentTimeMillis() - start) + "ms");
+
+        } catch (SQLException e) {
+            conn.rollback();
+            System.err.println("❌ ticket_logs partitioning conversion failed and was rolled back: " + e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private List<String> readDefinitions(Connection conn, String query) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                definitions.add(rs.getString(1));
+            }
+        }
+        return definitions;
+    }
+
+    private boolean isPartitioned(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT relkind FROM pg_class WHERE oid = to_regclass('ticket_logs')")) {
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && "p".equals(rs.getString("relkind"));
+        }
+    }
+
+    /**
+     * Monthly partitions managed by this class, oldest first
+     */
+    private List<String> listPartitions(Connection conn) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        String query = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('ticket_logs') AND c.relname ~ '^ticket_logs_p[0-9]{6}$'
+            ORDER BY c.relname
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                partitions.add(rs.getString("relname"));
+            }
+        }
+        return partitions;
+    }
+
+    private void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_lock(?)")) {
+            stmt.setLong(1, PARTITION_LOCK_KEY);
+            stmt.executeQuery();
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            stmt.setLong(1, PARTITION_LOCK_KEY);
+            stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Failed to release partition lock: " + e.getMessage());
+        }
+    }
+}
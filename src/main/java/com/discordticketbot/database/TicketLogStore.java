@@ -0,0 +1,245 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ticket history: one log row per ticket plus the append-only close request events
+ */
+public interface TicketLogStore {
+    /**
+     * Data class to hold ticket log information
+     */
+    class TicketLog {
+        public int id;
+        public String guildId;
+        public String channelId;
+        public String channelName;
+        public String ownerId;
+        public String ticketType;
+        public int ticketNumber;
+        public Timestamp createdAt;
+        public Timestamp closedAt;
+        public String closedBy;
+        public String status;
+
+        public TicketLog() {}
+    }
+
+    /**
+     * Data class for one row of a ticket's event history
+     */
+    class TicketEvent {
+        public long id;
+        public String guildId;
+        public String channelId;
+        public String actorId;
+        public TicketEventType type;
+        public Timestamp createdAt;
+        public String detail;
+
+        public TicketEvent() {}
+    }
+
+    /**
+     * Position in a ticket history listing: the (created_at, id) of a row. Histories are listed
+     * newest first, and the id breaks ties between tickets created in the same instant.
+     */
+    class HistoryCursor {
+        public final Timestamp createdAt;
+        public final long id;
+
+        public HistoryCursor(Timestamp createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public static HistoryCursor of(TicketLog log) {
+            return new HistoryCursor(log.createdAt, log.id);
+        }
+
+        /**
+         * Compact text form for component IDs: epoch microseconds and id in base 36.
+         * Microseconds because PostgreSQL timestamps have that precision.
+         */
+        public String encode() {
+            long micros = Math.floorDiv(createdAt.getTime(), 1000L) * 1_000_000L + createdAt.getNanos() / 1000;
+            return Long.toString(micros, 36) + "." + Long.toString(id, 36);
+        }
+
+        /**
+         * Parse the output of {@link #encode()}
+         *
+         * @throws IllegalArgumentException if the text is not a cursor
+         */
+        public static HistoryCursor decode(String text) {
+            int separator = text.indexOf('.');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid history cursor: " + text);
+            }
+
+            try {
+                long micros = Long.parseLong(text.substring(0, separator), 36);
+                long id = Long.parseLong(text.substring(separator + 1), 36);
+                Timestamp createdAt = new Timestamp(Math.floorDiv(micros, 1_000_000L) * 1000L);
+                createdAt.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+                return new HistoryCursor(createdAt, id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + text, e);
+            }
+        }
+
+        /**
+         * Whether {@code log} comes after this position in a newest-first listing
+         */
+        public boolean isAfter(TicketLog log) {
+            int compare = log.createdAt.compareTo(createdAt);
+            return compare < 0 || (compare == 0 && log.id < id);
+        }
+    }
+
+    /**
+     * Which page to read, relative to a cursor
+     */
+    enum PageDirection {
+        /** Rows after the cursor in the newest-first listing */
+        OLDER,
+        /** Rows before the cursor in the newest-first listing */
+        NEWER
+    }
+
+    /**
+     * One page of ticket history, newest first
+     */
+    class TicketLogPage {
+        public final List<TicketLog> logs;
+        public final boolean hasOlder;
+        public final boolean hasNewer;
+
+        public TicketLogPage(List<TicketLog> logs, boolean hasOlder, boolean hasNewer) {
+            this.logs = logs;
+            this.hasOlder = hasOlder;
+            this.hasNewer = hasNewer;
+        }
+
+        /**
+         * Build a page from up to {@code limit + 1} rows read in listing order for {@code direction}
+         * (oldest first for {@code NEWER}); the extra row only signals that more follow.
+         */
+        public static TicketLogPage fromRows(List<TicketLog> rows, HistoryCursor cursor, PageDirection direction, int limit) {
+            boolean more = rows.size() > limit;
+            List<TicketLog> logs = new ArrayList<>(more ? rows.subList(0, limit) : rows);
+
+            if (cursor != null && direction == PageDirection.NEWER) {
+                Collections.reverse(logs);
+                return new TicketLogPage(logs, true, more);
+            }
+            return new TicketLogPage(logs, more, cursor != null);
+        }
+
+        /**
+         * Cursor of the first (newest) row, or null for an empty page
+         */
+        public HistoryCursor first() {
+            return logs.isEmpty() ? null : HistoryCursor.of(logs.get(0));
+        }
+
+        /**
+         * Cursor of the last (oldest) row, or null for an empty page
+         */
+        public HistoryCursor last() {
+            return logs.isEmpty() ? null : HistoryCursor.of(logs.get(logs.size() - 1));
+        }
+    }
+
+    /**
+     * Detail text stored with a close request event
+     */
+    static String closeRequestDetail(String reason, Integer timeoutHours) {
+        return "Reason: " + reason + (timeoutHours != null ? " | Timeout: " + timeoutHours + "h" : "");
+    }
+
+    /**
+     * Log when a ticket is created
+     */
+    void logTicketCreated(String guildId, String channelId, String channelName, String ownerId, String ticketType, int ticketNumber);
+
+    /**
+     * Log when a ticket is closed with a reason
+     */
+    void logTicketClosedWithReason(String channelId, String closedBy, String reason);
+
+    /**
+     * Log when a ticket is reopened
+     */
+    void logTicketReopened(String channelId, String reopenedBy);
+
+    /**
+     * Log when a ticket is deleted
+     */
+    void logTicketDeleted(String channelId, String deletedBy);
+
+    /**
+     * Log close request as a ticket event
+     */
+    void logCloseRequest(String guildId, String channelId, String requestedBy, String reason, Integer timeoutHours);
+
+    /**
+     * Log when close request is denied as a ticket event
+     */
+    void logCloseRequestDenied(String guildId, String channelId, String deniedBy);
+
+    /**
+     * Log when ticket is auto-closed
+     */
+    void logTicketAutoClosed(String channelId, int timeoutHours);
+
+    /**
+     * Ticket counts per status for a guild, with every status present and a "total" entry
+     */
+    Map<String, Integer> getTicketStats(String guildId);
+
+    /**
+     * Ticket counts per ticket type for a guild
+     */
+    Map<String, Integer> getTicketStatsByType(String guildId);
+
+    /**
+     * Get recent ticket activity for a guild, newest first
+     */
+    List<TicketLog> getRecentTicketActivity(String guildId, int limit);
+
+    /**
+     * Get tickets by user for a guild, newest first
+     */
+    List<TicketLog> getTicketsByUser(String guildId, String userId);
+
+    /**
+     * Read one page of a guild's ticket history, newest first, optionally only the tickets of
+     * {@code userId}. Without a cursor this is the newest page; with one it is the {@code limit}
+     * rows on the {@code direction} side of it. Pages seek on (created_at, id) instead of
+     * skipping rows, so a page deep in a long history costs the same as the first one.
+     */
+    TicketLogPage getTicketHistoryPage(String guildId, String userId, HistoryCursor cursor, PageDirection direction, int limit);
+
+    /**
+     * Feed a guild's ticket history (optionally only the tickets of {@code userId}) to
+     * {@code consumer} one row at a time, newest first, without holding the whole result in
+     * memory. Returns the number of rows delivered.
+     */
+    int streamTicketHistory(String guildId, String userId, Consumer<TicketLog> consumer);
+
+    /**
+     * Get the event history of a ticket channel, oldest first
+     */
+    List<TicketEvent> getTicketEvents(String channelId);
+
+    /**
+     * Get the highest ticket number for counter initialization
+     */
+    int getHighestTicketNumber(String guildId);
+}
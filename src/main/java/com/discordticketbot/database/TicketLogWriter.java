@@ -0,0 +1,365 @@
+package com.discordticketbot.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous write-behind pipeline for ticket log writes.
+ *
+ * Callers enqueue statements and return immediately, so JDA event threads never wait on JDBC.
+ * A single writer thread drains the queue in FIFO order and groups consecutive writes that share
+ * the same SQL into one JDBC batch, committed in one transaction. Because there is exactly one
+ * writer and the queue is FIFO, writes for the same channel are always applied in the order
+ * they were submitted.
+ *
+ * Backpressure: when the queue is full, callers wait for space in short steps. Once the writer is
+ * shutting down or has died, a caller waits for it to exit and then drains whatever is left in
+ * FIFO order before its own write, so ordering holds during shutdown too. Writes are never
+ * dropped; every stall is counted in the metrics.
+ */
+public class TicketLogWriter {
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final long OFFER_TIMEOUT_MILLIS = 250;
+    private static final long POLL_TIMEOUT_MILLIS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 15_000;
+
+    private static TicketLogWriter instance;
+
+    /**
+     * Binds parameters for a queued statement
+     */
+    @FunctionalInterface
+    public interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private static class PendingWrite {
+        final String sql;
+        final StatementBinder binder;
+        final String successMessage;
+        final String failureMessage;
+
+        PendingWrite(String sql, StatementBinder binder, String successMessage, String failureMessage) {
+            this.sql = sql;
+            this.binder = binder;
+            this.successMessage = successMessage;
+            this.failureMessage = failureMessage;
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    private final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private final Object drainLock = new Object();
+    private volatile boolean accepting = true;
+
+    // Metrics
+    private final AtomicLong enqueuedWrites = new AtomicLong();
+    private final AtomicLong completedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong backpressureStalls = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong totalBatchNanos = new AtomicLong();
+    private volatile long lastBatchNanos;
+    private volatile long maxBatchNanos;
+    private volatile int maxQueueDepth;
+
+    private TicketLogWriter() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.writerThread = new Thread(this::runWriter, "ticket-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static synchronized TicketLogWriter getInstance() {
+        if (instance == null) {
+            instance = new TicketLogWriter();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a write. Returns as soon as the write is queued; after shutdown it drains the queue on the caller's thread.
+     */
+    public void submit(String sql, StatementBinder binder, String successMessage, String failureMessage) {
+        PendingWrite write = new PendingWrite(sql, binder, successMessage, failureMessage);
+        boolean interrupted = false;
+        boolean stalled = false;
+
+        try {
+            while (true) {
+                try {
+                    if (queue.offer(write, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    // Keep waiting, running the write here would put it ahead of queued writes
+                    interrupted = true;
+                    continue;
+                }
+
+                // Never wait on a writer that is stopping or gone, it would not make room
+                if (!accepting || !writerThread.isAlive()) {
+                    interrupted |= awaitWriter();
+                    synchronized (drainLock) {
+                        if (writerThread.isAlive()) {
+                            System.err.println("⚠️ Ticket log writer has not finished, writing out of order");
+                        } else {
+                            drainQueue();
+                        }
+                        writeIndividually(List.of(write));
+                    }
+                    return;
+                }
+                if (!stalled) {
+                    stalled = true;
+                    backpressureStalls.incrementAndGet();
+                    System.err.println("⚠️ Ticket log queue is full (" + queue.size() + " pending), waiting for the writer...");
+                }
+            }
+
+            enqueuedWrites.incrementAndGet();
+            int depth = queue.size();
+            if (depth > maxQueueDepth) {
+                maxQueueDepth = depth;
+            }
+
+            // Shutdown may have begun after the write was queued, and the writer may already have seen
+            // an empty queue and exited. Wait for it, then drain what it left behind in FIFO order;
+            // a writer that is still running will pick the write up itself.
+            if (!accepting || !writerThread.isAlive()) {
+                interrupted |= awaitWriter();
+                synchronized (drainLock) {
+                    if (!writerThread.isAlive()) {
+                        drainQueue();
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Wait for the writer thread to exit. Returns whether the wait was interrupted.
+     */
+    private boolean awaitWriter() {
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Write everything still queued, oldest first. Only called once the writer thread has exited.
+     */
+    private void drainQueue() {
+        List<PendingWrite> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stop accepting new writes and wait for everything already queued to reach the database
+     */
+    public void shutdown() {
+        accepting = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive()) {
+            System.err.println("⚠️ Ticket log writer did not finish within " + SHUTDOWN_TIMEOUT_MILLIS + "ms, " + queue.size() + " writes pending");
+        } else {
+            synchronized (drainLock) {
+                drainQueue();
+            }
+            System.out.println("Ticket log writer flushed. " + getMetricsSummary());
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                if (!accepting && queue.isEmpty()) {
+                    break;
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Ticket log writer error: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch in one transaction, grouping consecutive writes with the same SQL into JDBC batches
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        long startNanos = System.nanoTime();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            List<PendingWrite> succeeded = new ArrayList<>(batch.size());
+            List<Integer> updateCounts = new ArrayList<>(batch.size());
+
+            try {
+                int start = 0;
+                while (start < batch.size()) {
+                    int end = start + 1;
+                    while (end < batch.size() && batch.get(end).sql.equals(batch.get(start).sql)) {
+                        end++;
+                    }
+
+                    try (PreparedStatement stmt = conn.prepareStatement(batch.get(start).sql)) {
+                        for (int i = start; i < end; i++) {
+                            batch.get(i).binder.bind(stmt);
+                            stmt.addBatch();
+                        }
+                        int[] counts = stmt.executeBatch();
+                        for (int i = start; i < end; i++) {
+                            succeeded.add(batch.get(i));
+                            updateCounts.add(counts[i - start]);
+                        }
+                    }
+                    start = end;
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                System.err.println("⚠️ Ticket log batch of " + batch.size() + " failed, retrying individually: " + e.getMessage());
+                writeIndividually(batch);
+                return;
+            } finally {
+                recordBatch(System.nanoTime() - startNanos);
+            }
+
+            conn.setAutoCommit(true);
+            completedWrites.addAndGet(succeeded.size());
+            for (int i = 0; i < succeeded.size(); i++) {
+                int count = updateCounts.get(i);
+                if (succeeded.get(i).successMessage != null && (count > 0 || count == Statement.SUCCESS_NO_INFO)) {
+                    System.out.println(succeeded.get(i).successMessage);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("⚠️ Ticket log batch of " + batch.size() + " could not get a connection, retrying individually: " + e.getMessage());
+            writeIndividually(batch);
+        }
+    }
+
+    /**
+     * Fallback path: run each write on its own so one bad row doesn't discard the rest
+     */
+    private void writeIndividually(List<PendingWrite> writes) {
+        for (PendingWrite write : writes) {
+            try (Connection conn = dbManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(write.sql)) {
+
+                write.binder.bind(stmt);
+                int updated = stmt.executeUpdate();
+                completedWrites.incrementAndGet();
+
+                if (write.successMessage != null && updated > 0) {
+                    System.out.println(write.successMessage);
+                }
+
+            } catch (SQLException e) {
+                failedWrites.incrementAndGet();
+                System.err.println("❌ " + write.failureMessage + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void recordBatch(long nanos) {
+        batchCount.incrementAndGet();
+        totalBatchNanos.addAndGet(nanos);
+        lastBatchNanos = nanos;
+        if (nanos > maxBatchNanos) {
+            maxBatchNanos = nanos;
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getEnqueuedWrites() {
+        return enqueuedWrites.get();
+    }
+
+    public long getCompletedWrites() {
+        return completedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    public long getBackpressureStalls() {
+        return backpressureStalls.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public double getAverageBatchLatencyMillis() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : totalBatchNanos.get() / (batches * 1_000_000.0);
+    }
+
+    public double getLastBatchLatencyMillis() {
+        return lastBatchNanos / 1_000_000.0;
+    }
+
+    public double getMaxBatchLatencyMillis() {
+        return maxBatchNanos / 1_000_000.0;
+    }
+
+    /**
+     * One-line summary of the writer metrics
+     */
+    public String getMetricsSummary() {
+        return String.format("queue=%d (max %d/%d), enqueued=%d, written=%d, failed=%d, stalls=%d, batches=%d, batch latency avg=%.1fms last=%.1fms max=%.1fms",
+                getQueueDepth(), getMaxQueueDepth(), QUEUE_CAPACITY, getEnqueuedWrites(), getCompletedWrites(), getFailedWrites(),
+                getBackpressureStalls(), getBatchCount(), getAverageBatchLatencyMillis(), getLastBatchLatencyMillis(), getMaxBatchLatencyMillis());
+    }
+}
@@ -0,0 +1,84 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.config.GuildConfig;
+import com.discordticketbot.utils.EnvUtil;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free ticket number allocation backed by an atomic counter in the ticket store.
+ *
+ * Numbers are claimed with {@code UPDATE ... RETURNING}, so every bot instance sharing the
+ * database gets unique numbers. With TICKET_NUMBER_BLOCK_SIZE > 1 (hi/lo), each round-trip
+ * reserves a block of numbers that is then handed out from an {@link AtomicInteger} without
+ * touching the database. Unused numbers of a block are skipped after a restart, so the default
+ * block size of 1 keeps numbering gap-free.
+ */
+public class TicketNumberAllocator {
+    private static TicketNumberAllocator instance;
+
+    private final GuildConfigStore guildConfigStore;
+    private final int blockSize;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * A reserved range of ticket numbers: next..last (inclusive)
+     */
+    private static class Block {
+        final AtomicInteger next;
+        final int last;
+
+        Block(int next, int last) {
+            this.next = new AtomicInteger(next);
+            this.last = last;
+        }
+    }
+
+    private TicketNumberAllocator() {
+        this.guildConfigStore = TicketStores.get().guildConfigs();
+        this.blockSize = Math.max(1, EnvUtil.getInt("TICKET_NUMBER_BLOCK_SIZE", 1));
+    }
+
+    public static synchronized TicketNumberAllocator getInstance() {
+        if (instance == null) {
+            instance = new TicketNumberAllocator();
+        }
+        return instance;
+    }
+
+    /**
+     * Allocate the next ticket number for a guild. Returns -1 if the database could not be reached.
+     */
+    public int allocate(String guildId) {
+        Block block = blocks.get(guildId);
+        if (block != null) {
+            int number = block.next.getAndIncrement();
+            if (number <= block.last) {
+                return number;
+            }
+        }
+
+        // Block exhausted (or none yet): reserve a new one. Concurrent callers each reserve their own
+        // block, which is still unique; the one published last wins and the rest is skipped.
+        int last = guildConfigStore.reserveTicketNumbers(guildId, blockSize);
+        if (last < 0) {
+            return -1;
+        }
+
+        int first = last - blockSize + 1;
+        if (blockSize > 1) {
+            blocks.put(guildId, new Block(first + 1, last));
+        }
+        return first;
+    }
+
+    /**
+     * The highest ticket number reserved for a guild by any instance (the database counter), or -1
+     * if it could not be read. With blocks of numbers, some up to it may not be handed out yet.
+     */
+    public int getReservedUpTo(String guildId) {
+        GuildConfig stored = guildConfigStore.loadGuildConfig(guildId);
+        return stored != null ? stored.ticketCounter : -1;
+    }
+}
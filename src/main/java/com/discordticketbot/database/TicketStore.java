@@ -0,0 +1,61 @@
+package com.discordticketbot.database;
+
+/**
+ * A complete persistence backend. Handlers only talk to the three stores it hands out, so the
+ * bot runs unchanged on PostgreSQL, on the embedded H2 database or fully in memory.
+ *
+ * @see TicketStores
+ */
+public interface TicketStore {
+    /**
+     * Backend name as configured in TICKET_STORE
+     */
+    String name();
+
+    GuildConfigStore guildConfigs();
+
+    TicketLogStore ticketLogs();
+
+    CloseRequestStore closeRequests();
+
+    TranscriptStore transcripts();
+
+    /**
+     * Check that the backend is reachable and its schema is in place
+     */
+    boolean testConnection();
+
+    /**
+     * Short summary of the backend's connection pool (gauges and acquire times), or null if it has none
+     */
+    default String getPoolSummary() {
+        return null;
+    }
+
+    /**
+     * Start background maintenance that belongs to this backend (called once the bot is ready)
+     */
+    default void startMaintenance() {}
+
+    /**
+     * Deliver guild configuration changes made outside this process to {@code listener}.
+     * Backends that can't be shared between instances have nothing to deliver and ignore this.
+     */
+    default void watchGuildConfigs(GuildConfigStore.ChangeListener listener) {}
+
+    /**
+     * Remove expired ticket logs, ticket events and close requests under each guild's retention
+     * settings, on the calling thread
+     */
+    void runRetention();
+
+    /**
+     * Start a retention run in the background. Returns false if one is already in progress.
+     */
+    boolean runRetentionAsync();
+
+    /**
+     * Flush pending writes and release resources
+     */
+    void close();
+}
@@ -0,0 +1,34 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.EnvUtil;
+
+/**
+ * Selects the persistence backend from TICKET_STORE:
+ * <ul>
+ *   <li>{@code postgres} (default) - PostgreSQL at DATABASE_URL</li>
+ *   <li>{@code embedded} - H2 in PostgreSQL mode, in-process, stored at EMBEDDED_DB_URL</li>
+ *   <li>{@code memory} - concurrent in-memory maps, nothing is persisted</li>
+ * </ul>
+ */
+public class TicketStores {
+    private static TicketStore instance;
+
+    private TicketStores() {}
+
+    public static synchronized TicketStore get() {
+        if (instance == null) {
+            instance = create(EnvUtil.get("TICKET_STORE", "postgres").trim().toLowerCase());
+            System.out.println("✅ Using " + instance.name() + " ticket store");
+        }
+        return instance;
+    }
+
+    private static TicketStore create(String type) {
+        return switch (type) {
+            case "postgres" -> new PostgresTicketStore();
+            case "embedded" -> new EmbeddedTicketStore();
+            case "memory" -> new InMemoryTicketStore();
+            default -> throw new IllegalArgumentException("Unknown TICKET_STORE '" + type + "', expected postgres, embedded or memory");
+        };
+    }
+}
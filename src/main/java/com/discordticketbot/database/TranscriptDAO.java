@@ -0,0 +1,153 @@
+package com.discordticketbot.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transcript search in PostgreSQL, on the generated tsvector column and its GIN index (V9).
+ *
+ * Only the newest {@link #MAX_CANDIDATES} matches of a guild are ranked, so a query for a word
+ * that appears in most transcripts costs the same as a rare one, and ts_headline (which
+ * re-parses the text) runs only for the rows returned.
+ *
+ * The tsvector covers the first {@link #INDEXED_CONTENT_CHARS} characters of a transcript (V9),
+ * since a tsvector can't exceed 1MB, and snippets are cut from the same part: matches past it
+ * can't be found anyway, and a full transcript is megabytes of text to re-parse. Text with so many distinct words that even that is too large is stored cut
+ * down to {@link #FALLBACK_CONTENT_CHARS} characters rather than not at all.
+ */
+public class TranscriptDAO implements TranscriptStore {
+    static final int MAX_CANDIDATES = 1000;
+    // The part of content covered by search_vector (V9); snippets are cut from the same part
+    static final int INDEXED_CONTENT_CHARS = 200_000;
+    static final int FALLBACK_CONTENT_CHARS = 50_000;
+
+    // program_limit_exceeded, raised when the generated tsvector would be over 1MB
+    private static final String PROGRAM_LIMIT_EXCEEDED_STATE = "54000";
+
+    static final String SAVE_TRANSCRIPT_QUERY = """
+        INSERT INTO transcripts (unique_id, guild_id, channel_id, channel_name, message_count, content)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON CONFLICT (unique_id) DO NOTHING
+        """;
+
+    // Parameters: query text, guild, limit
+    static final String SEARCH_TRANSCRIPTS_QUERY = """
+        WITH query AS (
+            SELECT websearch_to_tsquery('english', ?) AS q
+        ),
+        candidates AS (
+            SELECT t.id
+            FROM transcripts t, query
+            WHERE t.guild_id = ? AND t.search_vector @@ query.q
+            ORDER BY t.created_at DESC
+            LIMIT %1$d
+        ),
+        ranked AS (
+            SELECT t.id, t.unique_id, t.guild_id, t.channel_id, t.channel_name, t.message_count, t.created_at,
+                   ts_rank_cd(t.search_vector, query.q) AS rank
+            FROM candidates c
+            JOIN transcripts t ON t.id = c.id, query
+            ORDER BY rank DESC, t.created_at DESC
+            LIMIT ?
+        )
+        SELECT r.unique_id, r.guild_id, r.channel_id, r.channel_name, r.message_count, r.created_at, r.rank,
+               ts_headline('english', left(t.content, %2$d), query.q,
+                           'MaxFragments=1, MinWords=8, MaxWords=30, StartSel=**, StopSel=**') AS snippet
+        FROM ranked r
+        JOIN transcripts t ON t.id = r.id, query
+        ORDER BY r.rank DESC, r.created_at DESC
+        """.formatted(MAX_CANDIDATES, INDEXED_CONTENT_CHARS);
+
+    private final DatabaseManager dbManager;
+
+    public TranscriptDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    @Override
+    public boolean saveTranscript(String uniqueId, String guildId, String channelId, String channelName, int messageCount, String content) {
+        // PostgreSQL text can't hold NUL characters
+        String text = content.replace("\u0000", "");
+
+        try {
+            insertTranscript(uniqueId, guildId, channelId, channelName, messageCount, text);
+            return true;
+
+        } catch (SQLException e) {
+            if (PROGRAM_LIMIT_EXCEEDED_STATE.equals(e.getSQLState()) && text.length() > FALLBACK_CONTENT_CHARS) {
+                System.err.println("⚠️ Transcript " + uniqueId + " is too large to index whole, storing its first "
+                        + FALLBACK_CONTENT_CHARS + " characters for search: " + e.getMessage());
+                try {
+                    insertTranscript(uniqueId, guildId, channelId, channelName, messageCount, truncate(text, FALLBACK_CONTENT_CHARS));
+                    return true;
+                } catch (SQLException retryError) {
+                    e = retryError;
+                }
+            }
+
+            System.err.println("❌ Failed to store transcript " + uniqueId + " for search: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void insertTranscript(String uniqueId, String guildId, String channelId, String channelName, int messageCount, String content)
+            throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SAVE_TRANSCRIPT_QUERY)) {
+
+            stmt.setString(1, uniqueId);
+            Snowflakes.bind(stmt, 2, guildId);
+            Snowflakes.bind(stmt, 3, channelId);
+            stmt.setString(4, channelName);
+            stmt.setInt(5, messageCount);
+            stmt.setString(6, content);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * The first {@code length} characters of {@code text}, without splitting a surrogate pair
+     */
+    private static String truncate(String text, int length) {
+        int end = Character.isHighSurrogate(text.charAt(length - 1)) ? length - 1 : length;
+        return text.substring(0, end);
+    }
+
+    @Override
+    public List<TranscriptSearchResult> searchTranscripts(String guildId, String query, int limit) {
+        List<TranscriptSearchResult> results = new ArrayList<>();
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEARCH_TRANSCRIPTS_QUERY)) {
+
+            stmt.setString(1, query);
+            Snowflakes.bind(stmt, 2, guildId);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                TranscriptSearchResult result = new TranscriptSearchResult();
+                result.uniqueId = rs.getString("unique_id");
+                result.guildId = rs.getString("guild_id");
+                result.channelId = rs.getString("channel_id");
+                result.channelName = rs.getString("channel_name");
+                result.messageCount = rs.getInt("message_count");
+                result.createdAt = rs.getTimestamp("created_at");
+                result.rank = rs.getDouble("rank");
+                result.snippet = rs.getString("snippet").replaceAll("\\s+", " ").trim();
+                results.add(result);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to search transcripts: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return results;
+    }
+}
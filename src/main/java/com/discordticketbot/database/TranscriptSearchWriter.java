@@ -0,0 +1,101 @@
+package com.discordticketbot.database;
+
+import com.discordticketbot.utils.TranscriptUtil;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Stores transcript text for search on a background thread, so generating a transcript never
+ * waits for the insert (or, on PostgreSQL, for building its tsvector).
+ *
+ * Transcripts are written one at a time in the order they were generated. When the queue is
+ * full the caller stores its transcript itself, so none are dropped. A transcript that can't
+ * be stored is reported to the caller's failure callback, since it won't show up in searches.
+ */
+public class TranscriptSearchWriter {
+    private static final int QUEUE_CAPACITY = 500;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 15;
+
+    private static TranscriptSearchWriter instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private TranscriptSearchWriter() {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread thread = new Thread(r, "transcript-search-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static synchronized TranscriptSearchWriter getInstance() {
+        if (instance == null) {
+            instance = new TranscriptSearchWriter();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a plain text transcript file for {@link TranscriptStore#saveTranscript}; it is read on the writer thread.
+     * {@code onFailure} runs on that thread if the transcript could not be stored.
+     */
+    public void submit(String uniqueId, String guildId, String channelId, String channelName, int messageCount, File textFile,
+                       Consumer<String> onFailure) {
+        Runnable save = () -> {
+            String failure;
+            try {
+                String content;
+                try (InputStream in = TranscriptUtil.openTranscript(textFile)) {
+                    content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                if (TicketStores.get().transcripts().saveTranscript(uniqueId, guildId, channelId, channelName, messageCount, content)) {
+                    System.out.println("🔎 Transcript " + uniqueId + " stored for search");
+                    return;
+                }
+                failure = "the database rejected it";
+            } catch (Exception e) {
+                System.err.println("❌ Failed to store transcript " + uniqueId + " for search: " + e.getMessage());
+                e.printStackTrace();
+                failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+
+            try {
+                onFailure.accept(failure);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Failed to report transcript " + uniqueId + " search failure: " + e.getMessage());
+            }
+        };
+
+        if (executor.isShutdown()) {
+            save.run();
+        } else {
+            executor.execute(save);
+        }
+    }
+
+    /**
+     * Finish the transcripts already queued, then stop
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Transcript search writer did not finish within " + SHUTDOWN_TIMEOUT_SECONDS + "s, "
+                        + executor.getQueue().size() + " transcripts not stored for search");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
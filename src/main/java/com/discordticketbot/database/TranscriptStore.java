@@ -0,0 +1,109 @@
+package com.discordticketbot.database;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Transcript text kept for search, one row per generated transcript. The files under
+ * transcripts/ stay the source for viewing; this only has to find them again.
+ */
+public interface TranscriptStore {
+    // Characters of context on each side of the first match in a snippet
+    int SNIPPET_CONTEXT = 80;
+
+    /**
+     * Data class for one search hit
+     */
+    class TranscriptSearchResult {
+        public String uniqueId;
+        public String guildId;
+        public String channelId;
+        public String channelName;
+        public int messageCount;
+        public Timestamp createdAt;
+        public double rank;
+        /** Text around the matches, with matched words wrapped in ** */
+        public String snippet;
+
+        public TranscriptSearchResult() {}
+    }
+
+    /**
+     * Store the text of a transcript under the unique ID of its HTML file. Returns false if the store failed.
+     */
+    boolean saveTranscript(String uniqueId, String guildId, String channelId, String channelName, int messageCount, String content);
+
+    /**
+     * Transcripts of a guild matching {@code query}, best match first. Words must all appear;
+     * "quoted phrases", "or" and -excluded words work where the backend supports them.
+     */
+    List<TranscriptSearchResult> searchTranscripts(String guildId, String query, int limit);
+
+    /**
+     * Lower-case words of a query, for backends without a text search engine
+     */
+    static List<String> searchTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty() && !terms.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Whether every term occurs in {@code content}
+     */
+    static boolean containsAll(String content, List<String> terms) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (!lower.contains(term)) {
+                return false;
+            }
+        }
+        return !terms.isEmpty();
+    }
+
+    /**
+     * Occurrences of all terms in {@code content}, as a crude relevance score
+     */
+    static double countMatches(String content, List<String> terms) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (String term : terms) {
+            for (int i = lower.indexOf(term); i >= 0; i = lower.indexOf(term, i + term.length())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * One line of context around the first match, with matched terms wrapped in **
+     */
+    static String snippet(String content, List<String> terms) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        int first = -1;
+        for (String term : terms) {
+            int index = lower.indexOf(term);
+            if (index >= 0 && (first < 0 || index < first)) {
+                first = index;
+            }
+        }
+        if (first < 0) {
+            return "";
+        }
+
+        int start = Math.max(0, first - SNIPPET_CONTEXT);
+        int end = Math.min(content.length(), first + SNIPPET_CONTEXT);
+        String excerpt = content.substring(start, end).replaceAll("\\s+", " ").trim();
+
+        for (String term : terms) {
+            excerpt = excerpt.replaceAll("(?iu)(" + java.util.regex.Pattern.quote(term) + ")", "**$1**");
+        }
+        return (start > 0 ? "..." : "") + excerpt + (end < content.length() ? "..." : "");
+    }
+}
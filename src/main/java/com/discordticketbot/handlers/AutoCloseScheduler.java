@@ -0,0 +1,163 @@
+package com.discordticketbot.handlers;
+
+import com.discordticketbot.config.GuildConfig;
+import com.discordticketbot.database.CloseRequestStore;
+import com.discordticketbot.database.TicketLogStore;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.utils.ErrorLogger;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared, restart-safe scheduler for close request auto-close timeouts.
+ *
+ * Deadlines live in the close_requests.auto_close_at column, so nothing is lost on restart.
+ * Only the earliest deadline is kept in memory: a single thread sleeps until then, claims every
+ * overdue request from the database, and asks the database for the next deadline. Thread and
+ * memory usage stay constant no matter how many close requests are pending.
+ */
+public class AutoCloseScheduler {
+    // Re-check the database at least this often, so deadlines written by other instances are picked up
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int CLAIM_BATCH_SIZE = 100;
+    // How long a request for a guild this instance can't see waits before it is claimed again
+    private static final long UNAVAILABLE_GUILD_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static AutoCloseScheduler instance;
+
+    private final ScheduledExecutorService executor;
+    private final CloseRequestStore closeRequestStore;
+    private final TicketLogStore ticketLogStore;
+    private JDA jda;
+    private ErrorLogger errorLogger;
+    private ScheduledFuture<?> nextWakeUp;
+    private long nextWakeUpAtNanos;
+
+    private AutoCloseScheduler() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auto-close-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.closeRequestStore = TicketStores.get().closeRequests();
+        this.ticketLogStore = TicketStores.get().ticketLogs();
+    }
+
+    public static synchronized AutoCloseScheduler getInstance() {
+        if (instance == null) {
+            instance = new AutoCloseScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Start processing deadlines. Requests that expired while the bot was offline are closed right away.
+     */
+    public synchronized void start(JDA jda, Map<String, GuildConfig> guildConfigs) {
+        this.jda = jda;
+        this.errorLogger = new ErrorLogger(guildConfigs);
+        wakeUpIn(0);
+        System.out.println("✅ Auto-close scheduler started");
+    }
+
+    /**
+     * Notify the scheduler that a deadline was persisted {@code delayMillis} from now.
+     * The deadline itself is read back from the database, this only makes sure we wake up in time.
+     */
+    public synchronized void schedule(long delayMillis) {
+        if (jda == null || executor.isShutdown()) {
+            return; // start() reloads every deadline from the database
+        }
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        if (nextWakeUp == null || deadlineNanos - nextWakeUpAtNanos < 0) {
+            wakeUpIn(delayMillis);
+        }
+    }
+
+    public synchronized void shutdown() {
+        executor.shutdownNow();
+        System.out.println("Auto-close scheduler stopped");
+    }
+
+    private synchronized void wakeUpIn(long delayMillis) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (nextWakeUp != null) {
+            nextWakeUp.cancel(false);
+        }
+
+        long boundedDelay = Math.min(Math.max(0, delayMillis), MAX_SLEEP_MILLIS);
+        nextWakeUpAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(boundedDelay);
+        nextWakeUp = executor.schedule(this::processDueRequests, boundedDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private void processDueRequests() {
+        try {
+            List<CloseRequestStore.DueAutoClose> due;
+            do {
+                due = closeRequestStore.claimDueAutoCloses(CLAIM_BATCH_SIZE);
+                for (CloseRequestStore.DueAutoClose request : due) {
+                    autoClose(request);
+                }
+            } while (due.size() == CLAIM_BATCH_SIZE);
+        } catch (Exception e) {
+            System.err.println("❌ Auto-close scheduler error: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        long millisUntilNext = closeRequestStore.getMillisUntilNextAutoClose();
+        wakeUpIn(millisUntilNext < 0 ? MAX_SLEEP_MILLIS : millisUntilNext);
+    }
+
+    private void autoClose(CloseRequestStore.DueAutoClose request) {
+        TextChannel channel = jda.getTextChannelById(request.channelId);
+        if (channel == null) {
+            if (request.guildId != null && !isGuildAvailable(request.guildId)) {
+                // Unavailable during an outage, or served by another shard or instance: let it be retried
+                closeRequestStore.releaseAutoCloseClaim(request.channelId, UNAVAILABLE_GUILD_RETRY_MILLIS);
+                return;
+            }
+
+            // Channel is gone already (or the request predates stored guild ids), only record the outcome
+            ticketLogStore.logTicketAutoClosed(request.channelId, request.timeoutHours);
+            return;
+        }
+
+        try {
+            EmbedBuilder timeoutEmbed = new EmbedBuilder()
+                    .setTitle("⏰ Auto-Close Timeout")
+                    .setDescription("This ticket has been automatically closed due to no response within " + request.timeoutHours + " hours.\n\n" +
+                            "**Auto-closed at:** <t:" + (System.currentTimeMillis() / 1000L) + ":F>")
+                    .setColor(Color.GRAY)
+                    .setFooter("Ticket auto-closed due to timeout");
+
+            channel.sendMessageEmbeds(timeoutEmbed.build()).queue();
+
+            // Log auto-closure
+            ticketLogStore.logTicketAutoClosed(request.channelId, request.timeoutHours);
+
+            // Close the ticket after a brief delay
+            channel.delete().queueAfter(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            errorLogger.logError(channel.getGuild(), "Auto Close Ticket",
+                    "Error during auto-closing ticket " + channel.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isGuildAvailable(String guildId) {
+        Guild guild = jda.getGuildById(guildId);
+        return guild != null && !jda.isUnavailable(guild.getIdLong());
+    }
+}
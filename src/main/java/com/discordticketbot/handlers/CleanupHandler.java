@@ -1,8 +1,7 @@
 package com.discordticketbot.handlers;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.CloseRequestDAO;
-import com.discordticketbot.database.TicketLogDAO;
+import com.discordticketbot.database.TicketStores;
 import com.discordticketbot.utils.PermissionUtil;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
@@ -10,13 +9,9 @@ import java.util.Map;
 
 public class CleanupHandler {
     private final Map<String, GuildConfig> guildConfigs;
-    private final TicketLogDAO ticketLogDAO;
-    private final CloseRequestDAO closeRequestDAO;
 
     public CleanupHandler(Map<String, GuildConfig> guildConfigs) {
         this.guildConfigs = guildConfigs;
-        this.ticketLogDAO = new TicketLogDAO();
-        this.closeRequestDAO = new CloseRequestDAO();
     }
 
     public void handle(SlashCommandInteractionEvent event) {
@@ -49,14 +44,11 @@ public class CleanupHandler {
 
         config.save();
 
-        if (logsDays != null) {
-            ticketLogDAO.cleanupOldTicketLogs(config.cleanupTicketLogsDays);
-        }
-        if (requestsDays != null) {
-            closeRequestDAO.cleanupOldCloseRequests(config.cleanupCloseRequestsDays);
-        }
+        // Apply the new policy right away instead of waiting for the daily run
+        boolean started = (logsDays != null || requestsDays != null) && TicketStores.get().runRetentionAsync();
 
-        event.reply("✅ Cleanup policies updated. Logs: " + config.cleanupTicketLogsDays + " days, Requests: " + config.cleanupCloseRequestsDays + " days.").setEphemeral(true).queue();
+        event.reply("✅ Cleanup policies updated. Logs: " + config.cleanupTicketLogsDays + " days, Requests: " + config.cleanupCloseRequestsDays + " days."
+                + (started ? " Cleanup is running in the background." : "")).setEphemeral(true).queue();
     }
 }
 
@@ -1,8 +1,9 @@
 package com.discordticketbot.handlers;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.CloseRequestDAO;
-import com.discordticketbot.database.TicketLogDAO;
+import com.discordticketbot.database.CloseRequestStore;
+import com.discordticketbot.database.TicketLogStore;
+import com.discordticketbot.database.TicketStores;
 import com.discordticketbot.utils.PermissionUtil;
 import com.discordticketbot.utils.ErrorLogger;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -18,14 +19,14 @@ import java.util.concurrent.TimeUnit;
 
 public class CloseRequestHandler {
     private final Map<String, GuildConfig> guildConfigs;
-    private final CloseRequestDAO closeRequestDAO;
-    private final TicketLogDAO ticketLogDAO;
+    private final CloseRequestStore closeRequestStore;
+    private final TicketLogStore ticketLogStore;
     private final ErrorLogger errorLogger;
 
     public CloseRequestHandler(Map<String, GuildConfig> guildConfigs) {
         this.guildConfigs = guildConfigs;
-        this.closeRequestDAO = new CloseRequestDAO();
-        this.ticketLogDAO = new TicketLogDAO();
+        this.closeRequestStore = TicketStores.get().closeRequests();
+        this.ticketLogStore = TicketStores.get().ticketLogs();
         this.errorLogger = new ErrorLogger(guildConfigs);
     }
 
@@ -52,21 +53,10 @@ public class CloseRequestHandler {
         String reason = event.getOption("reason") != null ? event.getOption("reason").getAsString() : "No reason provided";
         Integer timeoutHours = event.getOption("timeout") != null ? event.getOption("timeout").getAsInt() : null;
 
-        // Check if there's already an active close request
-        if (closeRequestDAO.hasActiveCloseRequest(channel.getId())) {
-            event.reply("❌ There is already an active close request for this ticket.").setEphemeral(true).queue();
-            return;
-        }
-
-        // Check if ticket is excluded from auto-close
-        if (closeRequestDAO.isExcludedFromAutoClose(channel.getId()) && timeoutHours != null) {
-            event.reply("⚠️ This ticket is excluded from auto-close. Timeout will not apply.").setEphemeral(true).queue();
-            timeoutHours = null;
-        }
-
         try {
-            // Log close request to database
-            closeRequestDAO.createCloseRequest(
+            // Pending check, auto-close exclusion, upsert and event log in one database operation
+            CloseRequestStore.OpenCloseRequestResult result = closeRequestStore.openCloseRequest(
+                    channel.getGuild().getId(),
                     channel.getId(),
                     event.getUser().getId(),
                     userId,
@@ -74,6 +64,19 @@ public class CloseRequestHandler {
                     timeoutHours
             );
 
+            if (result == null) {
+                event.reply("❌ Failed to send close request.").setEphemeral(true).queue();
+                return;
+            }
+
+            if (!result.opened) {
+                event.reply("❌ There is already an active close request for this ticket.").setEphemeral(true).queue();
+                return;
+            }
+
+            // Excluded tickets get no deadline
+            timeoutHours = result.details.timeoutHours;
+
             User ticketOwner = event.getJDA().getUserById(userId);
             String ownerMention = ticketOwner != null ? ticketOwner.getAsMention() : "<@" + userId + ">";
 
@@ -92,7 +95,8 @@ public class CloseRequestHandler {
                         false);
             }
 
-            event.reply("✅ Close request sent to the ticket owner.")
+            event.reply("✅ Close request sent to the ticket owner."
+                            + (result.timeoutDropped ? "\n⚠️ This ticket is excluded from auto-close. Timeout will not apply." : ""))
                     .setEphemeral(true).queue();
 
             Integer finalTimeoutHours = timeoutHours;
@@ -102,20 +106,19 @@ public class CloseRequestHandler {
                             Button.danger("deny_close_request", "❌ Keep Open")
                     ).queue(message -> {
                         // Update database with message ID for future reference
-                        closeRequestDAO.updateCloseRequestMessageId(channel.getId(), message.getId());
+                        closeRequestStore.updateCloseRequestMessageId(channel.getId(), message.getId());
 
-                        // Schedule timeout if specified
+                        // Deadline is already persisted, make sure the shared scheduler wakes up for it
                         if (finalTimeoutHours != null) {
-                            scheduleAutoClose(channel, message.getId(), finalTimeoutHours);
+                            AutoCloseScheduler.getInstance().schedule(TimeUnit.HOURS.toMillis(finalTimeoutHours));
                         }
                     });
-
-            // Log to ticket logs
-            ticketLogDAO.logCloseRequest(channel.getId(), event.getUser().getId(), reason, timeoutHours);
         } catch (Exception e) {
             errorLogger.logError(event.getGuild(), "Close Request",
                     "Failed to send close request for " + channel.getName() + ": " + e.getMessage(), e);
-            event.reply("❌ Failed to send close request.").setEphemeral(true).queue();
+            if (!event.isAcknowledged()) {
+                event.reply("❌ Failed to send close request.").setEphemeral(true).queue();
+            }
         }
     }
 
@@ -130,10 +133,10 @@ public class CloseRequestHandler {
 
         try {
             // Get original close request details
-            CloseRequestDAO.CloseRequestDetails details = closeRequestDAO.getCloseRequestDetails(channel.getId());
+            CloseRequestStore.CloseRequestDetails details = closeRequestStore.getCloseRequestDetails(channel.getId());
 
             // Mark close request as confirmed
-            closeRequestDAO.confirmCloseRequest(channel.getId(), event.getUser().getId());
+            closeRequestStore.confirmCloseRequest(channel.getId(), event.getUser().getId());
 
             StringBuilder description = new StringBuilder();
             description.append(event.getUser().getAsMention()).append(" has confirmed that their issue is resolved.\n\n");
@@ -178,10 +181,10 @@ public class CloseRequestHandler {
 
         try {
             // Get original close request details
-            CloseRequestDAO.CloseRequestDetails details = closeRequestDAO.getCloseRequestDetails(channel.getId());
+            CloseRequestStore.CloseRequestDetails details = closeRequestStore.getCloseRequestDetails(channel.getId());
 
             // Mark close request as denied
-            closeRequestDAO.denyCloseRequest(channel.getId(), event.getUser().getId());
+            closeRequestStore.denyCloseRequest(channel.getId(), event.getUser().getId());
 
             StringBuilder description = new StringBuilder();
             description.append(event.getUser().getAsMention()).append(" has indicated that their issue is **not yet resolved**.\n\n");
@@ -209,7 +212,7 @@ public class CloseRequestHandler {
                     .setComponents().queue();
 
             // Log denial
-            ticketLogDAO.logCloseRequestDenied(channel.getId(), event.getUser().getId());
+            ticketLogStore.logCloseRequestDenied(channel.getGuild().getId(), channel.getId(), event.getUser().getId());
         } catch (Exception e) {
             errorLogger.logError(event.getGuild(), "Deny Close Request",
                     "Error denying close request in " + channel.getName() + ": " + e.getMessage(), e);
@@ -217,43 +220,6 @@ public class CloseRequestHandler {
         }
     }
 
-    private void scheduleAutoClose(TextChannel channel, String messageId, int timeoutHours) {
-        // Create final copies for lambda usage
-        final String channelId = channel.getId();
-        final int finalTimeoutHours = timeoutHours;
-
-        // Schedule the auto-close task
-        java.util.concurrent.Executors.newSingleThreadScheduledExecutor().schedule(() -> {
-            // Check if request is still active
-            if (!closeRequestDAO.hasActiveCloseRequest(channelId)) {
-                return; // Request was already handled
-            }
-
-            try {
-                // Auto-close the ticket
-                closeRequestDAO.autoCloseRequest(channelId);
-
-                EmbedBuilder timeoutEmbed = new EmbedBuilder()
-                        .setTitle("⏰ Auto-Close Timeout")
-                        .setDescription("This ticket has been automatically closed due to no response within " + finalTimeoutHours + " hours.\n\n" +
-                                "**Auto-closed at:** <t:" + (System.currentTimeMillis() / 1000L) + ":F>")
-                        .setColor(Color.GRAY)
-                        .setFooter("Ticket auto-closed due to timeout");
-
-                channel.sendMessageEmbeds(timeoutEmbed.build()).queue();
-
-                // Log auto-closure
-                ticketLogDAO.logTicketAutoClosed(channelId, finalTimeoutHours);
-
-                // Close the ticket after a brief delay
-                channel.delete().queueAfter(30, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                errorLogger.logError(channel.getGuild(), "Auto Close Ticket",
-                        "Error during auto-closing ticket " + channel.getName() + ": " + e.getMessage(), e);
-            }
-        }, finalTimeoutHours, TimeUnit.HOURS);
-    }
-
     public void handleAutoCloseExclude(SlashCommandInteractionEvent event) {
         GuildConfig config = guildConfigs.get(event.getGuild().getId());
         if (config == null || !PermissionUtil.hasStaffPermission(event.getMember(), config)) {
@@ -268,7 +234,7 @@ public class CloseRequestHandler {
         }
 
         try {
-            closeRequestDAO.excludeFromAutoClose(channel.getId(), event.getUser().getId());
+            closeRequestStore.excludeFromAutoClose(channel.getGuild().getId(), channel.getId(), event.getUser().getId());
 
             EmbedBuilder embed = new EmbedBuilder()
                     .setTitle("🔒 Auto-Close Exclusion")
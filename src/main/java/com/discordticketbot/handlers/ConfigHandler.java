@@ -1,7 +1,8 @@
 package com.discordticketbot.handlers;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.DatabaseManager;
+import com.discordticketbot.database.TicketNumberAllocator;
+import com.discordticketbot.database.TicketStores;
 import com.discordticketbot.utils.PermissionUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
@@ -59,8 +60,10 @@ public class ConfigHandler {
         } else {
             // Database connection status
             boolean dbConnected = testDatabaseConnection();
+            String poolSummary = TicketStores.get().getPoolSummary();
             configEmbed.addField("💾 Database Status",
-                    dbConnected ? "✅ Connected to PostgreSQL" : "❌ Database connection failed", true);
+                    (dbConnected ? "✅ Connected (" + TicketStores.get().name() + ")" : "❌ Database connection failed")
+                            + (poolSummary != null ? "\n" + poolSummary : ""), true);
 
             // Category configuration
             Category category = guild.getCategoryById(config.categoryId);
@@ -91,9 +94,10 @@ public class ConfigHandler {
             }
 
             // Ticket counter
+            // The database counter; other instances and reserved blocks make "next" unknowable here
+            int reservedUpTo = TicketNumberAllocator.getInstance().getReservedUpTo(guild.getId());
             configEmbed.addField("🔢 Ticket Counter",
-                    "Current: **" + config.ticketCounter + "**\n" +
-                            "Next ticket: **#" + String.format("%03d", config.ticketCounter + 1) + "**", true);
+                    "Reserved up to: **" + (reservedUpTo >= 0 ? "#" + String.format("%03d", reservedUpTo) : "unavailable") + "**", true);
 
             // Support roles configuration
             StringBuilder rolesText = new StringBuilder();
@@ -139,7 +143,7 @@ public class ConfigHandler {
 
     private boolean testDatabaseConnection() {
         try {
-            return DatabaseManager.getInstance().testConnection();
+            return TicketStores.get().testConnection();
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,188 @@
+package com.discordticketbot.handlers;
+
+import com.discordticketbot.config.GuildConfig;
+import com.discordticketbot.database.TicketLogStore;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.utils.PermissionUtil;
+import com.discordticketbot.utils.TimestampUtil;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+
+import java.awt.*;
+import java.util.Map;
+
+/**
+ * /history: browse a guild's ticket history, or one user's, ten tickets at a time.
+ *
+ * Pages are read with keyset queries, and the navigation buttons carry the (created_at, id)
+ * cursor of the page edge in their component ID ("history:older:<user or ->:<cursor>"), so
+ * nothing is kept per viewer and a page deep in a long history costs the same as the first.
+ */
+public class HistoryHandler {
+    public static final String BUTTON_PREFIX = "history:";
+    private static final String ALL_USERS = "-";
+    private static final int PAGE_SIZE = 10;
+
+    private final Map<String, GuildConfig> guildConfigs;
+    private final TicketLogStore ticketLogStore;
+
+    public HistoryHandler(Map<String, GuildConfig> guildConfigs) {
+        this.guildConfigs = guildConfigs;
+        this.ticketLogStore = TicketStores.get().ticketLogs();
+    }
+
+    public void handle(SlashCommandInteractionEvent event) {
+        Guild guild = event.getGuild();
+        if (guild == null) {
+            event.reply("❌ This command can only be used in a server.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        GuildConfig config = guildConfigs.get(guild.getId());
+        if (config == null) {
+            event.reply("❌ Ticket system is not configured. Please use `/setup` first.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        if (!PermissionUtil.hasStaffPermission(event.getMember(), config)) {
+            event.reply("❌ Only staff members can view ticket history.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        User target = event.getOption("user", OptionMapping::getAsUser);
+        String userId = target != null ? target.getId() : null;
+
+        event.deferReply(true).queue(); // Defer reply as database queries may take time
+
+        try {
+            TicketLogStore.TicketLogPage page = ticketLogStore.getTicketHistoryPage(guild.getId(), userId, null,
+                    TicketLogStore.PageDirection.OLDER, PAGE_SIZE);
+
+            event.getHook().sendMessageEmbeds(buildEmbed(guild, userId, page))
+                    .setComponents(buildButtons(userId, page))
+                    .queue();
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to load ticket history: " + e.getMessage());
+            e.printStackTrace();
+            event.getHook().sendMessage("❌ Failed to load ticket history. Please try again or contact an administrator.")
+                    .setEphemeral(true).queue();
+        }
+    }
+
+    /**
+     * Handle the navigation buttons of a history message
+     */
+    public void handleButton(ButtonInteractionEvent event) {
+        Guild guild = event.getGuild();
+        GuildConfig config = guild != null ? guildConfigs.get(guild.getId()) : null;
+        if (config == null || !PermissionUtil.hasStaffPermission(event.getMember(), config)) {
+            event.reply("❌ Only staff members can view ticket history.").setEphemeral(true).queue();
+            return;
+        }
+
+        // history:<newest|older|newer>:<user ID or ->[:<cursor>]
+        String[] parts = event.getComponentId().split(":", 4);
+        if (parts.length < 3) {
+            event.reply("❌ Unknown button: " + event.getComponentId()).setEphemeral(true).queue();
+            return;
+        }
+
+        String userId = ALL_USERS.equals(parts[2]) ? null : parts[2];
+        TicketLogStore.HistoryCursor cursor;
+        TicketLogStore.PageDirection direction;
+        try {
+            cursor = parts.length == 4 ? TicketLogStore.HistoryCursor.decode(parts[3]) : null;
+            direction = "newer".equals(parts[1]) ? TicketLogStore.PageDirection.NEWER : TicketLogStore.PageDirection.OLDER;
+        } catch (IllegalArgumentException e) {
+            event.reply("❌ This history page is no longer valid. Please run `/history` again.").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferEdit().queue();
+
+        try {
+            TicketLogStore.TicketLogPage page = ticketLogStore.getTicketHistoryPage(guild.getId(), userId, cursor, direction, PAGE_SIZE);
+
+            // Back at the top, or rows beyond the cursor removed by cleanup: show a full newest page instead
+            if (cursor != null && (page.logs.isEmpty() || (direction == TicketLogStore.PageDirection.NEWER && !page.hasNewer))) {
+                page = ticketLogStore.getTicketHistoryPage(guild.getId(), userId, null, TicketLogStore.PageDirection.OLDER, PAGE_SIZE);
+            }
+
+            event.getHook().editOriginalEmbeds(buildEmbed(guild, userId, page))
+                    .setComponents(buildButtons(userId, page))
+                    .queue();
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to load ticket history: " + e.getMessage());
+            e.printStackTrace();
+            event.getHook().sendMessage("❌ Failed to load ticket history. Please try again or contact an administrator.")
+                    .setEphemeral(true).queue();
+        }
+    }
+
+    private MessageEmbed buildEmbed(Guild guild, String userId, TicketLogStore.TicketLogPage page) {
+        String heading = userId != null
+                ? "Tickets opened by <@" + userId + "> in **" + guild.getName() + "**, newest first"
+                : "All tickets in **" + guild.getName() + "**, newest first";
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("📜 Ticket History")
+                .setColor(Color.BLUE);
+
+        if (page.logs.isEmpty()) {
+            embed.setDescription(heading);
+            embed.addField("No tickets", userId != null ? "This user has not opened any tickets." : "No tickets have been opened yet.", false);
+            return embed.build();
+        }
+
+        // In the description (4096 characters) rather than a field (1024), which a page of long names would overflow
+        StringBuilder entries = new StringBuilder(heading).append("\n\n");
+        for (TicketLogStore.TicketLog log : page.logs) {
+            entries.append(getStatusEmoji(log.status))
+                    .append(" **").append(log.channelName).append("** (").append(log.ticketType).append(")");
+            if (userId == null) {
+                entries.append(" by <@").append(log.ownerId).append(">");
+            }
+            entries.append(" - ")
+                    .append(TimestampUtil.getDiscordTimestamp(log.createdAt.getTime(), TimestampUtil.TimestampFormat.SHORT_DATE_TIME))
+                    .append("\n");
+        }
+        embed.setDescription(entries.toString().trim());
+
+        embed.setFooter(page.hasOlder ? "Use the buttons to browse older tickets" : "End of history");
+        return embed.build();
+    }
+
+    private ActionRow buildButtons(String userId, TicketLogStore.TicketLogPage page) {
+        String user = userId != null ? userId : ALL_USERS;
+        String newerId = page.hasNewer ? BUTTON_PREFIX + "newer:" + user + ":" + page.first().encode() : BUTTON_PREFIX + "newer:" + user;
+        String olderId = page.hasOlder ? BUTTON_PREFIX + "older:" + user + ":" + page.last().encode() : BUTTON_PREFIX + "older:" + user;
+
+        return ActionRow.of(
+                Button.secondary(BUTTON_PREFIX + "newest:" + user, "⏮️ Newest").withDisabled(!page.hasNewer),
+                Button.primary(newerId, "◀️ Newer").withDisabled(!page.hasNewer),
+                Button.primary(olderId, "Older ▶️").withDisabled(!page.hasOlder)
+        );
+    }
+
+    private String getStatusEmoji(String status) {
+        return switch (status) {
+            case "open" -> "🟢";
+            case "closed" -> "🔴";
+            case "deleted" -> "🗑️";
+            case "auto_closed" -> "⏰";
+            case "reopened" -> "🔄";
+            default -> "📋";
+        };
+    }
+}
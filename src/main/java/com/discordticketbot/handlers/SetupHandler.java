@@ -151,7 +151,7 @@ public class SetupHandler {
         }
 
         embed.addField("👥 Support Roles", supportRolesList, false)
-                .addField("🔢 Ticket Counter", "Initialized at: " + config.ticketCounter + " (next: " + (config.ticketCounter + 1) + ")", true)
+                .addField("🔢 Ticket Counter", "Initialized at: " + config.ticketCounter, true)
                 .addField("🎯 Next Step", "Use `/panel` to send the ticket panel to the configured channel!", false)
                 .setColor(Color.GREEN)
                 .setFooter("Configuration saved for " + guild.getName());
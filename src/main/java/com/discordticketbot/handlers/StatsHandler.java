@@ -1,7 +1,9 @@
 package com.discordticketbot.handlers;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.TicketLogDAO;
+import com.discordticketbot.database.TicketLogStore;
+import com.discordticketbot.database.TicketNumberAllocator;
+import com.discordticketbot.database.TicketStores;
 import com.discordticketbot.utils.PermissionUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
@@ -13,11 +15,11 @@ import java.util.Map;
 
 public class StatsHandler {
     private final Map<String, GuildConfig> guildConfigs;
-    private final TicketLogDAO ticketLogDAO;
+    private final TicketLogStore ticketLogStore;
 
     public StatsHandler(Map<String, GuildConfig> guildConfigs) {
         this.guildConfigs = guildConfigs;
-        this.ticketLogDAO = new TicketLogDAO();
+        this.ticketLogStore = TicketStores.get().ticketLogs();
     }
 
     public void handle(SlashCommandInteractionEvent event) {
@@ -45,9 +47,9 @@ public class StatsHandler {
 
         try {
             // Get ticket statistics
-            Map<String, Integer> stats = ticketLogDAO.getTicketStats(guild.getId());
-            Map<String, Integer> typeStats = ticketLogDAO.getTicketStatsByType(guild.getId());
-            List<TicketLogDAO.TicketLog> recentActivity = ticketLogDAO.getRecentTicketActivity(guild.getId(), 10);
+            Map<String, Integer> stats = ticketLogStore.getTicketStats(guild.getId());
+            Map<String, Integer> typeStats = ticketLogStore.getTicketStatsByType(guild.getId());
+            List<TicketLogStore.TicketLog> recentActivity = ticketLogStore.getRecentTicketActivity(guild.getId(), 10);
 
             EmbedBuilder statsEmbed = new EmbedBuilder()
                     .setTitle("📊 Ticket Statistics")
@@ -72,9 +74,9 @@ public class StatsHandler {
                             "**Reopened:** " + reopened + " 🔄", true);
 
             // Current system status
+            int reservedUpTo = TicketNumberAllocator.getInstance().getReservedUpTo(guild.getId());
             statsEmbed.addField("🎯 System Status",
-                    "**Ticket Counter:** " + config.ticketCounter + "\n" +
-                            "**Next Ticket:** #" + String.format("%03d", config.ticketCounter + 1) + "\n" +
+                    "**Numbers Reserved Up To:** " + (reservedUpTo >= 0 ? "#" + String.format("%03d", reservedUpTo) : "unavailable") + "\n" +
                             "**Database:** ✅ Connected\n" +
                             "**Configuration:** " + (config.isConfigured() ? "✅ Complete" : "❌ Incomplete"), true);
 
@@ -119,7 +121,7 @@ public class StatsHandler {
                 int displayCount = Math.min(5, recentActivity.size());
 
                 for (int i = 0; i < displayCount; i++) {
-                    TicketLogDAO.TicketLog log = recentActivity.get(i);
+                    TicketLogStore.TicketLog log = recentActivity.get(i);
                     String emoji = getStatusEmoji(log.status);
                     String timeAgo = getTimeAgo(log.createdAt.getTime());
                     recentText.append(emoji).append(" **").append(log.channelName).append("** (")
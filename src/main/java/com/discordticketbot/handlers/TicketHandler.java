@@ -1,10 +1,14 @@
 package com.discordticketbot.handlers;
 
 import com.discordticketbot.config.GuildConfig;
-import com.discordticketbot.database.TicketLogDAO;
+import com.discordticketbot.database.TicketLogStore;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.database.TranscriptSearchWriter;
 import com.discordticketbot.utils.ErrorLogger;
 import com.discordticketbot.utils.PermissionUtil;
+import com.discordticketbot.utils.TranscriptCapture;
 import com.discordticketbot.utils.TranscriptUtil;
+import com.discordticketbot.utils.TranscriptWriter;
 import com.discordticketbot.utils.UserDisplayUtil;
 import com.discordticketbot.utils.TimestampUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -20,9 +24,11 @@ import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.interactions.components.text.TextInput;
 import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
 import net.dv8tion.jda.api.interactions.modals.Modal;
+import net.dv8tion.jda.api.utils.FileUpload;
 
 import java.awt.*;
 import java.io.File;
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
@@ -31,13 +37,13 @@ import java.util.regex.Pattern;
 
 public class TicketHandler {
     private final Map<String, GuildConfig> guildConfigs;
-    private final TicketLogDAO ticketLogDAO;
+    private final TicketLogStore ticketLogStore;
     private final ErrorLogger errorLogger;
     private static final Pattern TICKET_PATTERN = Pattern.compile("^ticket-(.+)-(\\d{3})$");
 
     public TicketHandler(Map<String, GuildConfig> guildConfigs) {
         this.guildConfigs = guildConfigs;
-        this.ticketLogDAO = new TicketLogDAO();
+        this.ticketLogStore = TicketStores.get().ticketLogs();
         this.errorLogger = new ErrorLogger(guildConfigs);
     }
 
@@ -69,6 +75,12 @@ public class TicketHandler {
 
         String baseChannelName = "ticket-" + user.getName().toLowerCase().replaceAll("[^a-z0-9]", "");
         int ticketNumber = config.getNextTicketNumber();
+        if (ticketNumber <= 0) {
+            errorLogger.logError(guild, "Create Ticket",
+                    "Could not allocate a ticket number for a " + type + " ticket", null, user);
+            event.reply("❌ Failed to create ticket. Please try again in a moment or contact an administrator.").setEphemeral(true).queue();
+            return;
+        }
         String channelName = String.format("%s-%03d", baseChannelName, ticketNumber);
 
         category.createTextChannel(channelName)
@@ -80,7 +92,7 @@ public class TicketHandler {
                     setupChannelPermissions(channel, config);
                     channel.getManager().setTopic(user.getId()).queue();
 
-                    ticketLogDAO.logTicketCreated(guild.getId(), channel.getId(), channel.getName(), user.getId(), type, ticketNumber);
+                    ticketLogStore.logTicketCreated(guild.getId(), channel.getId(), channel.getName(), user.getId(), type, ticketNumber);
 
                     sendWelcomeMessage(channel, user, type, ticketNumber, emoji, color);
                     notifySupportTeam(channel, config, type);
@@ -133,7 +145,7 @@ public class TicketHandler {
             return;
         }
 
-        ticketLogDAO.logTicketClosedWithReason(channel.getId(), event.getUser().getId(), reason);
+        ticketLogStore.logTicketClosedWithReason(channel.getId(), event.getUser().getId(), reason);
 
         if (PermissionUtil.isTicketOwner(channel, event.getUser())) {
             channel.getManager()
@@ -178,7 +190,7 @@ public class TicketHandler {
             return;
         }
 
-        ticketLogDAO.logTicketClosedWithReason(channel.getId(), user.getId(), closeReason);
+        ticketLogStore.logTicketClosedWithReason(channel.getId(), user.getId(), closeReason);
 
         if (PermissionUtil.isTicketOwner(channel, user)) {
             channel.getManager()
@@ -227,7 +239,7 @@ public class TicketHandler {
         }
 
         try {
-            ticketLogDAO.logTicketReopened(channel.getId(), event.getUser().getId());
+            ticketLogStore.logTicketReopened(channel.getId(), event.getUser().getId());
 
             channel.getManager()
                     .putMemberPermissionOverride(Long.parseLong(userId),
@@ -261,34 +273,63 @@ public class TicketHandler {
             return;
         }
 
+        if (guild.getTextChannelById(config.transcriptChannelId) == null) {
+            event.reply("❌ Transcript log channel not found. Please contact an administrator.").setEphemeral(true).queue();
+            return;
+        }
+
         event.deferReply().setEphemeral(true).queue();
         TextChannel channel = event.getChannel().asTextChannel();
 
-        channel.getHistory().retrievePast(100).queue(messages -> {
-            try {
-                // Generate both text and HTML transcripts
-                String transcriptContent = TranscriptUtil.createTranscriptContent(channel, messages);
-                String htmlTranscriptContent = TranscriptUtil.createHtmlTranscriptContent(channel, messages);
-                
-                File transcriptFile = TranscriptUtil.saveTranscriptToFile(channel, transcriptContent);
-                TranscriptUtil.TranscriptFileInfo htmlInfo = TranscriptUtil.saveHtmlTranscriptToFile(channel, htmlTranscriptContent);
-                
-                // Generate direct link for HTML transcript
-                String directLink = TranscriptUtil.generateDirectLink(htmlInfo.getUniqueId());
-
-                TextChannel transcriptChannel = guild.getTextChannelById(config.transcriptChannelId);
-                if (transcriptChannel != null) {
-                    sendTranscriptEmbed(transcriptChannel, event, channel, messages.size(), transcriptFile, htmlInfo.getFile(), directLink);
-                    event.getHook().sendMessage("✅ Transcript generated and saved to logs channel!").queue();
-                } else {
-                    event.getHook().sendMessage("❌ Transcript log channel not found. Please contact an administrator.").queue();
-                }
-            } catch (Exception e) {
-                errorLogger.logError(guild, "Generate Transcript",
-                        "Failed to generate transcript for " + channel.getName() + ": " + e.getMessage(), e);
-                event.getHook().sendMessage("❌ Error generating transcript: " + e.getMessage()).queue();
+        // Generated on a transcript worker; the reply shows the job's progress until it is done
+        TranscriptJobService jobService = TranscriptJobService.getInstance();
+        TranscriptJobService.Job job = jobService.submit(guild.getId(), channel.getId(),
+                transcriptJob -> writeTranscript(transcriptJob, event, guild, config, channel));
+        if (job == null) {
+            event.getHook().sendMessage("❌ Too many transcripts are being generated right now. Please try again in a minute.").queue();
+            return;
+        }
+        jobService.watch(job, event.getHook());
+    }
+
+    /**
+     * Captures the channel into transcript files and posts them to the log channel; runs on a transcript worker
+     */
+    private String writeTranscript(TranscriptJobService.Job job, ButtonInteractionEvent event, Guild guild, GuildConfig config, TextChannel channel) throws Exception {
+        try (TranscriptWriter writer = TranscriptWriter.open(channel)) {
+            // Each page is written to disk as it arrives, so no messages are kept in memory
+            TranscriptCapture.Result result = TranscriptCapture.run(channel, messages -> {
+                writer.append(messages);
+                job.setCapturedMessages(writer.getMessageCount());
+            });
+            String note = result.isTruncated() ? "Transcript incomplete, capture " + result.truncatedReason : null;
+
+            // Write the final text and HTML transcripts
+            TranscriptWriter.Result files = writer.finish(note);
+            TranscriptUtil.TranscriptFileInfo htmlInfo = files.htmlFile;
+
+            // Generate direct link for HTML transcript
+            String directLink = TranscriptUtil.generateDirectLink(htmlInfo.getUniqueId());
+
+            // Make it findable with /transcript search, off this thread
+            TranscriptSearchWriter.getInstance().submit(htmlInfo.getUniqueId(), guild.getId(), channel.getId(),
+                    channel.getName(), files.messageCount, files.textFile,
+                    reason -> errorLogger.logError(guild, "Transcript Search",
+                            "Transcript of " + channel.getName() + " was saved but can't be found with /transcript search: " + reason,
+                            null));
+
+            TextChannel transcriptChannel = guild.getTextChannelById(config.transcriptChannelId);
+            if (transcriptChannel == null) {
+                throw new IllegalStateException("Transcript log channel not found. Please contact an administrator.");
             }
-        });
+            sendTranscriptEmbed(transcriptChannel, event, channel, files.messageCount, files.textFile, htmlInfo.getFile(), directLink);
+            return "✅ Transcript generated and saved to logs channel!" + (note != null ? "\n⚠️ " + note + "." : "");
+
+        } catch (Exception e) {
+            errorLogger.logError(guild, "Generate Transcript",
+                    "Failed to generate transcript for " + channel.getName() + ": " + e.getMessage(), e);
+            throw e;
+        }
     }
 
     public void deleteTicket(ButtonInteractionEvent event) {
@@ -303,7 +344,7 @@ public class TicketHandler {
 
         TextChannel channel = event.getChannel().asTextChannel();
         try {
-            ticketLogDAO.logTicketDeleted(channel.getId(), event.getUser().getId());
+            ticketLogStore.logTicketDeleted(channel.getId(), event.getUser().getId());
 
             EmbedBuilder deleteEmbed = new EmbedBuilder()
                     .setTitle("🗑️ Ticket Deleting")
@@ -383,7 +424,7 @@ public class TicketHandler {
         }
     }
 
-    private void sendTranscriptEmbed(TextChannel transcriptChannel, ButtonInteractionEvent event, TextChannel sourceChannel, int messageCount, File transcriptFile, File htmlFile, String directUrl) {
+    private void sendTranscriptEmbed(TextChannel transcriptChannel, ButtonInteractionEvent event, TextChannel sourceChannel, int messageCount, File transcriptFile, File htmlFile, String directUrl) throws IOException {
         EmbedBuilder transcriptEmbed = new EmbedBuilder()
                 .setTitle("📄 Ticket Transcript")
                 .addField("Ticket Channel", sourceChannel.getName(), true)
@@ -393,17 +434,20 @@ public class TicketHandler {
                 .setColor(Color.BLUE)
                 .setFooter("Transcript saved for record keeping");
 
+        // Stored compressed, attached as the plain text file
+        FileUpload transcriptUpload = FileUpload.fromData(TranscriptUtil.openTranscript(transcriptFile), TranscriptUtil.displayName(transcriptFile));
+
         // Add Direct Link button if HTML transcript is available
         if (directUrl != null) {
             transcriptEmbed.addField("🌐 HTML Transcript", "Click the Direct Link button below to view the HTML transcript in your browser.", false);
             
             transcriptChannel.sendMessageEmbeds(transcriptEmbed.build())
-                    .addFiles(net.dv8tion.jda.api.utils.FileUpload.fromData(transcriptFile))
+                    .addFiles(transcriptUpload)
                     .setActionRow(Button.link(directUrl, "🌐 Open HTML Transcript"))
                     .queue();
         } else {
             transcriptChannel.sendMessageEmbeds(transcriptEmbed.build())
-                    .addFiles(net.dv8tion.jda.api.utils.FileUpload.fromData(transcriptFile))
+                    .addFiles(transcriptUpload)
                     .queue();
         }
     }
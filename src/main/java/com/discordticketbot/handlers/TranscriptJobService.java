@@ -0,0 +1,378 @@
+package com.discordticketbot.handlers;
+
+import com.discordticketbot.database.LatencyHistogram;
+import com.discordticketbot.utils.EnvUtil;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs transcript generation on a small pool of worker threads instead of JDA's callback threads.
+ *
+ * Jobs wait in one queue per guild and workers take the next job from each guild in turn, so a
+ * server generating many transcripts cannot hold up the others. The queue is bounded both in
+ * total (TRANSCRIPT_QUEUE_CAPACITY) and per guild (TRANSCRIPT_QUEUE_PER_GUILD); a request over
+ * either limit is turned away. A request for a channel whose transcript is already queued or
+ * running joins that job instead of starting another. Each job keeps a short status line,
+ * which {@link #watch} copies into the requester's ephemeral reply while it changes.
+ */
+public class TranscriptJobService {
+    private static final long WATCH_INTERVAL_MILLIS = 2_000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 15;
+    private static final long FINAL_STATUS_TIMEOUT_SECONDS = 5;
+
+    /**
+     * The work of one transcript, run on a worker thread. Returns the message shown to the
+     * requesters when it succeeds; a thrown exception fails the job.
+     */
+    public interface Task {
+        String run(Job job) throws Exception;
+    }
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    /**
+     * One transcript being generated
+     */
+    public class Job {
+        private final String guildId;
+        private final String channelId;
+        private final Task task;
+        private final long queuedAtNanos = System.nanoTime();
+        private final AtomicInteger capturedMessages = new AtomicInteger();
+        private volatile State state = State.QUEUED;
+        private volatile String resultMessage;
+
+        private Job(String guildId, String channelId, Task task) {
+            this.guildId = guildId;
+            this.channelId = channelId;
+            this.task = task;
+        }
+
+        public String getChannelId() {
+            return channelId;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public boolean isFinished() {
+            return state == State.DONE || state == State.FAILED;
+        }
+
+        /**
+         * Report how many messages have been captured so far
+         */
+        public void setCapturedMessages(int count) {
+            capturedMessages.set(count);
+        }
+
+        /**
+         * The status line shown to requesters
+         */
+        public String describe() {
+            switch (state) {
+                case QUEUED:
+                    int position = queuePosition(this);
+                    return position > 0
+                            ? "⏳ Transcript queued, " + position + (position == 1 ? " job" : " jobs") + " ahead in this server"
+                            : "⏳ Transcript queued, starting soon";
+                case RUNNING:
+                    int captured = capturedMessages.get();
+                    return captured > 0
+                            ? "⏳ Capturing transcript... " + captured + " messages so far"
+                            : "⏳ Capturing transcript...";
+                default:
+                    return resultMessage;
+            }
+        }
+    }
+
+    /**
+     * A requester's ephemeral reply kept in step with a job
+     */
+    private static class Watch {
+        final Job job;
+        final InteractionHook hook;
+        final AtomicReference<String> shown = new AtomicReference<>();
+        volatile ScheduledFuture<?> future;
+
+        Watch(Job job, InteractionHook hook) {
+            this.job = job;
+            this.hook = hook;
+        }
+
+        /**
+         * Edit the reply if the status changed since it was last shown; null if it didn't
+         */
+        CompletableFuture<?> publish() {
+            String status = job.describe();
+            if (status == null || status.equals(shown.getAndSet(status))) {
+                return null;
+            }
+            return hook.editOriginal(status).submit();
+        }
+    }
+
+    private static TranscriptJobService instance;
+
+    private final int queueCapacity;
+    private final int queuePerGuild;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService watcher;
+
+    // Guarded by this: queued jobs per guild, in the order guilds are served
+    private final Map<String, Deque<Job>> queuedByGuild = new HashMap<>();
+    private final Deque<String> guildRotation = new ArrayDeque<>();
+    private int queuedJobs;
+    // Written under this, read by workers without it
+    private volatile boolean shuttingDown;
+
+    // Queued or running jobs by channel
+    private final ConcurrentHashMap<String, Job> activeJobs = new ConcurrentHashMap<>();
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram renderTime = new LatencyHistogram();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    private TranscriptJobService() {
+        int workerCount = Math.max(1, EnvUtil.getInt("TRANSCRIPT_WORKERS", 2));
+        this.queueCapacity = Math.max(1, EnvUtil.getInt("TRANSCRIPT_QUEUE_CAPACITY", 50));
+        this.queuePerGuild = Math.max(1, EnvUtil.getInt("TRANSCRIPT_QUEUE_PER_GUILD", 10));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "transcript-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transcript-status");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        System.out.println("📄 Transcript workers: " + workerCount + ", queue " + queueCapacity + " (" + queuePerGuild + " per server)");
+    }
+
+    public static synchronized TranscriptJobService getInstance() {
+        if (instance == null) {
+            instance = new TranscriptJobService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a transcript of {@code channelId}, or join the job already queued or running for it.
+     * Returns null if the queue is full.
+     */
+    public synchronized Job submit(String guildId, String channelId, Task task) {
+        Job existing = activeJobs.get(channelId);
+        if (existing != null) {
+            joined.increment();
+            return existing;
+        }
+
+        Deque<Job> guildQueue = queuedByGuild.get(guildId);
+        if (shuttingDown || queuedJobs >= queueCapacity || (guildQueue != null && guildQueue.size() >= queuePerGuild)) {
+            rejected.increment();
+            return null;
+        }
+
+        Job job = new Job(guildId, channelId, task);
+        if (guildQueue == null) {
+            guildQueue = new ArrayDeque<>();
+            queuedByGuild.put(guildId, guildQueue);
+            guildRotation.addLast(guildId);
+        }
+        guildQueue.addLast(job);
+        queuedJobs++;
+        activeJobs.put(channelId, job);
+
+        // Each queued job gets one turn on a worker; the worker picks whichever job is fairest then
+        workers.execute(this::runNext);
+        return job;
+    }
+
+    /**
+     * The next job in guild rotation, or null if none is queued
+     */
+    private synchronized Job takeNext() {
+        String guildId = guildRotation.pollFirst();
+        if (guildId == null) {
+            return null;
+        }
+
+        Deque<Job> guildQueue = queuedByGuild.get(guildId);
+        Job job = guildQueue.pollFirst();
+        if (guildQueue.isEmpty()) {
+            queuedByGuild.remove(guildId);
+        } else {
+            guildRotation.addLast(guildId);
+        }
+        queuedJobs--;
+        return job;
+    }
+
+    private synchronized int queuePosition(Job job) {
+        Deque<Job> guildQueue = queuedByGuild.get(job.guildId);
+        if (guildQueue == null) {
+            return 0;
+        }
+        int ahead = 0;
+        for (Job queued : guildQueue) {
+            if (queued == job) {
+                return ahead;
+            }
+            ahead++;
+        }
+        return 0;
+    }
+
+    private void runNext() {
+        Job job = takeNext();
+        if (job == null) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        queueWait.recordNanos(startNanos - job.queuedAtNanos);
+        job.state = State.RUNNING;
+
+        try {
+            if (shuttingDown) {
+                throw new IllegalStateException("the bot is shutting down");
+            }
+            job.resultMessage = job.task.run(job);
+            job.state = State.DONE;
+            completed.increment();
+        } catch (Throwable e) {
+            job.resultMessage = "❌ Error generating transcript: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.state = State.FAILED;
+            failed.increment();
+        } finally {
+            renderTime.recordNanos(System.nanoTime() - startNanos);
+            activeJobs.remove(job.channelId, job);
+        }
+    }
+
+    /**
+     * Keep an ephemeral reply showing the job's status until it finishes
+     */
+    public void watch(Job job, InteractionHook hook) {
+        Watch watch = new Watch(job, hook);
+        watches.add(watch);
+
+        Runnable refresh = () -> {
+            boolean finished = job.isFinished();
+            CompletableFuture<?> edit = watch.publish();
+            if (edit != null) {
+                edit.exceptionally(error -> null);
+            }
+            if (finished) {
+                watches.remove(watch);
+                ScheduledFuture<?> future = watch.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        };
+
+        try {
+            watch.future = watcher.scheduleWithFixedDelay(refresh, 0, WATCH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; shutdown() shows the final status
+        }
+    }
+
+    /**
+     * One-line summary of the queue and job timings
+     */
+    public synchronized String getMetricsSummary() {
+        return "queued=" + queuedJobs + ", running=" + (activeJobs.size() - queuedJobs)
+                + ", completed=" + completed.sum() + ", failed=" + failed.sum()
+                + ", rejected=" + rejected.sum() + ", joined=" + joined.sum()
+                + ", queue wait " + queueWait.getSummary() + ", render " + renderTime.getSummary();
+    }
+
+    /**
+     * Stop taking jobs, fail the queued ones and give running ones a moment to finish, then
+     * show every requester the final status of their job
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shuttingDown = true;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Transcript workers did not finish within " + SHUTDOWN_TIMEOUT_SECONDS + "s");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        watcher.shutdownNow();
+
+        failUnstarted();
+        publishFinalStatus();
+    }
+
+    /**
+     * Fail the jobs no worker got to before the pool stopped
+     */
+    private synchronized void failUnstarted() {
+        Job job;
+        while ((job = takeNext()) != null) {
+            job.resultMessage = "❌ Error generating transcript: the bot is shutting down";
+            job.state = State.FAILED;
+            failed.increment();
+            activeJobs.remove(job.channelId, job);
+        }
+    }
+
+    private void publishFinalStatus() {
+        List<CompletableFuture<?>> edits = new ArrayList<>();
+        for (Watch watch : watches) {
+            CompletableFuture<?> edit = watch.publish();
+            if (edit != null) {
+                edits.add(edit.exceptionally(error -> null));
+            }
+        }
+        watches.clear();
+
+        try {
+            CompletableFuture.allOf(edits.toArray(new CompletableFuture<?>[0]))
+                    .get(FINAL_STATUS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("⚠️ Not every transcript requester was shown the final status: " + e.getMessage());
+        }
+    }
+}
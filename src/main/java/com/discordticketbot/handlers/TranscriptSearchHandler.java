@@ -0,0 +1,98 @@
+package com.discordticketbot.handlers;
+
+import com.discordticketbot.config.GuildConfig;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.database.TranscriptStore;
+import com.discordticketbot.utils.PermissionUtil;
+import com.discordticketbot.utils.TimestampUtil;
+import com.discordticketbot.utils.TranscriptUtil;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /transcript search: find past transcripts of this server by their text
+ */
+public class TranscriptSearchHandler {
+    private static final int MAX_RESULTS = 5;
+    private static final int MAX_SNIPPET_LENGTH = 300;
+
+    private final Map<String, GuildConfig> guildConfigs;
+    private final TranscriptStore transcriptStore;
+
+    public TranscriptSearchHandler(Map<String, GuildConfig> guildConfigs) {
+        this.guildConfigs = guildConfigs;
+        this.transcriptStore = TicketStores.get().transcripts();
+    }
+
+    public void handle(SlashCommandInteractionEvent event) {
+        Guild guild = event.getGuild();
+        if (guild == null) {
+            event.reply("❌ This command can only be used in a server.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        GuildConfig config = guildConfigs.get(guild.getId());
+        if (config == null) {
+            event.reply("❌ Ticket system is not configured. Please use `/setup` first.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        if (!PermissionUtil.hasStaffPermission(event.getMember(), config)) {
+            event.reply("❌ Only staff members can search transcripts.")
+                    .setEphemeral(true).queue();
+            return;
+        }
+
+        String query = event.getOption("query", "", OptionMapping::getAsString).trim();
+        if (query.isEmpty()) {
+            event.reply("❌ Please enter some words to search for.").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply(true).queue(); // Defer reply as database queries may take time
+
+        try {
+            long start = System.nanoTime();
+            List<TranscriptStore.TranscriptSearchResult> results = transcriptStore.searchTranscripts(guild.getId(), query, MAX_RESULTS);
+            long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+            EmbedBuilder embed = new EmbedBuilder()
+                    .setTitle("🔎 Transcript Search")
+                    .setDescription("Results for **" + query + "**")
+                    .setColor(Color.BLUE)
+                    .setFooter(results.size() + " result(s), best match first • " + tookMillis + "ms");
+
+            if (results.isEmpty()) {
+                embed.addField("No matches", "No transcript of this server contains those words.", false);
+            }
+
+            for (TranscriptStore.TranscriptSearchResult result : results) {
+                String snippet = result.snippet.length() > MAX_SNIPPET_LENGTH
+                        ? result.snippet.substring(0, MAX_SNIPPET_LENGTH) + "..."
+                        : result.snippet;
+
+                embed.addField("#" + result.channelName + " (" + result.messageCount + " messages)",
+                        TimestampUtil.getDiscordTimestamp(result.createdAt.getTime(), TimestampUtil.TimestampFormat.SHORT_DATE_TIME)
+                                + "\n" + snippet
+                                + "\n[View transcript](" + TranscriptUtil.generateDirectLink(result.uniqueId) + ")",
+                        false);
+            }
+
+            event.getHook().sendMessageEmbeds(embed.build()).queue();
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to search transcripts: " + e.getMessage());
+            e.printStackTrace();
+            event.getHook().sendMessage("❌ Failed to search transcripts. Please try again or contact an administrator.")
+                    .setEphemeral(true).queue();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.discordticketbot.listeners;
 import com.discordticketbot.config.GuildConfig;
 import com.discordticketbot.handlers.TicketHandler;
 import com.discordticketbot.handlers.CloseRequestHandler;
+import com.discordticketbot.handlers.HistoryHandler;
 import com.discordticketbot.utils.ErrorLogger;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -14,12 +15,14 @@ public class ButtonListener extends ListenerAdapter {
     private final Map<String, GuildConfig> guildConfigs;
     private final TicketHandler ticketHandler;
     private final CloseRequestHandler closeRequestHandler;
+    private final HistoryHandler historyHandler;
     private final ErrorLogger errorLogger;
 
     public ButtonListener(Map<String, GuildConfig> guildConfigs) {
         this.guildConfigs = guildConfigs;
         this.ticketHandler = new TicketHandler(guildConfigs);
         this.closeRequestHandler = new CloseRequestHandler(guildConfigs);
+        this.historyHandler = new HistoryHandler(guildConfigs);
         this.errorLogger = new ErrorLogger(guildConfigs);
     }
 
@@ -28,6 +31,12 @@ public class ButtonListener extends ListenerAdapter {
         String buttonId = event.getComponentId();
 
         try {
+            // History navigation buttons carry their page cursor in the ID
+            if (buttonId.startsWith(HistoryHandler.BUTTON_PREFIX)) {
+                historyHandler.handleButton(event);
+                return;
+            }
+
             switch (buttonId) {
                 // Ticket creation buttons
                 case "create_support_ticket" ->
@@ -0,0 +1,20 @@
+package com.discordticketbot.listeners;
+
+import com.discordticketbot.database.CloseRequestStore;
+import com.discordticketbot.database.TicketStores;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+public class ChannelListener extends ListenerAdapter {
+    private final CloseRequestStore closeRequestStore;
+
+    public ChannelListener() {
+        this.closeRequestStore = TicketStores.get().closeRequests();
+    }
+
+    @Override
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        // Deleted ticket channels never need their close request state again
+        closeRequestStore.evictChannel(event.getChannel().getId());
+    }
+}
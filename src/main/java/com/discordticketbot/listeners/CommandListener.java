@@ -17,6 +17,8 @@ public class CommandListener extends ListenerAdapter {
     private final CleanupHandler cleanupHandler;
     private final AssignmentHandler assignmentHandler;
     private final StatsHandler statsHandler;
+    private final HistoryHandler historyHandler;
+    private final TranscriptSearchHandler transcriptSearchHandler;
     private final CloseRequestHandler closeRequestHandler;
     private final ErrorLogger errorLogger;
 
@@ -29,6 +31,8 @@ public class CommandListener extends ListenerAdapter {
         this.cleanupHandler = new CleanupHandler(guildConfigs);
         this.assignmentHandler = new AssignmentHandler(guildConfigs);
         this.statsHandler = new StatsHandler(guildConfigs);
+        this.historyHandler = new HistoryHandler(guildConfigs);
+        this.transcriptSearchHandler = new TranscriptSearchHandler(guildConfigs);
         this.closeRequestHandler = new CloseRequestHandler(guildConfigs);
         this.errorLogger = new ErrorLogger(guildConfigs);
     }
@@ -46,6 +50,12 @@ public class CommandListener extends ListenerAdapter {
                 case "cleanup" -> cleanupHandler.handle(event);
                 case "assign" -> assignmentHandler.handle(event);
                 case "stats" -> statsHandler.handle(event);
+                case "history" -> historyHandler.handle(event);
+                case "transcript" -> {
+                    if ("search".equals(event.getSubcommandName())) {
+                        transcriptSearchHandler.handle(event);
+                    }
+                }
                 case "closerequest" -> closeRequestHandler.handleCloseRequest(event);
                 case "autoclose" -> {
                     if ("exclude".equals(event.getSubcommandName())) {
@@ -50,6 +50,13 @@ public class CommandBuilder {
         // Assignment command options
         OptionData assignTargetOpt = new OptionData(OptionType.USER, "member", "👤 Staff member to assign this ticket to", true);
 
+        // History command options
+        OptionData historyUserOpt = new OptionData(OptionType.USER, "user", "👤 Only show tickets opened by this user (optional)", false);
+
+        // Transcript search options
+        OptionData transcriptQueryOpt = new OptionData(OptionType.STRING, "query", "🔎 Words to find; use \"quotes\" for a phrase and -word to exclude", true)
+                .setMaxLength(200);
+
         return List.of(
                 // Help command - shows all available commands
                 Commands.slash("help", "📋 Display all available bot commands and ticket system features"),
@@ -64,6 +71,17 @@ public class CommandBuilder {
                 // Slash command - view ticket statistics
                 Commands.slash("stats", "📊 View ticket statistics for this server (Administrator required)"),
 
+                // History command - browse past tickets page by page
+                Commands.slash("history", "📜 Browse ticket history for this server or a user (Staff only)")
+                        .addOptions(historyUserOpt),
+
+                // Transcript command - search past transcripts
+                Commands.slash("transcript", "📜 Work with ticket transcripts (Staff only)")
+                        .addSubcommands(
+                                new SubcommandData("search", "Find past transcripts by their text")
+                                        .addOptions(transcriptQueryOpt)
+                        ),
+
                 // Config command - view current settings
                 Commands.slash("config", "🔧 View current bot configuration and settings (Administrator required)"),
 
@@ -0,0 +1,62 @@
+package com.discordticketbot.utils;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Reads optional tuning settings from environment variables, falling back to the .env file
+ * for local development (same lookup order as DATABASE_URL and BOT_TOKEN).
+ */
+public class EnvUtil {
+    private static Dotenv dotenv;
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getenv(name);
+
+        if (value == null || value.isBlank()) {
+            try {
+                value = getDotenv().get(name);
+            } catch (Exception e) {
+                value = null;
+            }
+        }
+
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid integer for " + name + ": '" + value + "', using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid number for " + name + ": '" + value + "', using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+        return value.equalsIgnoreCase("true") || value.equals("1") || value.equalsIgnoreCase("yes");
+    }
+
+    private static synchronized Dotenv getDotenv() {
+        if (dotenv == null) {
+            dotenv = Dotenv.configure().ignoreIfMissing().load();
+        }
+        return dotenv;
+    }
+}
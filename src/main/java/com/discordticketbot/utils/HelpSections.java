@@ -31,6 +31,10 @@ public class HelpSections {
                         "Request ticket closure with optional auto-close (1-168h). Requires user confirmation.", false);
                 embed.addField("/autoclose exclude",
                         "Exclude a ticket from auto-close timers. Useful for complex issues.", false);
+                embed.addField("/history [user]",
+                        "Browse past tickets for the server or one user, ten per page, with Newer/Older buttons.", false);
+                embed.addField("/transcript search <query>",
+                        "Find past transcripts by their text. Use \"quotes\" for a phrase and -word to exclude.", false);
             }
             case "user" -> {
                 embed.setTitle("👥 User Features");
@@ -1,10 +1,22 @@
 package com.discordticketbot.utils;
 
+import com.discordticketbot.database.StatementStats;
+import com.discordticketbot.database.TicketStores;
+import com.discordticketbot.database.TranscriptStore;
+import com.discordticketbot.handlers.TranscriptJobService;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
 import java.io.*;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -15,12 +27,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class HttpServerUtil {
     private static final int DEFAULT_PORT = 8080;
-    private static final String TRANSCRIPTS_DIR = "transcripts";
     private static final AtomicBoolean serverRunning = new AtomicBoolean(false);
     private static ServerSocket serverSocket;
     private static ExecutorService executorService;
     private static Thread serverThread;
 
+    private static final String SEARCH_TOKEN_VARIABLE = "TRANSCRIPT_SEARCH_TOKEN";
+    // The metrics list every statement the bot runs, which would expose the schema
+    private static final String METRICS_TOKEN_VARIABLE = "METRICS_TOKEN";
+
     /**
      * Starts the HTTP server on the specified port.
      */
@@ -31,6 +46,9 @@ public class HttpServerUtil {
         }
 
         try {
+            // Load the transcript index now rather than on the first request
+            TranscriptIndex.getInstance();
+
             serverSocket = new ServerSocket(port);
             executorService = Executors.newCachedThreadPool();
             serverRunning.set(true);
@@ -123,6 +141,16 @@ public class HttpServerUtil {
             String method = requestParts[0];
             String path = requestParts[1];
 
+            // Headers, names in lower case
+            Map<String, String> headers = new HashMap<>();
+            String headerLine;
+            while ((headerLine = in.readLine()) != null && !headerLine.isEmpty()) {
+                int colon = headerLine.indexOf(':');
+                if (colon > 0) {
+                    headers.put(headerLine.substring(0, colon).trim().toLowerCase(Locale.ROOT), headerLine.substring(colon + 1).trim());
+                }
+            }
+
             if (!"GET".equals(method)) {
                 sendErrorResponse(out, 405, "Method Not Allowed");
                 return;
@@ -130,9 +158,19 @@ public class HttpServerUtil {
 
             // Handle different paths
             if (path.startsWith("/transcript/")) {
-                handleTranscriptRequest(out, path);
+                handleTranscriptRequest(out, path, headers);
             } else if ("/health".equals(path)) {
                 handleHealthCheck(out);
+            } else if ("/metrics/queries".equals(path) || path.startsWith("/metrics/queries?")) {
+                if (authorize(out, headers, METRICS_TOKEN_VARIABLE)) {
+                    handleQueryMetricsRequest(out, path);
+                }
+            } else if ("/metrics/transcripts".equals(path)) {
+                if (authorize(out, headers, METRICS_TOKEN_VARIABLE)) {
+                    handleTranscriptMetricsRequest(out);
+                }
+            } else if ("/search".equals(path) || path.startsWith("/search?")) {
+                handleSearchRequest(out, path, headers);
             } else if ("/".equals(path)) {
                 handleRootRequest(out);
             } else {
@@ -153,7 +191,7 @@ public class HttpServerUtil {
     /**
      * Handles transcript requests.
      */
-    private static void handleTranscriptRequest(OutputStream out, String path) throws IOException {
+    private static void handleTranscriptRequest(OutputStream out, String path, Map<String, String> headers) throws IOException {
         String uniqueId = path.substring("/transcript/".length());
         if (uniqueId.isEmpty()) {
             sendErrorResponse(out, 400, "Missing transcript ID");
@@ -167,7 +205,42 @@ public class HttpServerUtil {
         }
 
         // Send transcript file
-        sendFileResponse(out, transcriptFile, "text/html");
+        sendFileResponse(out, transcriptFile, "text/html; charset=utf-8", acceptsGzip(headers.get("accept-encoding")));
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip, i.e. lists gzip or * without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean allowed = true;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    try {
+                        allowed = Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        allowed = false;
+                    }
+                }
+            }
+
+            // An explicit gzip entry wins over *
+            if ("gzip".equals(name) || "x-gzip".equals(name)) {
+                return allowed;
+            }
+            if ("*".equals(name)) {
+                wildcard = allowed;
+            }
+        }
+        return wildcard;
     }
 
     /**
@@ -183,6 +256,142 @@ public class HttpServerUtil {
         out.write(response.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Handles slow statement requests: /metrics/queries?limit=20&sort=p95|p99|max|total|count
+     */
+    private static void handleQueryMetricsRequest(OutputStream out, String path) throws IOException {
+        Map<String, String> params = parseQueryString(path);
+        String sort = params.getOrDefault("sort", "p95");
+
+        int limit;
+        try {
+            limit = Math.max(1, Math.min(200, Integer.parseInt(params.getOrDefault("limit", "20"))));
+        } catch (NumberFormatException e) {
+            sendErrorResponse(out, 400, "Invalid limit");
+            return;
+        }
+
+        byte[] body = StatementStats.getInstance().getReport(limit, sort).getBytes(StandardCharsets.UTF_8);
+        String response = "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: text/plain; charset=utf-8\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Cache-Control: no-store\r\n" +
+                "\r\n";
+        out.write(response.getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+    }
+
+    /**
+     * Handles transcript job metrics requests: queue depth and queue wait / render time percentiles
+     */
+    private static void handleTranscriptMetricsRequest(OutputStream out) throws IOException {
+        byte[] body = (TranscriptJobService.getInstance().getMetricsSummary() + "\n").getBytes(StandardCharsets.UTF_8);
+        String response = "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: text/plain; charset=utf-8\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Cache-Control: no-store\r\n" +
+                "\r\n";
+        out.write(response.getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+    }
+
+    /**
+     * Check "Authorization: Bearer {token}" against the token in {@code tokenVariable}. Answers
+     * 404 while no token is set, so the endpoint doesn't exist, and 401 for a wrong token.
+     * Returns whether the request may go on.
+     */
+    private static boolean authorize(OutputStream out, Map<String, String> headers, String tokenVariable) throws IOException {
+        String token = EnvUtil.get(tokenVariable, "");
+        if (token.isEmpty()) {
+            sendErrorResponse(out, 404, "Not Found");
+            return false;
+        }
+
+        String authorization = headers.getOrDefault("authorization", "");
+        if (!MessageDigest.isEqual(("Bearer " + token).getBytes(StandardCharsets.UTF_8), authorization.getBytes(StandardCharsets.UTF_8))) {
+            sendErrorResponse(out, 401, "Unauthorized");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Handles transcript search requests: /search?guild={guildId}&q={query}&limit=10, answered
+     * with JSON. Transcripts are private to their server, so this needs
+     * "Authorization: Bearer {TRANSCRIPT_SEARCH_TOKEN}" and does not exist while no token is set.
+     */
+    private static void handleSearchRequest(OutputStream out, String path, Map<String, String> headers) throws IOException {
+        if (!authorize(out, headers, SEARCH_TOKEN_VARIABLE)) {
+            return;
+        }
+
+        Map<String, String> params = parseQueryString(path);
+        String guildId = params.getOrDefault("guild", "");
+        String query = params.getOrDefault("q", "").trim();
+        if (!guildId.matches("\\d{1,20}") || query.isEmpty()) {
+            sendErrorResponse(out, 400, "guild and q are required");
+            return;
+        }
+
+        int limit;
+        try {
+            limit = Math.max(1, Math.min(50, Integer.parseInt(params.getOrDefault("limit", "10"))));
+        } catch (NumberFormatException e) {
+            sendErrorResponse(out, 400, "Invalid limit");
+            return;
+        }
+
+        long start = System.nanoTime();
+        DataArray results = DataArray.empty();
+        for (TranscriptStore.TranscriptSearchResult result : TicketStores.get().transcripts().searchTranscripts(guildId, query, limit)) {
+            results.add(DataObject.empty()
+                    .put("id", result.uniqueId)
+                    .put("url", TranscriptUtil.generateDirectLink(result.uniqueId))
+                    .put("channel_id", result.channelId)
+                    .put("channel_name", result.channelName)
+                    .put("message_count", result.messageCount)
+                    .put("created_at", result.createdAt.toInstant().toString())
+                    .put("rank", result.rank)
+                    .put("snippet", result.snippet));
+        }
+
+        byte[] body = DataObject.empty()
+                .put("query", query)
+                .put("took_ms", (System.nanoTime() - start) / 1_000_000)
+                .put("results", results)
+                .toJson();
+        String response = "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: application/json; charset=utf-8\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Cache-Control: no-store\r\n" +
+                "\r\n";
+        out.write(response.getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+    }
+
+    /**
+     * Decoded parameters of a request path's query string
+     */
+    private static Map<String, String> parseQueryString(String path) {
+        Map<String, String> params = new HashMap<>();
+        int queryStart = path.indexOf('?');
+        if (queryStart < 0) {
+            return params;
+        }
+
+        for (String param : path.substring(queryStart + 1).split("&")) {
+            String[] pair = param.split("=", 2);
+            if (pair.length == 2) {
+                try {
+                    params.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8), URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+                } catch (IllegalArgumentException e) {
+                    // Malformed escape, skip the parameter
+                }
+            }
+        }
+        return params;
+    }
+
     /**
      * Handles root requests.
      */
@@ -194,25 +403,45 @@ public class HttpServerUtil {
                 "<!DOCTYPE html><html><head><title>Discord Ticket Bot Transcript Server</title></head>" +
                 "<body><h1>Discord Ticket Bot Transcript Server</h1>" +
                 "<p>Use <code>/transcript/{uniqueId}</code> to access transcripts.</p>" +
-                "<p>Use <code>/health</code> for health check.</p></body></html>";
+                "<p>Use <code>/health</code> for health check.</p>" +
+                "<p>Use <code>/search?guild={guildId}&amp;q={words}</code> with the search token to search transcripts.</p></body></html>";
         out.write(response.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Sends a file response.
+     * Sends a file response. A gzip-compressed file is sent as stored when the client accepts
+     * gzip, and decompressed while sending otherwise (without a length, closing the connection).
      */
-    private static void sendFileResponse(OutputStream out, File file, String contentType) throws IOException {
-        byte[] fileContent = java.nio.file.Files.readAllBytes(file.toPath());
-        
-        String response = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: " + contentType + "\r\n" +
-                "Content-Length: " + fileContent.length + "\r\n" +
-                "Access-Control-Allow-Origin: *\r\n" +
-                "Cache-Control: public, max-age=3600\r\n" +
-                "\r\n";
-        
-        out.write(response.getBytes(StandardCharsets.UTF_8));
-        out.write(fileContent);
+    private static void sendFileResponse(OutputStream out, File file, String contentType, boolean acceptsGzip) throws IOException {
+        boolean compressed = TranscriptUtil.isCompressed(file);
+        boolean sendStored = !compressed || acceptsGzip;
+
+        StringBuilder response = new StringBuilder("HTTP/1.1 200 OK\r\n")
+                .append("Content-Type: ").append(contentType).append("\r\n");
+        if (sendStored) {
+            response.append("Content-Length: ").append(file.length()).append("\r\n");
+        } else {
+            response.append("Connection: close\r\n");
+        }
+        if (compressed) {
+            if (acceptsGzip) {
+                response.append("Content-Encoding: gzip\r\n");
+            }
+            response.append("Vary: Accept-Encoding\r\n");
+        }
+        response.append("Access-Control-Allow-Origin: *\r\n")
+                .append("Cache-Control: public, max-age=3600\r\n")
+                .append("\r\n");
+
+        out.write(response.toString().getBytes(StandardCharsets.UTF_8));
+        if (sendStored) {
+            java.nio.file.Files.copy(file.toPath(), out);
+        } else {
+            try (InputStream in = TranscriptUtil.openTranscript(file)) {
+                in.transferTo(out);
+            }
+        }
+        out.flush();
     }
 
     /**
@@ -231,19 +460,6 @@ public class HttpServerUtil {
      * Finds a transcript file by unique ID.
      */
     private static File findTranscriptFile(String uniqueId) {
-        File transcriptsDir = new File(TRANSCRIPTS_DIR);
-        if (!transcriptsDir.exists()) {
-            return null;
-        }
-
-        File[] files = transcriptsDir.listFiles((dir, name) -> name.endsWith(".html"));
-        if (files != null) {
-            for (File file : files) {
-                if (file.getName().contains(uniqueId)) {
-                    return file;
-                }
-            }
-        }
-        return null;
+        return TranscriptIndex.getInstance().find(uniqueId);
     }
 }
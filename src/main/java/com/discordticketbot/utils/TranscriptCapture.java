@@ -0,0 +1,118 @@
+package com.discordticketbot.utils;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageHistory;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a ticket channel's whole history for a transcript, oldest message first, one page of
+ * 100 at a time.
+ *
+ * Each page is handed to the listener as soon as it arrives and is not kept afterwards, so a
+ * long ticket never holds more than one page of {@link Message}s. Pages are fetched one after
+ * another on the calling thread with complete(), which waits behind Discord's rate limits, so
+ * a capture slows down under them instead of failing; it must therefore not run on one of
+ * JDA's callback threads. Messages sent after the capture started are left out. Capture stops
+ * early at TRANSCRIPT_MAX_MESSAGES or TRANSCRIPT_MAX_SECONDS, and the result says so.
+ */
+public class TranscriptCapture {
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Receives the pages of a capture, in order, on the capturing thread
+     */
+    public interface Listener {
+        /**
+         * The next page, oldest message first
+         */
+        void onPage(List<Message> messages) throws Exception;
+    }
+
+    /**
+     * Outcome of a finished capture
+     */
+    public static class Result {
+        public final int messageCount;
+        public final int pageCount;
+        public final long elapsedMillis;
+        /** Why the capture stopped before the newest message, or null if it is complete */
+        public final String truncatedReason;
+
+        Result(int messageCount, int pageCount, long elapsedMillis, String truncatedReason) {
+            this.messageCount = messageCount;
+            this.pageCount = pageCount;
+            this.elapsedMillis = elapsedMillis;
+            this.truncatedReason = truncatedReason;
+        }
+
+        public boolean isTruncated() {
+            return truncatedReason != null;
+        }
+    }
+
+    private TranscriptCapture() {
+    }
+
+    /**
+     * Capture {@code channel} with the configured ceilings, blocking until done
+     */
+    public static Result run(TextChannel channel, Listener listener) throws Exception {
+        int maxMessages = Math.max(PAGE_SIZE, EnvUtil.getInt("TRANSCRIPT_MAX_MESSAGES", 20000));
+        long maxMillis = Math.max(1, EnvUtil.getLong("TRANSCRIPT_MAX_SECONDS", 300)) * 1000;
+        long lastMessageId = channel.getLatestMessageIdLong();
+        long startNanos = System.nanoTime();
+
+        int messageCount = 0;
+        int pageCount = 0;
+        String afterId = null;
+        while (true) {
+            MessageHistory history = (afterId == null
+                    ? MessageHistory.getHistoryFromBeginning(channel)
+                    : MessageHistory.getHistoryAfter(channel, afterId))
+                    .limit(PAGE_SIZE).complete();
+
+            // Discord returns a page newest first
+            List<Message> retrieved = history.getRetrievedHistory();
+            List<Message> messages = new ArrayList<>(retrieved.size());
+            boolean reachedEnd = retrieved.size() < PAGE_SIZE;
+            for (int i = retrieved.size() - 1; i >= 0; i--) {
+                Message message = retrieved.get(i);
+                if (lastMessageId != 0 && message.getIdLong() > lastMessageId) {
+                    reachedEnd = true;
+                    break;
+                }
+                messages.add(message);
+            }
+
+            String truncatedReason = null;
+            if (messageCount + messages.size() > maxMessages) {
+                messages = messages.subList(0, maxMessages - messageCount);
+                truncatedReason = "stopped at the limit of " + maxMessages + " messages";
+            }
+
+            if (!messages.isEmpty()) {
+                listener.onPage(messages);
+                messageCount += messages.size();
+                pageCount++;
+            }
+
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            if (truncatedReason == null && !reachedEnd) {
+                if (messageCount >= maxMessages) {
+                    truncatedReason = "stopped at the limit of " + maxMessages + " messages";
+                } else if (elapsedMillis > maxMillis) {
+                    truncatedReason = "stopped after " + maxMillis / 1000 + " seconds";
+                }
+            }
+
+            if (truncatedReason != null || reachedEnd || messages.isEmpty()) {
+                return new Result(messageCount, pageCount, elapsedMillis, truncatedReason);
+            }
+
+            afterId = messages.get(messages.size() - 1).getId();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.discordticketbot.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps each HTML transcript's unique ID to its file, so the web server finds a transcript
+ * without listing the transcripts directory.
+ *
+ * The map is kept in memory and persisted in transcripts/index.tsv, one "uniqueId\tfileName"
+ * line per transcript, appended as each transcript is saved. It is loaded on first use; when
+ * the index file is missing (first start, or transcripts copied in by hand) it is rebuilt from
+ * the file names in the directory.
+ */
+public class TranscriptIndex {
+    private static final String INDEX_FILE = "index.tsv";
+    // <channel>_<yyyy-MM-dd_HH-mm-ss>_<uniqueId>.html, optionally .gz
+    private static final Pattern HTML_FILE_NAME = Pattern.compile(
+            "_([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\.html(\\.gz)?$");
+
+    private static TranscriptIndex instance;
+
+    private final File directory;
+    private final Path indexFile;
+    private final ConcurrentHashMap<String, String> fileNames = new ConcurrentHashMap<>();
+
+    private TranscriptIndex() {
+        this.directory = TranscriptUtil.transcriptsDirectory();
+        this.indexFile = new File(directory, INDEX_FILE).toPath();
+
+        if (Files.exists(indexFile) && load()) {
+            System.out.println("📇 Transcript index loaded: " + fileNames.size() + " transcripts");
+        } else {
+            rebuild();
+            System.out.println("📇 Transcript index rebuilt from " + directory.getPath() + ": " + fileNames.size() + " transcripts");
+        }
+    }
+
+    public static synchronized TranscriptIndex getInstance() {
+        if (instance == null) {
+            instance = new TranscriptIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * The HTML transcript with this unique ID, or null if there is none
+     */
+    public File find(String uniqueId) {
+        String fileName = fileNames.get(uniqueId);
+        return fileName != null ? new File(directory, fileName) : null;
+    }
+
+    /**
+     * Add a newly saved HTML transcript
+     */
+    public synchronized void record(String uniqueId, File htmlFile) {
+        if (htmlFile.getName().equals(fileNames.put(uniqueId, htmlFile.getName()))) {
+            return; // Already picked up when the index was rebuilt
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            writer.write(uniqueId + "\t" + htmlFile.getName() + "\n");
+        } catch (IOException e) {
+            // A stale index would hide this transcript after a restart; without one it is rebuilt
+            System.err.println("❌ Failed to update transcript index, it will be rebuilt on next start: " + e.getMessage());
+            try {
+                Files.deleteIfExists(indexFile);
+            } catch (IOException deleteError) {
+                System.err.println("❌ Failed to remove transcript index: " + deleteError.getMessage());
+            }
+        }
+    }
+
+    private boolean load() {
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0 && tab < line.length() - 1) {
+                    fileNames.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Failed to read transcript index: " + e.getMessage());
+            fileNames.clear();
+            return false;
+        }
+    }
+
+    private void rebuild() {
+        File[] files = directory.listFiles((dir, name) -> HTML_FILE_NAME.matcher(name).find());
+        StringBuilder index = new StringBuilder();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = HTML_FILE_NAME.matcher(file.getName());
+                if (matcher.find()) {
+                    fileNames.put(matcher.group(1), file.getName());
+                    index.append(matcher.group(1)).append('\t').append(file.getName()).append('\n');
+                }
+            }
+        }
+
+        // Written whole and moved into place, so a crash never leaves half an index
+        Path temporary = new File(directory, INDEX_FILE + ".tmp").toPath();
+        try {
+            Files.writeString(temporary, index, StandardCharsets.UTF_8);
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("❌ Failed to write transcript index: " + e.getMessage());
+        }
+    }
+}
@@ -1,24 +1,27 @@
 package com.discordticketbot.utils;
 
-import com.discordticketbot.database.CloseRequestDAO;
+import com.discordticketbot.database.CloseRequestStore;
+import com.discordticketbot.database.TicketStores;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.MessageReaction;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class TranscriptUtil {
 
@@ -26,28 +29,43 @@ public class TranscriptUtil {
     private static final ZoneOffset TIMEZONE_OFFSET = ZoneOffset.ofHours(8);
     private static final String TIMEZONE_SUFFIX = " UTC+08:00";
 
+
     // Pattern to match Discord timestamp format <t:timestamp:format>
     private static final Pattern DISCORD_TIMESTAMP_PATTERN = Pattern.compile("<t:(\\d+):[FfDdTtRr]>");
     private static final DateTimeFormatter TRANSCRIPT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final String TRANSCRIPTS_DIR = "transcripts";
+    private static volatile File transcriptsDirectoryOverride;
+    // Transcripts are stored gzip-compressed; older ones may still be plain files
+    static final String GZIP_SUFFIX = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    static final String TEXT_FOOTER = "=== END OF TRANSCRIPT ===\n";
+
+    // Closes the messages section opened by the header
+    static final String HTML_FOOTER = """
+                </div>
+                <div class="footer">
+                    <p>📄 End of Transcript</p>
+                    <p>Generated by Discord Ticket Bot</p>
+                </div>
+            </div>
+        </body>
+        </html>""";
+
     /**
-     * Creates a plain text transcript content from channel messages.
-     * Enhanced to include close request details and better formatting.
+     * Appends the header of a plain text transcript, up to the first message
      */
-    public static String createTranscriptContent(TextChannel channel, List<Message> messages) {
-        StringBuilder transcript = new StringBuilder();
-
-        // Sort messages to be in chronological order (oldest first)
-        List<Message> sortedMessages = messages.stream()
-                .sorted((m1, m2) -> m1.getTimeCreated().compareTo(m2.getTimeCreated()))
-                .toList();
-
-        // Header
+    static void appendTextHeader(StringBuilder transcript, TextChannel channel, int messageCount, String note) {
         transcript.append("=== DISCORD TICKET TRANSCRIPT ===\n");
         transcript.append("Server: ").append(channel.getGuild().getName()).append("\n");
         transcript.append("Channel: ").append(channel.getName()).append("\n");
         transcript.append("Category: ").append(channel.getParentCategory() != null ? channel.getParentCategory().getName() : "None").append("\n");
-        transcript.append("Total Messages: ").append(sortedMessages.size()).append("\n");
+        transcript.append("Total Messages: ").append(messageCount).append("\n");
+        if (note != null) {
+            transcript.append("Note: ").append(note).append("\n");
+        }
         transcript.append("Generated: ").append(LocalDateTime.now(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER)).append(TIMEZONE_SUFFIX).append("\n");
         transcript.append("Generated by: Bot System\n");
 
@@ -55,69 +73,59 @@ public class TranscriptUtil {
         appendCloseRequestInfo(channel.getId(), transcript);
 
         transcript.append("=====================================\n\n");
+    }
 
-        // Messages
-        for (Message msg : sortedMessages) {
-            String timestamp = msg.getTimeCreated().atZoneSameInstant(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER);
-            transcript.append(String.format("[%s%s] %s: %s\n", timestamp, TIMEZONE_SUFFIX, msg.getAuthor().getName(), processMessageContent(msg.getContentDisplay())));
-
-            if (!msg.getEmbeds().isEmpty()) {
-                for (MessageEmbed embed : msg.getEmbeds()) {
-                    transcript.append("    [EMBED] Title: ").append(embed.getTitle() != null ? embed.getTitle() : "No Title").append("\n");
-                    if (embed.getDescription() != null) {
-                        String description = convertDiscordTimestamps(embed.getDescription());
-                        // Enhanced parsing for close requests
-                        description = enhanceCloseRequestInfo(description);
-                        transcript.append("    [EMBED] Description: ").append(description).append("\n");
-                    }
+    /**
+     * Appends one message (with its embeds, attachments and reactions) to a plain text transcript
+     */
+    public static void appendTextMessage(StringBuilder transcript, Message msg) {
+        String timestamp = msg.getTimeCreated().atZoneSameInstant(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER);
+        transcript.append(String.format("[%s%s] %s: %s\n", timestamp, TIMEZONE_SUFFIX, msg.getAuthor().getName(), processMessageContent(msg.getContentDisplay())));
+
+        if (!msg.getEmbeds().isEmpty()) {
+            for (MessageEmbed embed : msg.getEmbeds()) {
+                transcript.append("    [EMBED] Title: ").append(embed.getTitle() != null ? embed.getTitle() : "No Title").append("\n");
+                if (embed.getDescription() != null) {
+                    String description = convertDiscordTimestamps(embed.getDescription());
+                    // Enhanced parsing for close requests
+                    description = enhanceCloseRequestInfo(description);
+                    transcript.append("    [EMBED] Description: ").append(description).append("\n");
+                }
 
-                    // Process embed fields for additional close request details
-                    if (!embed.getFields().isEmpty()) {
-                        for (MessageEmbed.Field field : embed.getFields()) {
-                            if (field.getName() != null && field.getValue() != null) {
-                                transcript.append("    [EMBED] ").append(field.getName()).append(": ").append(field.getValue()).append("\n");
-                            }
+                // Process embed fields for additional close request details
+                if (!embed.getFields().isEmpty()) {
+                    for (MessageEmbed.Field field : embed.getFields()) {
+                        if (field.getName() != null && field.getValue() != null) {
+                            transcript.append("    [EMBED] ").append(field.getName()).append(": ").append(field.getValue()).append("\n");
                         }
                     }
                 }
             }
+        }
 
-            if (!msg.getAttachments().isEmpty()) {
-                for (Message.Attachment attachment : msg.getAttachments()) {
-                    transcript.append("    [ATTACHMENT] ").append(attachment.getFileName())
-                            .append(" (").append(getReadableFileSize(attachment.getSize())).append(")")
-                            .append(" - ").append(attachment.getUrl()).append("\n");
-                }
+        if (!msg.getAttachments().isEmpty()) {
+            for (Message.Attachment attachment : msg.getAttachments()) {
+                transcript.append("    [ATTACHMENT] ").append(attachment.getFileName())
+                        .append(" (").append(getReadableFileSize(attachment.getSize())).append(")")
+                        .append(" - ").append(attachment.getUrl()).append("\n");
             }
+        }
 
-            if (!msg.getReactions().isEmpty()) {
-                transcript.append("    [REACTIONS] ");
-                for (MessageReaction reaction : msg.getReactions()) {
-                    transcript.append(reaction.getEmoji().getName()).append(":").append(reaction.getCount()).append(" ");
-                }
-                transcript.append("\n");
+        if (!msg.getReactions().isEmpty()) {
+            transcript.append("    [REACTIONS] ");
+            for (MessageReaction reaction : msg.getReactions()) {
+                transcript.append(reaction.getEmoji().getName()).append(":").append(reaction.getCount()).append(" ");
             }
             transcript.append("\n");
         }
-
-        // Footer
-        transcript.append("=== END OF TRANSCRIPT ===\n");
-        return transcript.toString();
+        transcript.append("\n");
     }
 
     /**
-     * Creates an HTML transcript content from channel messages.
-     * Enhanced with modern styling and better formatting.
+     * Appends the start of an HTML transcript, up to the first message
      */
-    public static String createHtmlTranscriptContent(TextChannel channel, List<Message> messages) {
-        StringBuilder html = new StringBuilder();
-
-        // Sort messages to be in chronological order (oldest first)
-        List<Message> sortedMessages = messages.stream()
-                .sorted((m1, m2) -> m1.getTimeCreated().compareTo(m2.getTimeCreated()))
-                .toList();
-
-        // HTML Header with CSS styling
+    static void appendHtmlHeader(StringBuilder html, TextChannel channel, int messageCount, String note) {
+        // Document head with CSS styling
         html.append("<!DOCTYPE html>\n");
         html.append("<html lang=\"en\">\n");
         html.append("<head>\n");
@@ -180,8 +188,14 @@ public class TranscriptUtil {
         html.append("                </div>\n");
         html.append("                <div class=\"info-item\">\n");
         html.append("                    <div class=\"info-label\">Total Messages</div>\n");
-        html.append("                    <div class=\"info-value\">").append(sortedMessages.size()).append("</div>\n");
+        html.append("                    <div class=\"info-value\">").append(messageCount).append("</div>\n");
         html.append("                </div>\n");
+        if (note != null) {
+            html.append("                <div class=\"info-item\">\n");
+            html.append("                    <div class=\"info-label\">Note</div>\n");
+            html.append("                    <div class=\"info-value\">").append(escapeHtml(note)).append("</div>\n");
+            html.append("                </div>\n");
+        }
         html.append("                <div class=\"info-item\">\n");
         html.append("                    <div class=\"info-label\">Generated</div>\n");
         html.append("                    <div class=\"info-value\">").append(LocalDateTime.now(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER)).append(TIMEZONE_SUFFIX).append("</div>\n");
@@ -202,83 +216,72 @@ public class TranscriptUtil {
         // Messages Section
         html.append("        <div class=\"messages\">\n");
         html.append("            <h2 style=\"color: #ffffff; margin-bottom: 20px; border-bottom: 2px solid #7289da; padding-bottom: 10px;\">💬 Messages</h2>\n");
-        
-        for (Message msg : sortedMessages) {
-            String timestamp = msg.getTimeCreated().atZoneSameInstant(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER);
-            String avatarUrl = msg.getAuthor().getAvatarUrl() != null ? msg.getAuthor().getAvatarUrl() : "https://cdn.discordapp.com/embed/avatars/0.png";
-            
-            html.append("            <div class=\"message\">\n");
-            html.append("                <div class=\"message-header\">\n");
-            html.append("                    <img src=\"").append(avatarUrl).append("\" alt=\"Avatar\" class=\"avatar\">\n");
-            html.append("                    <div class=\"user-info\">\n");
-            html.append("                        <div class=\"username\">").append(escapeHtml(msg.getAuthor().getName())).append("</div>\n");
-            html.append("                        <span class=\"timestamp\">").append(timestamp).append(TIMEZONE_SUFFIX).append("</span>\n");
-            html.append("                    </div>\n");
-            html.append("                </div>\n");
-            html.append("                <div class=\"message-content\">").append(escapeHtml(processMessageContent(msg.getContentDisplay()))).append("</div>\n");
-
-            // Embeds
-            if (!msg.getEmbeds().isEmpty()) {
-                for (MessageEmbed embed : msg.getEmbeds()) {
-                    html.append("                <div class=\"embed\">\n");
-                    if (embed.getTitle() != null) {
-                        html.append("                    <div class=\"embed-title\">").append(escapeHtml(embed.getTitle())).append("</div>\n");
-                    }
-                    if (embed.getDescription() != null) {
-                        String description = convertDiscordTimestamps(embed.getDescription());
-                        description = enhanceCloseRequestInfo(description);
-                        html.append("                    <div class=\"embed-description\">").append(escapeHtml(description)).append("</div>\n");
-                    }
-                    if (!embed.getFields().isEmpty()) {
-                        for (MessageEmbed.Field field : embed.getFields()) {
-                            if (field.getName() != null && field.getValue() != null) {
-                                html.append("                    <div class=\"embed-field\">\n");
-                                html.append("                        <span class=\"embed-field-name\">").append(escapeHtml(field.getName())).append(":</span>\n");
-                                html.append("                        <span class=\"embed-field-value\"> ").append(escapeHtml(field.getValue())).append("</span>\n");
-                                html.append("                    </div>\n");
-                            }
+    }
+
+    /**
+     * Appends one message (with its embeds, attachments and reactions) to an HTML transcript
+     */
+    public static void appendHtmlMessage(StringBuilder html, Message msg) {
+        String timestamp = msg.getTimeCreated().atZoneSameInstant(TIMEZONE_OFFSET).format(TRANSCRIPT_FORMATTER);
+        String avatarUrl = msg.getAuthor().getAvatarUrl() != null ? msg.getAuthor().getAvatarUrl() : "https://cdn.discordapp.com/embed/avatars/0.png";
+
+        html.append("            <div class=\"message\">\n");
+        html.append("                <div class=\"message-header\">\n");
+        html.append("                    <img src=\"").append(avatarUrl).append("\" alt=\"Avatar\" class=\"avatar\">\n");
+        html.append("                    <div class=\"user-info\">\n");
+        html.append("                        <div class=\"username\">").append(escapeHtml(msg.getAuthor().getName())).append("</div>\n");
+        html.append("                        <span class=\"timestamp\">").append(timestamp).append(TIMEZONE_SUFFIX).append("</span>\n");
+        html.append("                    </div>\n");
+        html.append("                </div>\n");
+        html.append("                <div class=\"message-content\">").append(escapeHtml(processMessageContent(msg.getContentDisplay()))).append("</div>\n");
+
+        // Embeds
+        if (!msg.getEmbeds().isEmpty()) {
+            for (MessageEmbed embed : msg.getEmbeds()) {
+                html.append("                <div class=\"embed\">\n");
+                if (embed.getTitle() != null) {
+                    html.append("                    <div class=\"embed-title\">").append(escapeHtml(embed.getTitle())).append("</div>\n");
+                }
+                if (embed.getDescription() != null) {
+                    String description = convertDiscordTimestamps(embed.getDescription());
+                    description = enhanceCloseRequestInfo(description);
+                    html.append("                    <div class=\"embed-description\">").append(escapeHtml(description)).append("</div>\n");
+                }
+                if (!embed.getFields().isEmpty()) {
+                    for (MessageEmbed.Field field : embed.getFields()) {
+                        if (field.getName() != null && field.getValue() != null) {
+                            html.append("                    <div class=\"embed-field\">\n");
+                            html.append("                        <span class=\"embed-field-name\">").append(escapeHtml(field.getName())).append(":</span>\n");
+                            html.append("                        <span class=\"embed-field-value\"> ").append(escapeHtml(field.getValue())).append("</span>\n");
+                            html.append("                    </div>\n");
                         }
                     }
-                    html.append("                </div>\n");
                 }
+                html.append("                </div>\n");
             }
+        }
 
-            // Attachments
-            if (!msg.getAttachments().isEmpty()) {
-                for (Message.Attachment attachment : msg.getAttachments()) {
-                    html.append("                <div class=\"attachment\">\n");
-                    html.append("                    <div class=\"attachment-name\">📎 ").append(escapeHtml(attachment.getFileName())).append("</div>\n");
-                    html.append("                    <div class=\"attachment-size\">Size: ").append(getReadableFileSize(attachment.getSize())).append("</div>\n");
-                    html.append("                    <div class=\"attachment-size\">URL: <a href=\"").append(attachment.getUrl()).append("\" target=\"_blank\" style=\"color: #7289da;\">").append(attachment.getUrl()).append("</a></div>\n");
-                    html.append("                </div>\n");
-                }
+        // Attachments
+        if (!msg.getAttachments().isEmpty()) {
+            for (Message.Attachment attachment : msg.getAttachments()) {
+                html.append("                <div class=\"attachment\">\n");
+                html.append("                    <div class=\"attachment-name\">📎 ").append(escapeHtml(attachment.getFileName())).append("</div>\n");
+                html.append("                    <div class=\"attachment-size\">Size: ").append(getReadableFileSize(attachment.getSize())).append("</div>\n");
+                html.append("                    <div class=\"attachment-size\">URL: <a href=\"").append(attachment.getUrl()).append("\" target=\"_blank\" style=\"color: #7289da;\">").append(attachment.getUrl()).append("</a></div>\n");
+                html.append("                </div>\n");
             }
+        }
 
-            // Reactions
-            if (!msg.getReactions().isEmpty()) {
-                html.append("                <div class=\"reactions\">\n");
-                for (MessageReaction reaction : msg.getReactions()) {
-                    html.append("                    <span class=\"reaction\">").append(reaction.getEmoji().getName()).append(" ").append(reaction.getCount()).append("</span>\n");
-                }
-                html.append("                </div>\n");
+        // Reactions
+        if (!msg.getReactions().isEmpty()) {
+            html.append("                <div class=\"reactions\">\n");
+            for (MessageReaction reaction : msg.getReactions()) {
+                html.append("                    <span class=\"reaction\">").append(reaction.getEmoji().getName()).append(" ").append(reaction.getCount()).append("</span>\n");
             }
-            
-            html.append("            </div>\n");
+            html.append("                </div>\n");
         }
-        
-        html.append("        </div>\n");
-        
-        // Footer
-        html.append("        <div class=\"footer\">\n");
-        html.append("            <p>📄 End of Transcript</p>\n");
-        html.append("            <p>Generated by Discord Ticket Bot</p>\n");
-        html.append("        </div>\n");
-        
-        html.append("    </div>\n");
-        html.append("</body>\n");
-        html.append("</html>");
 
-        return html.toString();
+        html.append("            </div>\n");
     }
 
     /**
@@ -286,8 +289,7 @@ public class TranscriptUtil {
      */
     private static String generateCloseRequestHtml(String channelId) {
         try {
-            CloseRequestDAO closeRequestDAO = new CloseRequestDAO();
-            CloseRequestDAO.CloseRequestDetails details = closeRequestDAO.getCloseRequestDetails(channelId);
+            CloseRequestStore.CloseRequestDetails details = TicketStores.get().closeRequests().getCloseRequestDetails(channelId);
 
             if (details != null) {
                 StringBuilder html = new StringBuilder();
@@ -359,47 +361,55 @@ public class TranscriptUtil {
     }
 
     /**
-     * Saves the plain text transcript to a file.
+     * The transcripts directory, created if missing
      */
-    public static File saveTranscriptToFile(TextChannel channel, String content) throws IOException {
-        File transcriptsDir = new File("transcripts");
+    static File transcriptsDirectory() {
+        File transcriptsDir = transcriptsDirectoryOverride != null ? transcriptsDirectoryOverride : new File(TRANSCRIPTS_DIR);
         if (!transcriptsDir.exists()) transcriptsDir.mkdirs();
+        return transcriptsDir;
+    }
 
-        String fileName = String.format("%s_%s.txt",
-                channel.getName(),
-                LocalDateTime.now(TIMEZONE_OFFSET).format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+    /**
+     * Store transcripts (and their index) somewhere other than ./transcripts, e.g. a temporary
+     * directory for a benchmark. Must be set before the first transcript is written.
+     */
+    static void setTranscriptsDirectory(File directory) {
+        transcriptsDirectoryOverride = directory;
+    }
 
-        File transcriptFile = new File(transcriptsDir, fileName);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(transcriptFile))) {
-            writer.write(content);
-        }
-        System.out.println("Transcript saved: " + transcriptFile.getAbsolutePath());
-        return transcriptFile;
+    static String textFileName(TextChannel channel) {
+        return String.format("%s_%s.txt%s", channel.getName(), LocalDateTime.now(TIMEZONE_OFFSET).format(FILE_NAME_FORMATTER), GZIP_SUFFIX);
+    }
+
+    static String htmlFileName(TextChannel channel, String uniqueId) {
+        return String.format("%s_%s_%s.html%s", channel.getName(), LocalDateTime.now(TIMEZONE_OFFSET).format(FILE_NAME_FORMATTER), uniqueId, GZIP_SUFFIX);
     }
 
     /**
-     * Saves the HTML transcript to a file with a unique identifier.
-     * Returns the file and the unique ID for URL generation.
+     * A new gzip stream writing {@code file}
      */
-    public static TranscriptFileInfo saveHtmlTranscriptToFile(TextChannel channel, String htmlContent) throws IOException {
-        File transcriptsDir = new File("transcripts");
-        if (!transcriptsDir.exists()) transcriptsDir.mkdirs();
+    static OutputStream openCompressed(File file) throws IOException {
+        return new GZIPOutputStream(Files.newOutputStream(file.toPath()), GZIP_BUFFER_SIZE);
+    }
 
-        // Generate unique identifier for the transcript
-        String uniqueId = UUID.randomUUID().toString();
-        
-        String fileName = String.format("%s_%s_%s.html",
-                channel.getName(),
-                LocalDateTime.now(TIMEZONE_OFFSET).format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")),
-                uniqueId);
-
-        File htmlFile = new File(transcriptsDir, fileName);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(htmlFile))) {
-            writer.write(htmlContent);
-        }
-        System.out.println("HTML Transcript saved: " + htmlFile.getAbsolutePath());
-        
-        return new TranscriptFileInfo(htmlFile, uniqueId);
+    /**
+     * Reads a stored transcript, decompressing it if it is gzip-compressed
+     */
+    public static InputStream openTranscript(File file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), GZIP_BUFFER_SIZE);
+        return isCompressed(file) ? new GZIPInputStream(in, GZIP_BUFFER_SIZE) : in;
+    }
+
+    public static boolean isCompressed(File file) {
+        return file.getName().endsWith(GZIP_SUFFIX);
+    }
+
+    /**
+     * The name a stored transcript has once decompressed, e.g. for attaching it to a message
+     */
+    public static String displayName(File file) {
+        String name = file.getName();
+        return isCompressed(file) ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
     }
 
     /**
@@ -422,8 +432,7 @@ public class TranscriptUtil {
      */
     private static void appendCloseRequestInfo(String channelId, StringBuilder transcript) {
         try {
-            CloseRequestDAO closeRequestDAO = new CloseRequestDAO();
-            CloseRequestDAO.CloseRequestDetails details = closeRequestDAO.getCloseRequestDetails(channelId);
+            CloseRequestStore.CloseRequestDetails details = TicketStores.get().closeRequests().getCloseRequestDetails(channelId);
 
             if (details != null) {
                 transcript.append("\n=== CLOSE REQUEST DETAILS ===\n");
@@ -0,0 +1,170 @@
+package com.discordticketbot.utils;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes the text and HTML transcripts of a channel to disk as messages arrive, in one pass.
+ *
+ * Each message is rendered once per format into a small reusable buffer and written straight
+ * to a UTF-8 part file, so the heap holds one message at a time however long the ticket is.
+ * The header (which shows the message count) is only known at the end: {@link #finish} writes
+ * it to the final gzip-compressed file, streams the part file in behind it, then removes the
+ * part files. A writer that is closed without finishing leaves nothing behind.
+ *
+ * Messages must be appended oldest first.
+ */
+public class TranscriptWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The files of a finished transcript
+     */
+    public static class Result {
+        public final File textFile;
+        public final TranscriptUtil.TranscriptFileInfo htmlFile;
+        public final int messageCount;
+
+        Result(File textFile, TranscriptUtil.TranscriptFileInfo htmlFile, int messageCount) {
+            this.textFile = textFile;
+            this.htmlFile = htmlFile;
+            this.messageCount = messageCount;
+        }
+    }
+
+    private final TextChannel channel;
+    private final String uniqueId = UUID.randomUUID().toString();
+    private final Path textPart;
+    private final Path htmlPart;
+    private final Writer textWriter;
+    private final Writer htmlWriter;
+    private final StringBuilder scratch = new StringBuilder(4096);
+    private int messageCount;
+    private boolean finished;
+
+    private TranscriptWriter(TextChannel channel) throws IOException {
+        this.channel = channel;
+        File directory = TranscriptUtil.transcriptsDirectory();
+        this.textPart = new File(directory, "." + uniqueId + ".txt.part").toPath();
+        this.htmlPart = new File(directory, "." + uniqueId + ".html.part").toPath();
+
+        Writer text = null;
+        try {
+            text = openPart(textPart);
+            this.textWriter = text;
+            this.htmlWriter = openPart(htmlPart);
+        } catch (IOException e) {
+            if (text != null) text.close();
+            Files.deleteIfExists(textPart);
+            Files.deleteIfExists(htmlPart);
+            throw e;
+        }
+    }
+
+    /**
+     * Start the transcripts of {@code channel}
+     */
+    public static TranscriptWriter open(TextChannel channel) throws IOException {
+        return new TranscriptWriter(channel);
+    }
+
+    private static Writer openPart(Path part) throws IOException {
+        FileChannel fileChannel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(fileChannel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Render one message into both transcripts
+     */
+    public void append(Message message) throws IOException {
+        scratch.setLength(0);
+        TranscriptUtil.appendTextMessage(scratch, message);
+        textWriter.append(scratch);
+
+        scratch.setLength(0);
+        TranscriptUtil.appendHtmlMessage(scratch, message);
+        htmlWriter.append(scratch);
+
+        messageCount++;
+    }
+
+    /**
+     * Render messages (oldest first) into both transcripts
+     */
+    public void append(List<Message> messages) throws IOException {
+        for (Message message : messages) {
+            append(message);
+        }
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Write the final text and HTML files. {@code note} (nullable) is shown in their headers.
+     */
+    public Result finish(String note) throws IOException {
+        textWriter.close();
+        htmlWriter.close();
+
+        StringBuilder header = new StringBuilder(8192);
+        TranscriptUtil.appendTextHeader(header, channel, messageCount, note);
+        File textFile = new File(TranscriptUtil.transcriptsDirectory(), TranscriptUtil.textFileName(channel));
+        assemble(textFile.toPath(), header, textPart, TranscriptUtil.TEXT_FOOTER);
+
+        header.setLength(0);
+        TranscriptUtil.appendHtmlHeader(header, channel, messageCount, note);
+        File htmlFile = new File(TranscriptUtil.transcriptsDirectory(), TranscriptUtil.htmlFileName(channel, uniqueId));
+        assemble(htmlFile.toPath(), header, htmlPart, TranscriptUtil.HTML_FOOTER);
+
+        finished = true;
+        Files.deleteIfExists(textPart);
+        Files.deleteIfExists(htmlPart);
+
+        System.out.println("Transcript saved: " + textFile.getAbsolutePath());
+        System.out.println("HTML Transcript saved: " + htmlFile.getAbsolutePath());
+        TranscriptIndex.getInstance().record(uniqueId, htmlFile);
+        return new Result(textFile, new TranscriptUtil.TranscriptFileInfo(htmlFile, uniqueId), messageCount);
+    }
+
+    private static void assemble(Path target, CharSequence header, Path body, String footer) throws IOException {
+        try (OutputStream out = TranscriptUtil.openCompressed(target.toFile())) {
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            Files.copy(body, out);
+            out.write(footer.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Release the part files; does nothing after {@link #finish}
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            textWriter.close();
+            htmlWriter.close();
+        } finally {
+            Files.deleteIfExists(textPart);
+            Files.deleteIfExists(htmlPart);
+        }
+    }
+}
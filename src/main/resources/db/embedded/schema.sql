@@ -0,0 +1,91 @@
+-- Schema of the embedded store (TICKET_STORE=embedded), run on every startup.
+-- Mirrors the PostgreSQL schema after all migrations, minus what only matters on a shared
+-- server: no stats rollup (stats are counted from ticket_logs), no partitioning and no
+-- retention bookkeeping. IDs are stored as text.
+
+CREATE TABLE IF NOT EXISTS guild_configs (
+    guild_id VARCHAR(20) PRIMARY KEY,
+    category_id VARCHAR(20),
+    panel_channel_id VARCHAR(20),
+    transcript_channel_id VARCHAR(20),
+    error_log_channel_id VARCHAR(20),
+    ticket_counter INTEGER DEFAULT 0,
+    cleanup_ticket_logs_days INTEGER NOT NULL DEFAULT 30,
+    cleanup_close_requests_days INTEGER NOT NULL DEFAULT 30,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS support_roles (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    guild_id VARCHAR(20) NOT NULL REFERENCES guild_configs (guild_id) ON DELETE CASCADE,
+    role_id VARCHAR(20) NOT NULL,
+    UNIQUE (guild_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS ticket_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    guild_id VARCHAR(20) NOT NULL,
+    channel_id VARCHAR(20),
+    channel_name VARCHAR(100),
+    owner_id VARCHAR(20),
+    ticket_type VARCHAR(20),
+    ticket_number INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    closed_at TIMESTAMP,
+    closed_by VARCHAR(255),
+    status VARCHAR(20) DEFAULT 'open'
+);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_channel_id ON ticket_logs (channel_id);
+DROP INDEX IF EXISTS idx_ticket_logs_guild_created_at;
+DROP INDEX IF EXISTS idx_ticket_logs_guild_owner_created_at;
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_guild_created_at_id ON ticket_logs (guild_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_guild_owner_created_at_id ON ticket_logs (guild_id, owner_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_guild_ticket_number ON ticket_logs (guild_id, ticket_number);
+
+CREATE TABLE IF NOT EXISTS ticket_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    guild_id VARCHAR(20) NOT NULL,
+    channel_id VARCHAR(20) NOT NULL,
+    actor_id VARCHAR(20),
+    event_type SMALLINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    detail TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_events_channel_created_at ON ticket_events (channel_id, created_at);
+
+CREATE TABLE IF NOT EXISTS close_requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    channel_id VARCHAR(20) NOT NULL UNIQUE,
+    guild_id VARCHAR(20),
+    requested_by VARCHAR(20) NOT NULL,
+    ticket_owner VARCHAR(20) NOT NULL,
+    reason TEXT,
+    timeout_hours INTEGER,
+    message_id VARCHAR(20),
+    status VARCHAR(20) DEFAULT 'pending',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    responded_at TIMESTAMP,
+    responded_by VARCHAR(20),
+    excluded_from_autoclose BOOLEAN DEFAULT FALSE,
+    auto_close_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_close_requests_auto_close_at ON close_requests (status, auto_close_at);
+
+-- Searched with LIKE; the PostgreSQL backend adds a tsvector column and GIN index instead
+CREATE TABLE IF NOT EXISTS transcripts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    unique_id VARCHAR(36) NOT NULL UNIQUE,
+    guild_id VARCHAR(20) NOT NULL,
+    channel_id VARCHAR(20) NOT NULL,
+    channel_name VARCHAR(100),
+    message_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    content CLOB NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_transcripts_guild_created_at ON transcripts (guild_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_transcripts_channel ON transcripts (channel_id);
@@ -0,0 +1,64 @@
+-- Baseline schema. Written to be safe on databases created by the old
+-- hand-written createTables()/runMigrations() code as well as on empty ones.
+
+CREATE TABLE IF NOT EXISTS guild_configs (
+    guild_id VARCHAR(20) PRIMARY KEY,
+    category_id TEXT,
+    panel_channel_id TEXT,
+    transcript_channel_id TEXT,
+    ticket_counter INTEGER DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE guild_configs ADD COLUMN IF NOT EXISTS error_log_channel_id VARCHAR(20);
+
+CREATE TABLE IF NOT EXISTS support_roles (
+    id SERIAL PRIMARY KEY,
+    guild_id VARCHAR(20) NOT NULL,
+    role_id VARCHAR(20) NOT NULL,
+    FOREIGN KEY (guild_id) REFERENCES guild_configs(guild_id) ON DELETE CASCADE,
+    UNIQUE(guild_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS ticket_logs (
+    id SERIAL PRIMARY KEY,
+    guild_id VARCHAR(20) NOT NULL,
+    channel_id VARCHAR(20),
+    channel_name VARCHAR(100),
+    owner_id VARCHAR(20),
+    ticket_type VARCHAR(20),
+    ticket_number INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    closed_at TIMESTAMP,
+    closed_by VARCHAR(255),
+    status VARCHAR(20) DEFAULT 'open'
+);
+
+ALTER TABLE ticket_logs ADD COLUMN IF NOT EXISTS ticket_number INTEGER;
+ALTER TABLE ticket_logs ALTER COLUMN closed_by TYPE VARCHAR(255);
+
+CREATE TABLE IF NOT EXISTS close_requests (
+    id SERIAL PRIMARY KEY,
+    channel_id VARCHAR(20) NOT NULL UNIQUE,
+    requested_by VARCHAR(20) NOT NULL,
+    ticket_owner VARCHAR(20) NOT NULL,
+    reason TEXT,
+    timeout_hours INTEGER,
+    message_id VARCHAR(20),
+    status VARCHAR(20) DEFAULT 'pending',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    responded_at TIMESTAMP,
+    responded_by VARCHAR(20),
+    excluded_from_autoclose BOOLEAN DEFAULT FALSE,
+    auto_close_at TIMESTAMP
+);
+
+ALTER TABLE close_requests ADD COLUMN IF NOT EXISTS excluded_from_autoclose BOOLEAN DEFAULT FALSE;
+ALTER TABLE close_requests ADD COLUMN IF NOT EXISTS responded_by VARCHAR(20);
+ALTER TABLE close_requests ADD COLUMN IF NOT EXISTS auto_close_at TIMESTAMP;
+
+-- Lets the auto-close scheduler find the next deadline without a table scan
+CREATE INDEX IF NOT EXISTS idx_close_requests_auto_close_at
+    ON close_requests (auto_close_at)
+    WHERE status = 'pending' AND auto_close_at IS NOT NULL;
@@ -0,0 +1,63 @@
+-- Per-guild ticket counts by type, status and creation day, kept in step with
+-- ticket_logs by a trigger so /stats never has to scan the log table.
+--
+-- Counts are lifetime totals: retention deletes of old ticket_logs rows do not
+-- decrement them. Close request / denial pseudo-rows are not counted, matching
+-- the filters the old COUNT queries used.
+
+CREATE TABLE IF NOT EXISTS ticket_stats (
+    guild_id VARCHAR(20) NOT NULL,
+    ticket_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    day DATE NOT NULL,
+    ticket_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (guild_id, ticket_type, status, day)
+);
+
+CREATE OR REPLACE FUNCTION ticket_logs_update_stats() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.guild_id = NEW.guild_id
+        AND OLD.ticket_type IS NOT DISTINCT FROM NEW.ticket_type
+        AND OLD.status IS NOT DISTINCT FROM NEW.status
+        AND OLD.created_at::date IS NOT DISTINCT FROM NEW.created_at::date THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'UPDATE' AND OLD.ticket_type NOT IN ('close_request', 'close_denied') THEN
+        UPDATE ticket_stats
+        SET ticket_count = ticket_count - 1
+        WHERE guild_id = OLD.guild_id
+          AND ticket_type = OLD.ticket_type
+          AND status = COALESCE(OLD.status, 'unknown')
+          AND day = COALESCE(OLD.created_at::date, DATE '1970-01-01');
+    END IF;
+
+    IF NEW.ticket_type NOT IN ('close_request', 'close_denied') THEN
+        INSERT INTO ticket_stats (guild_id, ticket_type, status, day, ticket_count)
+        VALUES (NEW.guild_id, NEW.ticket_type, COALESCE(NEW.status, 'unknown'),
+                COALESCE(NEW.created_at::date, DATE '1970-01-01'), 1)
+        ON CONFLICT (guild_id, ticket_type, status, day)
+        DO UPDATE SET ticket_count = ticket_stats.ticket_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Block concurrent log writes (other instances) so no row slips in between
+-- the backfill snapshot and the trigger going live
+LOCK TABLE ticket_logs IN SHARE ROW EXCLUSIVE MODE;
+
+DROP TRIGGER IF EXISTS ticket_logs_stats ON ticket_logs;
+CREATE TRIGGER ticket_logs_stats
+    AFTER INSERT OR UPDATE ON ticket_logs
+    FOR EACH ROW EXECUTE FUNCTION ticket_logs_update_stats();
+
+-- Backfill from existing history
+DELETE FROM ticket_stats;
+INSERT INTO ticket_stats (guild_id, ticket_type, status, day, ticket_count)
+SELECT guild_id, ticket_type, COALESCE(status, 'unknown'), COALESCE(created_at::date, DATE '1970-01-01'), COUNT(*)
+FROM ticket_logs
+WHERE ticket_type NOT IN ('close_request', 'close_denied')
+GROUP BY 1, 2, 3, 4;
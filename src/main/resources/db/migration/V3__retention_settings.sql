@@ -0,0 +1,28 @@
+-- Per-guild retention settings and bookkeeping for the chunked retention engine.
+
+ALTER TABLE guild_configs ADD COLUMN IF NOT EXISTS cleanup_ticket_logs_days INTEGER NOT NULL DEFAULT 30;
+ALTER TABLE guild_configs ADD COLUMN IF NOT EXISTS cleanup_close_requests_days INTEGER NOT NULL DEFAULT 30;
+
+-- Close requests need their guild to apply that guild's retention policy
+ALTER TABLE close_requests ADD COLUMN IF NOT EXISTS guild_id VARCHAR(20);
+
+UPDATE close_requests c
+SET guild_id = t.guild_id
+FROM (
+    SELECT DISTINCT ON (channel_id) channel_id, guild_id
+    FROM ticket_logs
+    WHERE channel_id IS NOT NULL
+    ORDER BY channel_id, id
+) t
+WHERE c.channel_id = t.channel_id AND c.guild_id IS NULL;
+
+-- One row per retention job. last_id is the highest primary key a run in progress has
+-- processed (NULL when no run is in progress), so an interrupted run resumes where it stopped.
+CREATE TABLE IF NOT EXISTS retention_progress (
+    job VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT,
+    run_started_at TIMESTAMP,
+    last_completed_at TIMESTAMP,
+    last_rows_deleted BIGINT,
+    last_duration_ms BIGINT
+);
@@ -0,0 +1,57 @@
+-- Compact status types and bookkeeping for the online snowflake migration
+-- (SnowflakeMigrator, enabled with SNOWFLAKE_MIGRATION=true).
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_type WHERE typname = 'ticket_status') THEN
+        CREATE TYPE ticket_status AS ENUM (
+            'open', 'closed', 'reopened', 'deleted', 'auto_closed', 'close_requested', 'close_denied'
+        );
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_type WHERE typname = 'close_request_status') THEN
+        CREATE TYPE close_request_status AS ENUM (
+            'pending', 'confirmed', 'denied', 'auto_closed', 'excluded'
+        );
+    END IF;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS snowflake_migration_state (
+    key VARCHAR(100) PRIMARY KEY,
+    value TEXT,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Same rollup logic as V2, with explicit text casts so it keeps working once
+-- ticket_logs.status is an enum and guild_id a BIGINT
+CREATE OR REPLACE FUNCTION ticket_logs_update_stats() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.guild_id = NEW.guild_id
+        AND OLD.ticket_type IS NOT DISTINCT FROM NEW.ticket_type
+        AND OLD.status::text IS NOT DISTINCT FROM NEW.status::text
+        AND OLD.created_at::date IS NOT DISTINCT FROM NEW.created_at::date THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'UPDATE' AND OLD.ticket_type NOT IN ('close_request', 'close_denied') THEN
+        UPDATE ticket_stats
+        SET ticket_count = ticket_count - 1
+        WHERE guild_id = OLD.guild_id
+          AND ticket_type = OLD.ticket_type
+          AND status = COALESCE(OLD.status::text, 'unknown')
+          AND day = COALESCE(OLD.created_at::date, DATE '1970-01-01');
+    END IF;
+
+    IF NEW.ticket_type NOT IN ('close_request', 'close_denied') THEN
+        INSERT INTO ticket_stats (guild_id, ticket_type, status, day, ticket_count)
+        VALUES (NEW.guild_id, NEW.ticket_type, COALESCE(NEW.status::text, 'unknown'),
+                COALESCE(NEW.created_at::date, DATE '1970-01-01'), 1)
+        ON CONFLICT (guild_id, ticket_type, status, day)
+        DO UPDATE SET ticket_count = ticket_stats.ticket_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
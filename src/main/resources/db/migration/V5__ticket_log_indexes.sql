@@ -0,0 +1,24 @@
+-- migrate:no-transaction
+-- Indexes for the ticket_logs lookups made by TicketLogDAO. Before these, every one of them
+-- was a sequential scan over the whole table. QueryPlanCheck verifies that the DAO queries
+-- actually use them.
+--
+-- Built CONCURRENTLY so a large ticket_logs table keeps taking writes while they build, which
+-- means this script runs outside a transaction (see SchemaMigrator).
+
+-- Status updates by channel: logTicketClosedWithReason, logTicketReopened, logTicketDeleted,
+-- logTicketAutoClosed and the close request log entries
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_logs_channel_id
+    ON ticket_logs (channel_id);
+
+-- Recent activity per guild, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_logs_guild_created_at
+    ON ticket_logs (guild_id, created_at DESC);
+
+-- A user's tickets in a guild, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_logs_guild_owner_created_at
+    ON ticket_logs (guild_id, owner_id, created_at DESC);
+
+-- Highest ticket number per guild, used to seed the ticket counter
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_logs_guild_ticket_number
+    ON ticket_logs (guild_id, ticket_number);
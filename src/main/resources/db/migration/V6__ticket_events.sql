@@ -0,0 +1,83 @@
+-- Close request activity moves out of ticket_logs into an append-only event table, so
+-- ticket_logs keeps exactly one row per ticket. Rows are only ever inserted (and removed
+-- by retention), never updated.
+--
+-- event_type: 1 = close requested, 2 = close request denied (see TicketEventType)
+-- ID columns use the current snowflake storage: VARCHAR until the snowflake migration has
+-- run (which then converts this table with the others), BIGINT afterwards.
+DO $$
+DECLARE
+    id_type TEXT;
+BEGIN
+    SELECT CASE WHEN format_type(a.atttypid, a.atttypmod) = 'bigint' THEN 'BIGINT' ELSE 'VARCHAR(20)' END
+    INTO id_type
+    FROM pg_attribute a
+    WHERE a.attrelid = 'close_requests'::regclass AND a.attname = 'channel_id' AND NOT a.attisdropped;
+
+    EXECUTE format($sql$
+        CREATE TABLE IF NOT EXISTS ticket_events (
+            id BIGSERIAL PRIMARY KEY,
+            guild_id %1$s NOT NULL,
+            channel_id %1$s NOT NULL,
+            actor_id %1$s,
+            event_type SMALLINT NOT NULL,
+            created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            detail TEXT
+        )$sql$, id_type);
+
+    -- Move the pseudo-rows logCloseRequest and logCloseRequestDenied used to write. closed_by
+    -- held "Close requested by: <id> | Reason: ..." or "Close request denied by: <id>".
+    LOCK TABLE ticket_logs IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format($sql$
+        INSERT INTO ticket_events (guild_id, channel_id, actor_id, event_type, created_at, detail)
+        SELECT guild_id::text::%1$s,
+               channel_id::text::%1$s,
+               substring(closed_by from 'by: ([0-9]+)')::%1$s,
+               CASE ticket_type WHEN 'close_request' THEN 1 ELSE 2 END,
+               COALESCE(created_at, CURRENT_TIMESTAMP),
+               NULLIF(substring(closed_by from ' \| (.*)$'), '')
+        FROM ticket_logs
+        WHERE ticket_type IN ('close_request', 'close_denied')
+          AND channel_id IS NOT NULL
+        ORDER BY id$sql$, id_type);
+
+    DELETE FROM ticket_logs WHERE ticket_type IN ('close_request', 'close_denied');
+END;
+$$;
+
+-- A channel's history in order
+CREATE INDEX IF NOT EXISTS idx_ticket_events_channel_created_at
+    ON ticket_events (channel_id, created_at);
+
+-- Without pseudo-rows the rollup no longer has to filter them out
+CREATE OR REPLACE FUNCTION ticket_logs_update_stats() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.guild_id = NEW.guild_id
+        AND OLD.ticket_type IS NOT DISTINCT FROM NEW.ticket_type
+        AND OLD.status::text IS NOT DISTINCT FROM NEW.status::text
+        AND OLD.created_at::date IS NOT DISTINCT FROM NEW.created_at::date THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'UPDATE' THEN
+        UPDATE ticket_stats
+        SET ticket_count = ticket_count - 1
+        WHERE guild_id = OLD.guild_id
+          AND ticket_type = OLD.ticket_type
+          AND status = COALESCE(OLD.status::text, 'unknown')
+          AND day = COALESCE(OLD.created_at::date, DATE '1970-01-01');
+    END IF;
+
+    IF NEW.ticket_type IS NOT NULL THEN
+        INSERT INTO ticket_stats (guild_id, ticket_type, status, day, ticket_count)
+        VALUES (NEW.guild_id, NEW.ticket_type, COALESCE(NEW.status::text, 'unknown'),
+                COALESCE(NEW.created_at::date, DATE '1970-01-01'), 1)
+        ON CONFLICT (guild_id, ticket_type, status, day)
+        DO UPDATE SET ticket_count = ticket_stats.ticket_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,48 @@
+-- Publish guild configuration changes on the guild_config_changed channel so every bot
+-- instance can refresh its in-memory copy of that guild, including after edits made directly
+-- in SQL. The payload is the guild ID, or 'deleted:' and the guild ID when the config row
+-- itself is deleted. Notifications are sent on commit, and PostgreSQL folds identical
+-- notifications of one transaction into one, so a save of config plus roles sends one event.
+--
+-- Ticket counter updates don't notify: the database counter is authoritative and the
+-- in-memory value is display only. The columns are compared inside the function rather than
+-- with UPDATE OF, so the trigger holds no column dependencies the snowflake migration's
+-- column swap would trip over.
+CREATE OR REPLACE FUNCTION guild_configs_notify_changed() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('guild_config_changed', 'deleted:' || OLD.guild_id::text);
+    ELSIF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify('guild_config_changed', NEW.guild_id::text);
+    ELSIF OLD.category_id::text IS DISTINCT FROM NEW.category_id::text
+        OR OLD.panel_channel_id::text IS DISTINCT FROM NEW.panel_channel_id::text
+        OR OLD.transcript_channel_id::text IS DISTINCT FROM NEW.transcript_channel_id::text
+        OR OLD.error_log_channel_id::text IS DISTINCT FROM NEW.error_log_channel_id::text
+        OR OLD.cleanup_ticket_logs_days IS DISTINCT FROM NEW.cleanup_ticket_logs_days
+        OR OLD.cleanup_close_requests_days IS DISTINCT FROM NEW.cleanup_close_requests_days THEN
+        PERFORM pg_notify('guild_config_changed', NEW.guild_id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION support_roles_notify_changed() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('guild_config_changed', OLD.guild_id::text);
+    ELSE
+        PERFORM pg_notify('guild_config_changed', NEW.guild_id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS guild_configs_notify_changed ON guild_configs;
+CREATE TRIGGER guild_configs_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE ON guild_configs
+    FOR EACH ROW EXECUTE FUNCTION guild_configs_notify_changed();
+
+DROP TRIGGER IF EXISTS support_roles_notify_changed ON support_roles;
+CREATE TRIGGER support_roles_notify_changed
+    AFTER INSERT OR DELETE ON support_roles
+    FOR EACH ROW EXECUTE FUNCTION support_roles_notify_changed();
@@ -0,0 +1,16 @@
+-- Ticket history pages seek on (created_at, id) rather than OFFSET, with the id breaking ties
+-- between tickets created in the same instant. With id as the last index column the row
+-- comparison (created_at, id) < (?, ?) is an index range and ORDER BY created_at, id needs
+-- no sort, so every page reads only the rows it returns.
+
+-- Guild history, newest first
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_guild_created_at_id
+    ON ticket_logs (guild_id, created_at DESC, id DESC);
+
+-- A user's history in a guild, newest first
+CREATE INDEX IF NOT EXISTS idx_ticket_logs_guild_owner_created_at_id
+    ON ticket_logs (guild_id, owner_id, created_at DESC, id DESC);
+
+-- Superseded by the two above (a prefix of each)
+DROP INDEX IF EXISTS idx_ticket_logs_guild_created_at;
+DROP INDEX IF EXISTS idx_ticket_logs_guild_owner_created_at;
@@ -0,0 +1,40 @@
+-- Transcript text for /transcript search, one row per generated transcript. unique_id is the
+-- ID in the transcript's HTML file name and /transcript/ link.
+--
+-- search_vector is derived from content by PostgreSQL itself, so writers only insert text, and
+-- the GIN index answers "which transcripts contain these words" without reading content.
+-- A tsvector can't exceed 1MB, so only the first 200000 characters of a transcript are
+-- indexed; the rest is kept for snippets but isn't searchable.
+-- ID columns use the current snowflake storage, as in V6.
+DO $$
+DECLARE
+    id_type TEXT;
+BEGIN
+    SELECT CASE WHEN format_type(a.atttypid, a.atttypmod) = 'bigint' THEN 'BIGINT' ELSE 'VARCHAR(20)' END
+    INTO id_type
+    FROM pg_attribute a
+    WHERE a.attrelid = 'close_requests'::regclass AND a.attname = 'channel_id' AND NOT a.attisdropped;
+
+    EXECUTE format($sql$
+        CREATE TABLE IF NOT EXISTS transcripts (
+            id BIGSERIAL PRIMARY KEY,
+            unique_id VARCHAR(36) NOT NULL UNIQUE,
+            guild_id %1$s NOT NULL,
+            channel_id %1$s NOT NULL,
+            channel_name VARCHAR(100),
+            message_count INTEGER NOT NULL DEFAULT 0,
+            created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            content TEXT NOT NULL,
+            search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('english'::regconfig, left(content, 200000))) STORED
+        )$sql$, id_type);
+END;
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_transcripts_search_vector
+    ON transcripts USING GIN (search_vector);
+
+-- Newest matches of a guild first, and a channel's transcripts
+CREATE INDEX IF NOT EXISTS idx_transcripts_guild_created_at
+    ON transcripts (guild_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_transcripts_channel
+    ON transcripts (channel_id);